@@ -1,6 +1,7 @@
 package graphpathfinding;
 
-import priorityqueues.DoubleMapMinPQ;
+import priorityqueues.DAryHeapMinPQ;
+import priorityqueues.ExtrinsicMinPQ;
 import timing.Timer;
 
 import java.time.Duration;
@@ -8,6 +9,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * @see ShortestPathFinder for more method documentation
@@ -15,18 +17,29 @@ import java.util.Map;
 public class AStarPathFinder<VERTEX> extends ShortestPathFinder<VERTEX> {
 
     private AStarGraph<VERTEX> graph;
+    private Supplier<ExtrinsicMinPQ<VERTEX>> fringeFactory;
     /**
-     * Creates a new AStarPathFinder that works on the provided graph.
+     * Creates a new AStarPathFinder that works on the provided graph, using a
+     * {@link DAryHeapMinPQ} as its fringe.
      */
     public AStarPathFinder(AStarGraph<VERTEX> graph) {
+        this(graph, DAryHeapMinPQ::new);
+    }
+
+    /**
+     * Creates a new AStarPathFinder that works on the provided graph, using PQs created by the
+     * given factory as its fringe.
+     */
+    public AStarPathFinder(AStarGraph<VERTEX> graph, Supplier<ExtrinsicMinPQ<VERTEX>> fringeFactory) {
         this.graph = graph;
+        this.fringeFactory = fringeFactory;
     }
 
     @Override
     public ShortestPathResult<VERTEX> findShortestPath(VERTEX start, VERTEX end, Duration timeout) {
 
         Timer timer = new Timer(timeout);
-        DoubleMapMinPQ<VERTEX> fringe = new DoubleMapMinPQ<>();
+        ExtrinsicMinPQ<VERTEX> fringe = this.fringeFactory.get();
         List<VERTEX> solution = new ArrayList<>();
         Map<VERTEX, Double> distances = new HashMap<>();
         Map<VERTEX, VERTEX> prevPoint = new HashMap<>();
@@ -55,7 +68,7 @@ public class AStarPathFinder<VERTEX> extends ShortestPathFinder<VERTEX> {
 
                         fringe.changePriority(neighbor.to(), neighbor.weight() +
                             distances.get(min) +
-                            this.graph.estimatedDistanceToGoal(min, end));
+                            this.graph.estimatedDistanceToGoal(neighbor.to(), end));
                     }
 
                 } else if (!distances.containsKey(neighbor.to())) {
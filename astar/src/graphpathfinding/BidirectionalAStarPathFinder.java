@@ -0,0 +1,231 @@
+package graphpathfinding;
+
+import priorityqueues.IndexedIntMinPQ;
+import timing.Timer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A bidirectional A* path finder: one search runs forward from the start, another runs backward
+ * from the end over the reversed edges, and the path is found where they meet. On road networks
+ * the two searches together usually settle far fewer vertices than one search all the way across.
+ *
+ * Both searches use the average potential pf(v) = (h(v, end) - h(v, start)) / 2, with the
+ * backward search using -pf(v), where h is the graph's estimatedDistanceToGoal. This makes the
+ * reduced edge weights the same in both directions, so the searches can stop as soon as the
+ * smallest forward key plus the smallest backward key is at least the best path found so far.
+ * The heuristic must be consistent and symmetric (h(v, w) == h(w, v)), which holds for
+ * straight-line distances.
+ *
+ * Like {@link IndexedAStarPathFinder}, the search arrays are allocated once per thread, so
+ * findShortestPath may be called any number of times, including concurrently. The reversed edges
+ * are built once, in the constructor.
+ *
+ * @see ShortestPathFinder for more method documentation
+ */
+public class BidirectionalAStarPathFinder<VERTEX> extends ShortestPathFinder<VERTEX> {
+    private final IndexedAStarGraph<VERTEX> graph;
+    private final ReversedEdges reversed;
+    private final ThreadLocal<Workspace> workspaces;
+
+    /**
+     * Creates a new BidirectionalAStarPathFinder that works on the provided graph.
+     */
+    public BidirectionalAStarPathFinder(IndexedAStarGraph<VERTEX> graph) {
+        this.graph = graph;
+        this.reversed = new ReversedEdges(graph);
+        this.workspaces = ThreadLocal.withInitial(() -> new Workspace(graph.numVertices()));
+    }
+
+    @Override
+    public ShortestPathResult<VERTEX> findShortestPath(VERTEX start, VERTEX end, Duration timeout) {
+        Timer timer = new Timer(timeout);
+        int source = graph.indexOf(start);
+        int target = graph.indexOf(end);
+        if (source < 0 || target < 0) {
+            return new ShortestPathResult.Unsolvable<>(0, timer.elapsedDuration());
+        }
+
+        Workspace ws = workspaces.get();
+        ws.reset(source, target);
+        Search forward = ws.forward;
+        Search backward = ws.backward;
+        int states = 0;
+
+        forward.visit(source, 0.0, -1);
+        forward.fringe.add(source, ws.potential(source));
+        backward.visit(target, 0.0, -1);
+        backward.fringe.add(target, -ws.potential(target));
+        if (source == target) {
+            ws.best = 0.0;
+            ws.meeting = source;
+        }
+
+        while (!forward.fringe.isEmpty() && !backward.fringe.isEmpty() && !timer.isTimeUp()) {
+            if (forward.fringe.peekMinPriority() + backward.fringe.peekMinPriority() >= ws.best) {
+                break;
+            }
+            states++;
+            if (forward.fringe.size() <= backward.fringe.size()) {
+                int v = forward.fringe.removeMin();
+                double distance = forward.distances[v];
+                int degree = graph.outDegree(v);
+                for (int i = 0; i < degree; i += 1) {
+                    relax(ws, forward, backward, v, graph.neighbor(v, i), distance + graph.neighborWeight(v, i), 1);
+                }
+            } else {
+                int v = backward.fringe.removeMin();
+                double distance = backward.distances[v];
+                for (int e = reversed.offsets[v]; e < reversed.offsets[v + 1]; e += 1) {
+                    relax(ws, backward, forward, v, reversed.sources[e], distance + reversed.weights[e], -1);
+                }
+            }
+        }
+
+        if (timer.isTimeUp()) {
+            return new ShortestPathResult.Timeout<>(states, timer.elapsedDuration());
+        }
+
+        if (ws.meeting < 0) {
+            return new ShortestPathResult.Unsolvable<>(states, timer.elapsedDuration());
+        }
+
+        List<VERTEX> solution = new ArrayList<>();
+        for (int v = ws.meeting; v != -1; v = forward.parents[v]) {
+            solution.add(graph.vertexAt(v));
+        }
+        Collections.reverse(solution);
+        for (int v = backward.parents[ws.meeting]; v != -1; v = backward.parents[v]) {
+            solution.add(graph.vertexAt(v));
+        }
+        return new ShortestPathResult.Solved<>(
+            solution,
+            ws.best,
+            states,
+            timer.elapsedDuration()
+        );
+    }
+
+    /**
+     * Relaxes the edge from v to w in the given search, where sign is 1 for the forward search
+     * and -1 for the backward search, and records a better meeting point if w has also been
+     * reached by the other search.
+     */
+    private void relax(Workspace ws, Search search, Search other, int v, int w, double newDistance, int sign) {
+        if (!search.isVisited(w)) {
+            search.visit(w, newDistance, v);
+            search.fringe.add(w, newDistance + sign * ws.potential(w));
+        } else if (newDistance < search.distances[w]) {
+            search.distances[w] = newDistance;
+            search.parents[w] = v;
+            double priority = newDistance + sign * ws.potential(w);
+            if (search.fringe.contains(w)) {
+                search.fringe.changePriority(w, priority);
+            } else {
+                search.fringe.add(w, priority);
+            }
+        } else {
+            return;
+        }
+        if (other.isVisited(w) && newDistance + other.distances[w] < ws.best) {
+            ws.best = newDistance + other.distances[w];
+            ws.meeting = w;
+        }
+    }
+
+    @Override
+    protected AStarGraph<VERTEX> graph() {
+        return this.graph;
+    }
+
+    /**
+     * The per-thread state of a bidirectional search: one Search per direction, the cached
+     * potentials of the vertices reached so far, and the best path found so far.
+     */
+    private class Workspace {
+        final Search forward;
+        final Search backward;
+        final double[] potentials;
+        final int[] potentialGenerations;
+        int generation;
+        int source;
+        int target;
+        double best;
+        int meeting;
+
+        Workspace(int numVertices) {
+            this.forward = new Search(numVertices);
+            this.backward = new Search(numVertices);
+            this.potentials = new double[numVertices];
+            this.potentialGenerations = new int[numVertices];
+            this.generation = 0;
+        }
+
+        void reset(int source, int target) {
+            forward.reset();
+            backward.reset();
+            if (generation == Integer.MAX_VALUE) {
+                Arrays.fill(potentialGenerations, 0);
+                generation = 0;
+            }
+            generation += 1;
+            this.source = source;
+            this.target = target;
+            this.best = Double.POSITIVE_INFINITY;
+            this.meeting = -1;
+        }
+
+        /** Returns the forward potential of v, computing it only the first time it's needed. */
+        double potential(int v) {
+            if (potentialGenerations[v] != generation) {
+                potentialGenerations[v] = generation;
+                potentials[v] = (graph.estimatedDistanceToGoal(v, target)
+                    - graph.estimatedDistanceToGoal(v, source)) / 2;
+            }
+            return potentials[v];
+        }
+    }
+
+    /**
+     * The arrays used by the search in one direction. A vertex's distance and parent are only
+     * meaningful if its generation matches the current generation.
+     */
+    private static class Search {
+        final double[] distances;
+        final int[] parents;
+        final int[] generations;
+        final IndexedIntMinPQ fringe;
+        int generation;
+
+        Search(int numVertices) {
+            this.distances = new double[numVertices];
+            this.parents = new int[numVertices];
+            this.generations = new int[numVertices];
+            this.fringe = new IndexedIntMinPQ(numVertices);
+            this.generation = 0;
+        }
+
+        void reset() {
+            if (generation == Integer.MAX_VALUE) {
+                Arrays.fill(generations, 0);
+                generation = 0;
+            }
+            generation += 1;
+            fringe.clear();
+        }
+
+        boolean isVisited(int v) {
+            return generations[v] == generation;
+        }
+
+        void visit(int v, double distance, int parent) {
+            generations[v] = generation;
+            distances[v] = distance;
+            parents[v] = parent;
+        }
+    }
+}
@@ -0,0 +1,564 @@
+package graphpathfinding;
+
+import priorityqueues.IndexedIntMinPQ;
+import timing.Timer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A shortest path finder that preprocesses an {@link IndexedAStarGraph} into a contraction
+ * hierarchy, so that each query only has to search a tiny part of the graph.
+ *
+ * Preprocessing contracts the vertices one at a time, cheapest first. Contracting a vertex v
+ * removes it from the remaining graph; for each pair of remaining edges u -> v -> w whose path
+ * through v might be the only shortest path from u to w, a shortcut edge u -> w is added. A
+ * vertex's cost is its edge difference (the shortcuts it would add minus the edges it would
+ * remove) plus the number of its neighbors that have already been contracted, which keeps the
+ * contraction spread evenly over the graph. The order in which vertices are contracted is their
+ * rank.
+ *
+ * A query is a bidirectional Dijkstra's search that only follows edges (original or shortcut)
+ * towards higher-ranked vertices: forwards from the start and backwards from the end. Every
+ * shortest path has an equally short counterpart in this upward graph, which climbs to its
+ * highest-ranked vertex and then descends. The shortcuts on the found path are then unpacked
+ * back into the original edges they stand for.
+ *
+ * The graph must not change after this path finder is created. findShortestPath may be called
+ * any number of times, including concurrently from different threads.
+ *
+ * @see ShortestPathFinder for more method documentation
+ */
+public class ContractionHierarchyPathFinder<VERTEX> extends ShortestPathFinder<VERTEX> {
+    /** The most vertices a witness search may settle before giving up and adding a shortcut. */
+    private static final int WITNESS_SEARCH_LIMIT = 100;
+
+    private final IndexedAStarGraph<VERTEX> graph;
+
+    /*
+    Every edge, original or shortcut, has an id. Original edges have no children; a shortcut's
+    children are the ids of the two edges u -> v and v -> w that it replaces.
+     */
+    private final int[] edgeFrom;
+    private final int[] edgeTo;
+    private final double[] edgeWeights;
+    private final int[] firstChildren;
+    private final int[] secondChildren;
+
+    /** The ids of the edges v -> w with rank[w] > rank[v], stored by v in CSR form. */
+    private final int[] upwardOffsets;
+    private final int[] upwardEdges;
+    /** The ids of the edges w -> v with rank[w] > rank[v], stored by v in CSR form. */
+    private final int[] downwardOffsets;
+    private final int[] downwardEdges;
+
+    private final ThreadLocal<Workspace> workspaces;
+
+    /**
+     * Creates a new ContractionHierarchyPathFinder that works on the provided graph, building its
+     * contraction hierarchy right away.
+     */
+    public ContractionHierarchyPathFinder(IndexedAStarGraph<VERTEX> graph) {
+        this.graph = graph;
+        int numVertices = graph.numVertices();
+
+        Contractor contractor = new Contractor(graph);
+        int[] rank = contractor.contractAll();
+        EdgeList edges = contractor.edges;
+        this.edgeFrom = Arrays.copyOf(edges.from, edges.size);
+        this.edgeTo = Arrays.copyOf(edges.to, edges.size);
+        this.edgeWeights = Arrays.copyOf(edges.weights, edges.size);
+        this.firstChildren = Arrays.copyOf(edges.firstChildren, edges.size);
+        this.secondChildren = Arrays.copyOf(edges.secondChildren, edges.size);
+
+        this.upwardOffsets = new int[numVertices + 1];
+        this.downwardOffsets = new int[numVertices + 1];
+        for (int e = 0; e < edges.size; e += 1) {
+            if (rank[edgeTo[e]] > rank[edgeFrom[e]]) {
+                upwardOffsets[edgeFrom[e] + 1] += 1;
+            } else {
+                downwardOffsets[edgeTo[e] + 1] += 1;
+            }
+        }
+        for (int v = 0; v < numVertices; v += 1) {
+            upwardOffsets[v + 1] += upwardOffsets[v];
+            downwardOffsets[v + 1] += downwardOffsets[v];
+        }
+        this.upwardEdges = new int[upwardOffsets[numVertices]];
+        this.downwardEdges = new int[downwardOffsets[numVertices]];
+        int[] upwardNext = Arrays.copyOf(upwardOffsets, numVertices);
+        int[] downwardNext = Arrays.copyOf(downwardOffsets, numVertices);
+        for (int e = 0; e < edges.size; e += 1) {
+            if (rank[edgeTo[e]] > rank[edgeFrom[e]]) {
+                upwardEdges[upwardNext[edgeFrom[e]]++] = e;
+            } else {
+                downwardEdges[downwardNext[edgeTo[e]]++] = e;
+            }
+        }
+
+        this.workspaces = ThreadLocal.withInitial(() -> new Workspace(numVertices));
+    }
+
+    /** Returns the number of shortcut edges added during preprocessing. */
+    public int numShortcuts() {
+        int count = 0;
+        for (int first : firstChildren) {
+            if (first >= 0) {
+                count += 1;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public ShortestPathResult<VERTEX> findShortestPath(VERTEX start, VERTEX end, Duration timeout) {
+        Timer timer = new Timer(timeout);
+        int source = graph.indexOf(start);
+        int target = graph.indexOf(end);
+        if (source < 0 || target < 0) {
+            return new ShortestPathResult.Unsolvable<>(0, timer.elapsedDuration());
+        }
+
+        Workspace ws = workspaces.get();
+        ws.reset();
+        SearchSide forward = ws.forward;
+        SearchSide backward = ws.backward;
+        forward.visit(source, 0.0, -1);
+        forward.fringe.add(source, 0.0);
+        backward.visit(target, 0.0, -1);
+        backward.fringe.add(target, 0.0);
+
+        double best = Double.POSITIVE_INFINITY;
+        int meeting = -1;
+        int states = 0;
+        while (!timer.isTimeUp()) {
+            boolean forwardActive = !forward.fringe.isEmpty() && forward.fringe.peekMinPriority() < best;
+            boolean backwardActive = !backward.fringe.isEmpty() && backward.fringe.peekMinPriority() < best;
+            if (!forwardActive && !backwardActive) {
+                break;
+            }
+            boolean goForward = forwardActive
+                && (!backwardActive || forward.fringe.peekMinPriority() <= backward.fringe.peekMinPriority());
+            SearchSide side = goForward ? forward : backward;
+            SearchSide other = goForward ? backward : forward;
+
+            int v = side.fringe.removeMin();
+            states++;
+            if (other.isVisited(v) && side.distances[v] + other.distances[v] < best) {
+                best = side.distances[v] + other.distances[v];
+                meeting = v;
+            }
+            if (goForward) {
+                relax(side, v, upwardOffsets, upwardEdges, edgeTo);
+            } else {
+                relax(side, v, downwardOffsets, downwardEdges, edgeFrom);
+            }
+        }
+
+        if (timer.isTimeUp()) {
+            return new ShortestPathResult.Timeout<>(states, timer.elapsedDuration());
+        }
+
+        if (meeting == -1) {
+            return new ShortestPathResult.Unsolvable<>(states, timer.elapsedDuration());
+        }
+
+        // Collect the edges of the path through the upward graph, from start to end
+        List<Integer> pathEdges = new ArrayList<>();
+        for (int v = meeting; v != source; v = edgeFrom[forward.parentEdges[v]]) {
+            pathEdges.add(forward.parentEdges[v]);
+        }
+        Collections.reverse(pathEdges);
+        for (int v = meeting; v != target; v = edgeTo[backward.parentEdges[v]]) {
+            pathEdges.add(backward.parentEdges[v]);
+        }
+
+        List<VERTEX> solution = new ArrayList<>();
+        solution.add(start);
+        int[] stack = ws.unpackStack;
+        for (int pathEdge : pathEdges) {
+            int top = 0;
+            stack[top++] = pathEdge;
+            while (top > 0) {
+                int e = stack[--top];
+                if (firstChildren[e] < 0) {
+                    solution.add(graph.vertexAt(edgeTo[e]));
+                } else {
+                    if (top + 2 > stack.length) {
+                        stack = Arrays.copyOf(stack, stack.length * 2);
+                        ws.unpackStack = stack;
+                    }
+                    stack[top++] = secondChildren[e];
+                    stack[top++] = firstChildren[e];
+                }
+            }
+        }
+        return new ShortestPathResult.Solved<>(
+            solution,
+            best,
+            states,
+            timer.elapsedDuration()
+        );
+    }
+
+    /** Relaxes the edges out of v in one direction of the upward graph. */
+    private void relax(SearchSide side, int v, int[] offsets, int[] edgeIds, int[] heads) {
+        double distance = side.distances[v];
+        for (int i = offsets[v]; i < offsets[v + 1]; i += 1) {
+            int e = edgeIds[i];
+            int w = heads[e];
+            double newDistance = distance + edgeWeights[e];
+            if (!side.isVisited(w)) {
+                side.visit(w, newDistance, e);
+                side.fringe.add(w, newDistance);
+            } else if (newDistance < side.distances[w]) {
+                side.distances[w] = newDistance;
+                side.parentEdges[w] = e;
+                if (side.fringe.contains(w)) {
+                    side.fringe.changePriority(w, newDistance);
+                } else {
+                    side.fringe.add(w, newDistance);
+                }
+            }
+        }
+    }
+
+    @Override
+    protected AStarGraph<VERTEX> graph() {
+        return this.graph;
+    }
+
+    /** The state of one direction of a query. */
+    private static class SearchSide {
+        final double[] distances;
+        final int[] parentEdges;
+        final int[] generations;
+        final IndexedIntMinPQ fringe;
+        int generation;
+
+        SearchSide(int numVertices) {
+            this.distances = new double[numVertices];
+            this.parentEdges = new int[numVertices];
+            this.generations = new int[numVertices];
+            this.fringe = new IndexedIntMinPQ(numVertices);
+            this.generation = 0;
+        }
+
+        void reset() {
+            if (generation == Integer.MAX_VALUE) {
+                Arrays.fill(generations, 0);
+                generation = 0;
+            }
+            generation += 1;
+            fringe.clear();
+        }
+
+        boolean isVisited(int v) {
+            return generations[v] == generation;
+        }
+
+        void visit(int v, double distance, int parentEdge) {
+            generations[v] = generation;
+            distances[v] = distance;
+            parentEdges[v] = parentEdge;
+        }
+    }
+
+    /** The per-thread state used during a query. */
+    private static class Workspace {
+        final SearchSide forward;
+        final SearchSide backward;
+        int[] unpackStack;
+
+        Workspace(int numVertices) {
+            this.forward = new SearchSide(numVertices);
+            this.backward = new SearchSide(numVertices);
+            this.unpackStack = new int[64];
+        }
+
+        void reset() {
+            forward.reset();
+            backward.reset();
+        }
+    }
+
+    /** A growable list of edges, stored as parallel arrays. */
+    private static class EdgeList {
+        int[] from = new int[16];
+        int[] to = new int[16];
+        double[] weights = new double[16];
+        int[] firstChildren = new int[16];
+        int[] secondChildren = new int[16];
+        int size = 0;
+
+        int add(int u, int w, double weight, int firstChild, int secondChild) {
+            if (size == from.length) {
+                int capacity = size * 2;
+                from = Arrays.copyOf(from, capacity);
+                to = Arrays.copyOf(to, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+                firstChildren = Arrays.copyOf(firstChildren, capacity);
+                secondChildren = Arrays.copyOf(secondChildren, capacity);
+            }
+            from[size] = u;
+            to[size] = w;
+            weights[size] = weight;
+            firstChildren[size] = firstChild;
+            secondChildren[size] = secondChild;
+            size += 1;
+            return size - 1;
+        }
+    }
+
+    /** A growable list of ints. */
+    private static class IntList {
+        int[] items = new int[4];
+        int size = 0;
+
+        void add(int item) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size] = item;
+            size += 1;
+        }
+    }
+
+    /** Computes the contraction order and shortcuts for a graph. */
+    private static class Contractor {
+        final int numVertices;
+        final EdgeList edges;
+        final IntList[] outEdges;
+        final IntList[] inEdges;
+        final boolean[] contracted;
+        final int[] contractedNeighbors;
+
+        // The state of the current witness search
+        final double[] witnessDistances;
+        final int[] witnessGenerations;
+        final int[] targetGenerations;
+        final IndexedIntMinPQ witnessFringe;
+        int witnessGeneration;
+
+        Contractor(IndexedAStarGraph<?> graph) {
+            this.numVertices = graph.numVertices();
+            this.edges = new EdgeList();
+            this.outEdges = new IntList[numVertices];
+            this.inEdges = new IntList[numVertices];
+            for (int v = 0; v < numVertices; v += 1) {
+                outEdges[v] = new IntList();
+                inEdges[v] = new IntList();
+            }
+            for (int v = 0; v < numVertices; v += 1) {
+                for (int i = 0; i < graph.outDegree(v); i += 1) {
+                    int w = graph.neighbor(v, i);
+                    if (w != v) {
+                        addEdge(v, w, graph.neighborWeight(v, i), -1, -1);
+                    }
+                }
+            }
+            this.contracted = new boolean[numVertices];
+            this.contractedNeighbors = new int[numVertices];
+            this.witnessDistances = new double[numVertices];
+            this.witnessGenerations = new int[numVertices];
+            this.targetGenerations = new int[numVertices];
+            this.witnessFringe = new IndexedIntMinPQ(numVertices);
+            this.witnessGeneration = 0;
+        }
+
+        private void addEdge(int u, int w, double weight, int firstChild, int secondChild) {
+            int e = edges.add(u, w, weight, firstChild, secondChild);
+            outEdges[u].add(e);
+            inEdges[w].add(e);
+        }
+
+        /**
+         * Adds a shortcut u -> w. If the remaining graph already has a longer edge u -> w, the
+         * shortcut takes its place there, so that parallel edges don't pile up.
+         */
+        private void addShortcut(int u, int w, double weight, int firstChild, int secondChild) {
+            IntList out = outEdges[u];
+            for (int i = 0; i < out.size; i += 1) {
+                int old = out.items[i];
+                if (edges.to[old] == w) {
+                    int e = edges.add(u, w, weight, firstChild, secondChild);
+                    out.items[i] = e;
+                    IntList in = inEdges[w];
+                    for (int j = 0; j < in.size; j += 1) {
+                        if (in.items[j] == old) {
+                            in.items[j] = e;
+                        }
+                    }
+                    return;
+                }
+            }
+            addEdge(u, w, weight, firstChild, secondChild);
+        }
+
+        /** Contracts every vertex, adding shortcuts as needed, and returns the rank of each. */
+        int[] contractAll() {
+            int[] rank = new int[numVertices];
+            IndexedIntMinPQ order = new IndexedIntMinPQ(numVertices);
+            for (int v = 0; v < numVertices; v += 1) {
+                order.add(v, priority(v));
+            }
+            int nextRank = 0;
+            while (!order.isEmpty()) {
+                int v = order.removeMin();
+                // Priorities go stale as neighbors are contracted, so check this one is still least
+                double priority = priority(v);
+                if (!order.isEmpty() && priority > order.peekMinPriority()) {
+                    order.add(v, priority);
+                    continue;
+                }
+                contract(v, true);
+                contracted[v] = true;
+                rank[v] = nextRank++;
+                updateNeighbors(outEdges[v], edges.to, order);
+                updateNeighbors(inEdges[v], edges.from, order);
+            }
+            return rank;
+        }
+
+        /**
+         * Drops the edges to contracted vertices from each remaining neighbor at the given ends of
+         * the incident edges, and updates its priority.
+         */
+        private void updateNeighbors(IntList incident, int[] ends, IndexedIntMinPQ order) {
+            for (int i = 0; i < incident.size; i += 1) {
+                int x = ends[incident.items[i]];
+                if (!contracted[x]) {
+                    removeContracted(outEdges[x], edges.to);
+                    removeContracted(inEdges[x], edges.from);
+                    contractedNeighbors[x] += 1;
+                    order.changePriority(x, priority(x));
+                }
+            }
+        }
+
+        private void removeContracted(IntList incident, int[] ends) {
+            int kept = 0;
+            for (int i = 0; i < incident.size; i += 1) {
+                int e = incident.items[i];
+                if (!contracted[ends[e]]) {
+                    incident.items[kept++] = e;
+                }
+            }
+            incident.size = kept;
+        }
+
+        private double priority(int v) {
+            int removed = outEdges[v].size + inEdges[v].size;
+            return contract(v, false) - removed + contractedNeighbors[v];
+        }
+
+        /**
+         * Finds the shortcuts needed to contract v, adding them to the graph if add is true, and
+         * returns how many there are.
+         */
+        private int contract(int v, boolean add) {
+            int count = 0;
+            IntList in = inEdges[v];
+            IntList out = outEdges[v];
+            for (int i = 0; i < in.size; i += 1) {
+                int first = in.items[i];
+                int u = edges.from[first];
+                startWitnessSearch();
+                int targets = 0;
+                double maxOutWeight = 0;
+                for (int j = 0; j < out.size; j += 1) {
+                    int w = edges.to[out.items[j]];
+                    if (w != u && targetGenerations[w] != witnessGeneration) {
+                        targetGenerations[w] = witnessGeneration;
+                        targets += 1;
+                        maxOutWeight = Math.max(maxOutWeight, edges.weights[out.items[j]]);
+                    }
+                }
+                if (targets == 0) {
+                    continue;
+                }
+                double inWeight = edges.weights[first];
+                findWitnesses(u, v, inWeight + maxOutWeight, targets);
+                for (int j = 0; j < out.size; j += 1) {
+                    int second = out.items[j];
+                    int w = edges.to[second];
+                    if (w == u) {
+                        continue;
+                    }
+                    double viaWeight = inWeight + edges.weights[second];
+                    if (witnessGenerations[w] == witnessGeneration && witnessDistances[w] <= viaWeight) {
+                        continue;
+                    }
+                    count += 1;
+                    // Don't add a second shortcut for a parallel edge v -> w
+                    witnessGenerations[w] = witnessGeneration;
+                    witnessDistances[w] = viaWeight;
+                    if (add) {
+                        addShortcut(u, w, viaWeight, first, second);
+                    }
+                }
+            }
+            return count;
+        }
+
+        private void startWitnessSearch() {
+            if (witnessGeneration == Integer.MAX_VALUE) {
+                Arrays.fill(witnessGenerations, 0);
+                Arrays.fill(targetGenerations, 0);
+                witnessGeneration = 0;
+            }
+            witnessGeneration += 1;
+            witnessFringe.clear();
+        }
+
+        /**
+         * Runs a Dijkstra's search from u over the uncontracted vertices other than v, stopping
+         * once all of the given number of marked targets are settled, or after maxDistance or
+         * WITNESS_SEARCH_LIMIT vertices. Afterwards, witnessDistances holds an upper bound on the
+         * distance from u to each vertex it reached.
+         */
+        private void findWitnesses(int u, int v, double maxDistance, int targets) {
+            witnessGenerations[u] = witnessGeneration;
+            witnessDistances[u] = 0.0;
+            witnessFringe.add(u, 0.0);
+            int settled = 0;
+            while (!witnessFringe.isEmpty() && settled < WITNESS_SEARCH_LIMIT) {
+                if (witnessFringe.peekMinPriority() > maxDistance) {
+                    break;
+                }
+                int x = witnessFringe.removeMin();
+                settled += 1;
+                if (targetGenerations[x] == witnessGeneration) {
+                    targets -= 1;
+                    if (targets == 0) {
+                        break;
+                    }
+                }
+                IntList out = outEdges[x];
+                for (int i = 0; i < out.size; i += 1) {
+                    int e = out.items[i];
+                    int y = edges.to[e];
+                    if (y == v) {
+                        continue;
+                    }
+                    double distance = witnessDistances[x] + edges.weights[e];
+                    if (witnessGenerations[y] != witnessGeneration) {
+                        witnessGenerations[y] = witnessGeneration;
+                        witnessDistances[y] = distance;
+                        witnessFringe.add(y, distance);
+                    } else if (distance < witnessDistances[y]) {
+                        witnessDistances[y] = distance;
+                        if (witnessFringe.contains(y)) {
+                            witnessFringe.changePriority(y, distance);
+                        } else {
+                            witnessFringe.add(y, distance);
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package graphpathfinding;
+
+import priorityqueues.IndexedIntMinPQ;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Computes the lengths of the shortest paths from many sources to many targets in an
+ * {@link IndexedAStarGraph}.
+ *
+ * Rather than searching once for every (source, target) pair, each row of the matrix comes from
+ * a single one-to-many Dijkstra search from its source, which stops as soon as every target has
+ * been settled. Rows are independent, so they are computed in parallel; like
+ * {@link IndexedAStarPathFinder}, each thread reuses its own search arrays.
+ */
+public class DistanceMatrix<VERTEX> {
+    private final IndexedAStarGraph<VERTEX> graph;
+    private final ThreadLocal<Workspace> workspaces;
+
+    public DistanceMatrix(IndexedAStarGraph<VERTEX> graph) {
+        this.graph = graph;
+        this.workspaces = ThreadLocal.withInitial(() -> new Workspace(graph.numVertices()));
+    }
+
+    /**
+     * Returns the rows of the distance matrix from sources to targets, in the same order as
+     * sources. The stream is parallel and lazy, so rows can be consumed (e.g. with forEachOrdered)
+     * as they are computed, without holding the whole matrix at once.
+     *
+     * Entry j of row i is the length of the shortest path from sources.get(i) to targets.get(j),
+     * or Double.POSITIVE_INFINITY if there is no such path.
+     */
+    public Stream<double[]> rows(List<VERTEX> sources, List<VERTEX> targets) {
+        int[] sourceIndices = indicesOf(sources);
+        int[] targetIndices = indicesOf(targets);
+        return IntStream.range(0, sourceIndices.length)
+            .parallel()
+            .mapToObj(i -> distancesFrom(sourceIndices[i], targetIndices));
+    }
+
+    /** Returns the whole distance matrix from sources to targets, as described in {@link #rows}. */
+    public double[][] compute(List<VERTEX> sources, List<VERTEX> targets) {
+        return rows(sources, targets).toArray(double[][]::new);
+    }
+
+    /**
+     * Returns the lengths of the shortest paths from source to each of the targets, or
+     * Double.POSITIVE_INFINITY for targets that can't be reached.
+     */
+    public double[] distancesFrom(VERTEX source, List<VERTEX> targets) {
+        return distancesFrom(graph.indexOf(source), indicesOf(targets));
+    }
+
+    private int[] indicesOf(List<VERTEX> vertices) {
+        int[] indices = new int[vertices.size()];
+        for (int i = 0; i < indices.length; i += 1) {
+            indices[i] = graph.indexOf(vertices.get(i));
+        }
+        return indices;
+    }
+
+    private double[] distancesFrom(int source, int[] targets) {
+        double[] result = new double[targets.length];
+        Arrays.fill(result, Double.POSITIVE_INFINITY);
+        if (source < 0) {
+            return result;
+        }
+
+        Workspace ws = workspaces.get();
+        ws.reset();
+        int remaining = 0;
+        for (int target : targets) {
+            if (target >= 0 && !ws.isTarget(target)) {
+                ws.markTarget(target);
+                remaining += 1;
+            }
+        }
+
+        IndexedIntMinPQ fringe = ws.fringe;
+        ws.visit(source, 0.0);
+        fringe.add(source, 0.0);
+        while (!fringe.isEmpty() && remaining > 0) {
+            int v = fringe.removeMin();
+            if (ws.isTarget(v)) {
+                remaining -= 1;
+            }
+            double distance = ws.distances[v];
+            int degree = graph.outDegree(v);
+            for (int i = 0; i < degree; i += 1) {
+                int w = graph.neighbor(v, i);
+                double newDistance = distance + graph.neighborWeight(v, i);
+                if (!ws.isVisited(w)) {
+                    ws.visit(w, newDistance);
+                    fringe.add(w, newDistance);
+                } else if (newDistance < ws.distances[w]) {
+                    ws.distances[w] = newDistance;
+                    fringe.changePriority(w, newDistance);
+                }
+            }
+        }
+
+        for (int j = 0; j < targets.length; j += 1) {
+            if (targets[j] >= 0 && ws.isVisited(targets[j])) {
+                result[j] = ws.distances[targets[j]];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The per-thread arrays used during a search. A vertex's distance is only meaningful, and it
+     * is only a target, if its generation matches the current generation.
+     */
+    private static class Workspace {
+        final double[] distances;
+        final int[] generations;
+        final int[] targetGenerations;
+        final IndexedIntMinPQ fringe;
+        int generation;
+
+        Workspace(int numVertices) {
+            this.distances = new double[numVertices];
+            this.generations = new int[numVertices];
+            this.targetGenerations = new int[numVertices];
+            this.fringe = new IndexedIntMinPQ(numVertices);
+            this.generation = 0;
+        }
+
+        void reset() {
+            if (generation == Integer.MAX_VALUE) {
+                Arrays.fill(generations, 0);
+                Arrays.fill(targetGenerations, 0);
+                generation = 0;
+            }
+            generation += 1;
+            fringe.clear();
+        }
+
+        boolean isVisited(int v) {
+            return generations[v] == generation;
+        }
+
+        void visit(int v, double distance) {
+            generations[v] = generation;
+            distances[v] = distance;
+        }
+
+        boolean isTarget(int v) {
+            return targetGenerations[v] == generation;
+        }
+
+        void markTarget(int v) {
+            targetGenerations[v] = generation;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package graphpathfinding;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An {@link AStarGraph} whose vertices are numbered densely from 0 to numVertices() - 1, so that
+ * neighbors can be iterated by index without allocating any edge objects:
+ *
+ * <pre>
+ *     for (int i = 0; i &lt; g.outDegree(v); i += 1) {
+ *         int w = g.neighbor(v, i);
+ *         double weight = g.neighborWeight(v, i);
+ *     }
+ * </pre>
+ *
+ * The object-based methods from AStarGraph are provided in terms of the index-based ones, so an
+ * IndexedAStarGraph can still be used by path finders that only understand AStarGraph.
+ */
+public interface IndexedAStarGraph<VERTEX> extends AStarGraph<VERTEX> {
+    /** Returns the number of vertices in this graph. */
+    int numVertices();
+
+    /** Returns the index of the given vertex, or -1 if it is not in this graph. */
+    int indexOf(VERTEX v);
+
+    /** Returns the vertex with the given index. */
+    VERTEX vertexAt(int index);
+
+    /** Returns the number of outgoing edges from the vertex with index v. */
+    int outDegree(int v);
+
+    /** Returns the index of the vertex at the end of the i-th outgoing edge from v. */
+    int neighbor(int v, int i);
+
+    /** Returns the weight of the i-th outgoing edge from v. */
+    double neighborWeight(int v, int i);
+
+    /**
+     * Returns an id for the i-th outgoing edge from v that is unique across the whole graph, or -1
+     * if this graph doesn't number its edges.
+     */
+    default int edgeId(int v, int i) {
+        return -1;
+    }
+
+    /**
+     * Returns an estimated distance from the vertex with index v to the vertex with index goal,
+     * according to the A* heuristic function for this graph.
+     */
+    double estimatedDistanceToGoal(int v, int goal);
+
+    @Override
+    default List<WeightedEdge<VERTEX>> neighbors(VERTEX v) {
+        int index = indexOf(v);
+        if (index < 0) {
+            return List.of();
+        }
+        int degree = outDegree(index);
+        List<WeightedEdge<VERTEX>> edges = new ArrayList<>(degree);
+        for (int i = 0; i < degree; i += 1) {
+            edges.add(new WeightedEdge<>(v, vertexAt(neighbor(index, i)), neighborWeight(index, i)));
+        }
+        return edges;
+    }
+
+    @Override
+    default double estimatedDistanceToGoal(VERTEX v, VERTEX goal) {
+        return estimatedDistanceToGoal(indexOf(v), indexOf(goal));
+    }
+}
@@ -0,0 +1,179 @@
+package graphpathfinding;
+
+import priorityqueues.IndexedIntMinPQ;
+import timing.Timer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An A* path finder specialized for graphs whose vertices are numbered densely (see
+ * {@link IndexedAStarGraph}).
+ *
+ * Instead of hash maps from vertices to distances and previous vertices, it keeps plain
+ * double[] and int[] arrays indexed by vertex, and its fringe is an {@link IndexedIntMinPQ}. The
+ * arrays are allocated once per thread and tagged with a generation number, so starting a new
+ * search is O(1) rather than O(V), and a search allocates almost nothing besides its solution.
+ *
+ * Unlike most ShortestPathFinders, findShortestPath may be called any number of times, including
+ * concurrently from different threads.
+ *
+ * If asked to, it also records the id of the edge used to reach each vertex, and returns the edges
+ * of the solution from {@link ShortestPathResult#solutionEdges()}, so that callers who need more
+ * than the vertices (such as way names) don't have to search for the edges again.
+ *
+ * @see ShortestPathFinder for more method documentation
+ */
+public class IndexedAStarPathFinder<VERTEX> extends ShortestPathFinder<VERTEX> {
+    private final IndexedAStarGraph<VERTEX> graph;
+    private final boolean recordEdges;
+    private final ThreadLocal<Workspace> workspaces;
+
+    /**
+     * Creates a new IndexedAStarPathFinder that works on the provided graph.
+     */
+    public IndexedAStarPathFinder(IndexedAStarGraph<VERTEX> graph) {
+        this(graph, false);
+    }
+
+    /**
+     * Creates a new IndexedAStarPathFinder that works on the provided graph, and that returns the
+     * edge ids of its solutions if recordEdges is true.
+     */
+    public IndexedAStarPathFinder(IndexedAStarGraph<VERTEX> graph, boolean recordEdges) {
+        this.graph = graph;
+        this.recordEdges = recordEdges;
+        this.workspaces = ThreadLocal.withInitial(() -> new Workspace(graph.numVertices(), recordEdges));
+    }
+
+    @Override
+    public ShortestPathResult<VERTEX> findShortestPath(VERTEX start, VERTEX end, Duration timeout) {
+        Timer timer = new Timer(timeout);
+        int source = graph.indexOf(start);
+        int target = graph.indexOf(end);
+        if (source < 0 || target < 0) {
+            return new ShortestPathResult.Unsolvable<>(0, timer.elapsedDuration());
+        }
+
+        Workspace ws = workspaces.get();
+        ws.reset();
+        IndexedIntMinPQ fringe = ws.fringe;
+        int states = 0;
+
+        ws.visit(source, 0.0, -1, -1);
+        fringe.add(source, graph.estimatedDistanceToGoal(source, target));
+
+        while (!fringe.isEmpty() && !timer.isTimeUp()) {
+            int v = fringe.removeMin();
+            if (v == target) {
+                break;
+            }
+            states++;
+            double distance = ws.distances[v];
+            int degree = graph.outDegree(v);
+            for (int i = 0; i < degree; i += 1) {
+                int w = graph.neighbor(v, i);
+                double newDistance = distance + graph.neighborWeight(v, i);
+                if (!ws.isVisited(w)) {
+                    ws.visit(w, newDistance, v, recordEdges ? graph.edgeId(v, i) : -1);
+                    fringe.add(w, newDistance + graph.estimatedDistanceToGoal(w, target));
+                } else if (newDistance < ws.distances[w]) {
+                    ws.distances[w] = newDistance;
+                    ws.parents[w] = v;
+                    if (recordEdges) {
+                        ws.parentEdges[w] = graph.edgeId(v, i);
+                    }
+                    double priority = newDistance + graph.estimatedDistanceToGoal(w, target);
+                    if (fringe.contains(w)) {
+                        fringe.changePriority(w, priority);
+                    } else {
+                        fringe.add(w, priority);
+                    }
+                }
+            }
+        }
+
+        if (timer.isTimeUp()) {
+            return new ShortestPathResult.Timeout<>(states, timer.elapsedDuration());
+        }
+
+        if (!ws.isVisited(target)) {
+            return new ShortestPathResult.Unsolvable<>(states, timer.elapsedDuration());
+        }
+
+        List<VERTEX> solution = new ArrayList<>();
+        for (int v = target; v != -1; v = ws.parents[v]) {
+            solution.add(graph.vertexAt(v));
+        }
+        Collections.reverse(solution);
+        int[] solutionEdges = null;
+        if (recordEdges) {
+            solutionEdges = new int[solution.size() - 1];
+            int v = target;
+            for (int i = solutionEdges.length - 1; i >= 0; i -= 1) {
+                solutionEdges[i] = ws.parentEdges[v];
+                v = ws.parents[v];
+            }
+        }
+        return new ShortestPathResult.Solved<>(
+            solution,
+            solutionEdges,
+            ws.distances[target],
+            states,
+            timer.elapsedDuration()
+        );
+    }
+
+    @Override
+    protected AStarGraph<VERTEX> graph() {
+        return this.graph;
+    }
+
+    /**
+     * The per-thread arrays used during a search. A vertex's distance and parent (and the edge
+     * from its parent, if edges are recorded) are only meaningful if its generation matches the
+     * current generation.
+     */
+    private static class Workspace {
+        final double[] distances;
+        final int[] parents;
+        final int[] parentEdges;
+        final int[] generations;
+        final IndexedIntMinPQ fringe;
+        int generation;
+
+        Workspace(int numVertices, boolean recordEdges) {
+            this.distances = new double[numVertices];
+            this.parents = new int[numVertices];
+            this.parentEdges = recordEdges ? new int[numVertices] : null;
+            this.generations = new int[numVertices];
+            this.fringe = new IndexedIntMinPQ(numVertices);
+            this.generation = 0;
+        }
+
+        void reset() {
+            if (generation == Integer.MAX_VALUE) {
+                Arrays.fill(generations, 0);
+                generation = 0;
+            }
+            generation += 1;
+            fringe.clear();
+        }
+
+        boolean isVisited(int v) {
+            return generations[v] == generation;
+        }
+
+        void visit(int v, double distance, int parent, int parentEdge) {
+            generations[v] = generation;
+            distances[v] = distance;
+            parents[v] = parent;
+            if (parentEdges != null) {
+                parentEdges[v] = parentEdge;
+            }
+        }
+    }
+}
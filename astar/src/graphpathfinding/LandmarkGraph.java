@@ -0,0 +1,313 @@
+package graphpathfinding;
+
+import priorityqueues.IndexedIntMinPQ;
+
+import java.util.Arrays;
+
+/**
+ * An {@link IndexedAStarGraph} that wraps another one, replacing its heuristic with ALT (A*,
+ * landmarks, and the triangle inequality) lower bounds.
+ *
+ * During construction, a few landmark vertices are chosen from the largest connected component,
+ * each as far as possible from the ones before it, and the exact distances to and from every
+ * landmark are computed with Dijkstra's algorithm. Then, for any landmark L, the triangle
+ * inequality gives two lower bounds on the distance from v to goal:
+ * <pre>
+ *     d(L, goal) - d(L, v)    and    d(v, L) - d(goal, L)
+ * </pre>
+ * The estimate is the largest of these over all landmarks, skipping bounds with infinite
+ * distances, and of the wrapped graph's own estimate, so it's never worse than that one. If the
+ * wrapped estimate is consistent, then so is this one (at least among the vertices that can reach
+ * the goal), so A* still finds shortest paths; and on road networks, where the straight-line
+ * distance is a loose bound, it usually lets A* explore far fewer vertices. The landmark bounds
+ * are a few array reads and subtractions per landmark.
+ *
+ * The distances are stored interleaved by vertex (all landmarks for vertex 0, then all for vertex
+ * 1, ...), so an estimate reads only a couple of cache lines.
+ */
+public class LandmarkGraph<VERTEX> implements IndexedAStarGraph<VERTEX> {
+    private final IndexedAStarGraph<VERTEX> graph;
+    private final int numLandmarks;
+    private final int[] landmarks;
+    /** fromLandmark[v * numLandmarks + i] is the distance from landmark i to v. */
+    private final double[] fromLandmark;
+    /** toLandmark[v * numLandmarks + i] is the distance from v to landmark i. */
+    private final double[] toLandmark;
+
+    /**
+     * Wraps the given graph, choosing up to numLandmarks landmarks and computing their distances.
+     * This runs about 2 * numLandmarks full Dijkstra searches, so it takes a while on large graphs.
+     * Fewer landmarks are used if the largest component has fewer vertices.
+     * @throws IllegalArgumentException if numLandmarks is negative
+     */
+    public LandmarkGraph(IndexedAStarGraph<VERTEX> graph, int numLandmarks) {
+        if (numLandmarks < 0) {
+            throw new IllegalArgumentException("Number of landmarks cannot be negative, but was " + numLandmarks);
+        }
+        this.graph = graph;
+        int numVertices = graph.numVertices();
+        int maxLandmarks = Math.min(numLandmarks, numVertices);
+        int[] chosen = new int[maxLandmarks];
+        double[] from = new double[numVertices * maxLandmarks];
+        double[] to = new double[numVertices * maxLandmarks];
+
+        Dijkstra forward = new Dijkstra(graph, null);
+        Dijkstra backward = new Dijkstra(graph, new ReversedEdges(graph));
+        // The landmarks all come from the largest (weakly) connected component, since landmarks
+        // in a small disconnected piece say nothing about distances in the rest of the graph.
+        // Each is the vertex farthest, in either direction, from a vertex of that component and
+        // then from all the landmarks so far. Landmarks and other vertices at distance 0 are never
+        // chosen again, so if the component runs out of vertices, fewer landmarks are used.
+        int count = 0;
+        int seed = maxLandmarks > 0 ? largestComponentVertex(graph) : -1;
+        if (seed >= 0) {
+            double[] nearestLandmark = forward.distancesFrom(seed);
+            minInto(nearestLandmark, backward.distancesFrom(seed));
+            for (int landmark = farthest(nearestLandmark); count < maxLandmarks && landmark >= 0;
+                 landmark = farthest(nearestLandmark)) {
+                chosen[count] = landmark;
+                double[] fromDistances = forward.distancesFrom(landmark);
+                double[] toDistances = backward.distancesFrom(landmark);
+                for (int v = 0; v < numVertices; v += 1) {
+                    from[v * maxLandmarks + count] = fromDistances[v];
+                    to[v * maxLandmarks + count] = toDistances[v];
+                }
+                if (count == 0) {
+                    // Distances from the seed no longer matter once there's a landmark.
+                    nearestLandmark = fromDistances;
+                } else {
+                    minInto(nearestLandmark, fromDistances);
+                }
+                minInto(nearestLandmark, toDistances);
+                count += 1;
+            }
+        }
+
+        this.numLandmarks = count;
+        this.landmarks = Arrays.copyOf(chosen, count);
+        if (count == maxLandmarks) {
+            this.fromLandmark = from;
+            this.toLandmark = to;
+        } else {
+            this.fromLandmark = new double[numVertices * count];
+            this.toLandmark = new double[numVertices * count];
+            for (int v = 0; v < numVertices; v += 1) {
+                System.arraycopy(from, v * maxLandmarks, fromLandmark, v * count, count);
+                System.arraycopy(to, v * maxLandmarks, toLandmark, v * count, count);
+            }
+        }
+    }
+
+    /**
+     * Wraps the given graph with landmarks whose distances were computed before, such as by
+     * another LandmarkGraph over the same graph: fromLandmark[v * landmarks.length + i] must be
+     * the distance from landmarks[i] to v, and toLandmark[v * landmarks.length + i] the distance
+     * from v to landmarks[i]. The arrays are used as they are, not copied.
+     * @throws IllegalArgumentException if a landmark isn't a vertex of the graph, or the arrays
+     *         don't have one distance per vertex and landmark
+     */
+    public LandmarkGraph(IndexedAStarGraph<VERTEX> graph, int[] landmarks, double[] fromLandmark,
+                         double[] toLandmark) {
+        long numDistances = (long) graph.numVertices() * landmarks.length;
+        if (fromLandmark.length != numDistances || toLandmark.length != numDistances) {
+            throw new IllegalArgumentException("Expected " + numDistances + " distances, but got "
+                + fromLandmark.length + " and " + toLandmark.length);
+        }
+        for (int landmark : landmarks) {
+            if (landmark < 0 || landmark >= graph.numVertices()) {
+                throw new IllegalArgumentException("Landmark " + landmark + " is not a vertex");
+            }
+        }
+        this.graph = graph;
+        this.numLandmarks = landmarks.length;
+        this.landmarks = landmarks;
+        this.fromLandmark = fromLandmark;
+        this.toLandmark = toLandmark;
+    }
+
+    /**
+     * Returns a vertex with outgoing edges in the largest weakly connected component of the graph,
+     * found with union-find, or -1 if the graph has no edges.
+     */
+    private static int largestComponentVertex(IndexedAStarGraph<?> graph) {
+        int numVertices = graph.numVertices();
+        int[] parent = new int[numVertices];
+        for (int v = 0; v < numVertices; v += 1) {
+            parent[v] = v;
+        }
+        for (int v = 0; v < numVertices; v += 1) {
+            for (int i = 0; i < graph.outDegree(v); i += 1) {
+                int a = root(parent, v);
+                int b = root(parent, graph.neighbor(v, i));
+                parent[Math.max(a, b)] = Math.min(a, b);
+            }
+        }
+        int[] sizes = new int[numVertices];
+        for (int v = 0; v < numVertices; v += 1) {
+            sizes[root(parent, v)] += 1;
+        }
+        int largest = -1;
+        int largestSize = 0;
+        for (int v = 0; v < numVertices; v += 1) {
+            int size = sizes[root(parent, v)];
+            if (graph.outDegree(v) > 0 && size > largestSize) {
+                largest = v;
+                largestSize = size;
+            }
+        }
+        return largest;
+    }
+
+    private static int root(int[] parent, int v) {
+        while (parent[v] != v) {
+            parent[v] = parent[parent[v]];
+            v = parent[v];
+        }
+        return v;
+    }
+
+    private static void minInto(double[] distances, double[] other) {
+        for (int v = 0; v < distances.length; v += 1) {
+            distances[v] = Math.min(distances[v], other[v]);
+        }
+    }
+
+    /** Returns the index of the largest finite, nonzero distance, or -1 if there is none. */
+    private static int farthest(double[] distances) {
+        int farthest = -1;
+        double farthestDistance = 0;
+        for (int v = 0; v < distances.length; v += 1) {
+            if (distances[v] < Double.POSITIVE_INFINITY && distances[v] > farthestDistance) {
+                farthest = v;
+                farthestDistance = distances[v];
+            }
+        }
+        return farthest;
+    }
+
+    /** Returns the number of landmarks in use. */
+    public int numLandmarks() {
+        return numLandmarks;
+    }
+
+    /** Returns the vertices chosen as landmarks. */
+    public int[] landmarks() {
+        return landmarks.clone();
+    }
+
+    /** Returns the distance from the i-th landmark to v, or infinity if v can't be reached from it. */
+    public double distanceFromLandmark(int i, int v) {
+        return fromLandmark[v * numLandmarks + i];
+    }
+
+    /** Returns the distance from v to the i-th landmark, or infinity if it can't be reached from v. */
+    public double distanceToLandmark(int i, int v) {
+        return toLandmark[v * numLandmarks + i];
+    }
+
+    /**
+     * Returns the largest of the landmark lower bounds and the wrapped graph's own estimate, so
+     * the estimate is never worse than the wrapped graph's, even between vertices that the
+     * landmarks know nothing about.
+     */
+    @Override
+    public double estimatedDistanceToGoal(int v, int goal) {
+        double estimate = graph.estimatedDistanceToGoal(v, goal);
+        int vOffset = v * numLandmarks;
+        int goalOffset = goal * numLandmarks;
+        for (int i = 0; i < numLandmarks; i += 1) {
+            double fromV = fromLandmark[vOffset + i];
+            double fromGoal = fromLandmark[goalOffset + i];
+            if (fromV < Double.POSITIVE_INFINITY && fromGoal < Double.POSITIVE_INFINITY) {
+                estimate = Math.max(estimate, fromGoal - fromV);
+            }
+            double toV = toLandmark[vOffset + i];
+            double toGoal = toLandmark[goalOffset + i];
+            if (toV < Double.POSITIVE_INFINITY && toGoal < Double.POSITIVE_INFINITY) {
+                estimate = Math.max(estimate, toV - toGoal);
+            }
+        }
+        return estimate;
+    }
+
+    @Override
+    public int numVertices() {
+        return graph.numVertices();
+    }
+
+    @Override
+    public int indexOf(VERTEX v) {
+        return graph.indexOf(v);
+    }
+
+    @Override
+    public VERTEX vertexAt(int index) {
+        return graph.vertexAt(index);
+    }
+
+    @Override
+    public int outDegree(int v) {
+        return graph.outDegree(v);
+    }
+
+    @Override
+    public int neighbor(int v, int i) {
+        return graph.neighbor(v, i);
+    }
+
+    @Override
+    public double neighborWeight(int v, int i) {
+        return graph.neighborWeight(v, i);
+    }
+
+    @Override
+    public int edgeId(int v, int i) {
+        return graph.edgeId(v, i);
+    }
+
+    /** Single-source Dijkstra over a graph's edges, or over its reversed edges if given. */
+    private static class Dijkstra {
+        private final IndexedAStarGraph<?> graph;
+        private final ReversedEdges reversed;
+        private final IndexedIntMinPQ fringe;
+
+        Dijkstra(IndexedAStarGraph<?> graph, ReversedEdges reversed) {
+            this.graph = graph;
+            this.reversed = reversed;
+            this.fringe = new IndexedIntMinPQ(graph.numVertices());
+        }
+
+        /** Returns the distance to (or from, if reversed) every vertex, or infinity if unreachable. */
+        double[] distancesFrom(int source) {
+            double[] distances = new double[graph.numVertices()];
+            Arrays.fill(distances, Double.POSITIVE_INFINITY);
+            fringe.clear();
+            distances[source] = 0.0;
+            fringe.add(source, 0.0);
+            while (!fringe.isEmpty()) {
+                int v = fringe.removeMin();
+                if (reversed == null) {
+                    for (int i = 0; i < graph.outDegree(v); i += 1) {
+                        relax(distances, graph.neighbor(v, i), distances[v] + graph.neighborWeight(v, i));
+                    }
+                } else {
+                    for (int e = reversed.offsets[v]; e < reversed.offsets[v + 1]; e += 1) {
+                        relax(distances, reversed.sources[e], distances[v] + reversed.weights[e]);
+                    }
+                }
+            }
+            return distances;
+        }
+
+        private void relax(double[] distances, int w, double newDistance) {
+            if (newDistance < distances[w]) {
+                if (distances[w] == Double.POSITIVE_INFINITY) {
+                    fringe.add(w, newDistance);
+                } else {
+                    fringe.changePriority(w, newDistance);
+                }
+                distances[w] = newDistance;
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package graphpathfinding;
+
+import java.util.Arrays;
+
+/**
+ * The edges of an {@link IndexedAStarGraph}, reversed and stored in CSR form: the edges into the
+ * vertex at index v come from sources[offsets[v]] through sources[offsets[v + 1] - 1], with the
+ * corresponding weights.
+ */
+class ReversedEdges {
+    final int[] offsets;
+    final int[] sources;
+    final double[] weights;
+
+    ReversedEdges(IndexedAStarGraph<?> graph) {
+        int numVertices = graph.numVertices();
+        this.offsets = new int[numVertices + 1];
+        for (int v = 0; v < numVertices; v += 1) {
+            for (int i = 0; i < graph.outDegree(v); i += 1) {
+                offsets[graph.neighbor(v, i) + 1] += 1;
+            }
+        }
+        for (int v = 0; v < numVertices; v += 1) {
+            offsets[v + 1] += offsets[v];
+        }
+        this.sources = new int[offsets[numVertices]];
+        this.weights = new double[offsets[numVertices]];
+        int[] next = Arrays.copyOf(offsets, numVertices);
+        for (int v = 0; v < numVertices; v += 1) {
+            for (int i = 0; i < graph.outDegree(v); i += 1) {
+                int e = next[graph.neighbor(v, i)]++;
+                sources[e] = v;
+                weights[e] = graph.neighborWeight(v, i);
+            }
+        }
+    }
+}
@@ -42,6 +42,16 @@ public abstract class ShortestPathResult<VERTEX> {
      */
     public abstract double solutionWeight();
 
+    /**
+     * The ids (see {@link IndexedAStarGraph#edgeId(int, int)}) of the edges along the solution,
+     * from start to end, so solutionEdges()[i] leads from solution().get(i) to solution().get(i + 1).
+     * Returns null if the path finder didn't record edges, or an empty array if problem was
+     * unsolvable or solving timed out.
+     */
+    public int[] solutionEdges() {
+        return null;
+    }
+
     /** The total number of states explored while solving. */
     public int numStatesExplored() {
         return this.numStatesExplored;
@@ -69,10 +79,17 @@ public abstract class ShortestPathResult<VERTEX> {
     public static class Solved<VERTEX> extends ShortestPathResult<VERTEX> {
         private final List<VERTEX> solution;
         private final double solutionWeight;
+        private final int[] solutionEdges;
 
         Solved(List<VERTEX> solution, double solutionWeight, int numStatesExplored, Duration startTime) {
+            this(solution, null, solutionWeight, numStatesExplored, startTime);
+        }
+
+        Solved(List<VERTEX> solution, int[] solutionEdges, double solutionWeight, int numStatesExplored,
+               Duration startTime) {
             super(numStatesExplored, startTime);
             this.solution = solution;
+            this.solutionEdges = solutionEdges;
             this.solutionWeight = solutionWeight;
         }
 
@@ -90,6 +107,11 @@ public abstract class ShortestPathResult<VERTEX> {
         public double solutionWeight() {
             return this.solutionWeight;
         }
+
+        @Override
+        public int[] solutionEdges() {
+            return this.solutionEdges;
+        }
     }
 
     /**
@@ -117,6 +139,11 @@ public abstract class ShortestPathResult<VERTEX> {
         public double solutionWeight() {
             return Double.POSITIVE_INFINITY;
         }
+
+        @Override
+        public int[] solutionEdges() {
+            return new int[0];
+        }
     }
 
     /**
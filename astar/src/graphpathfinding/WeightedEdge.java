@@ -40,7 +40,7 @@ public class WeightedEdge<VERTEX> {
             "from=" + from +
             ", to=" + to +
             ", weight=" + weight +
-            ", name='" + name + '\'' +
+            ", name='" + name() + '\'' +
             '}';
     }
 }
@@ -0,0 +1,168 @@
+package priorityqueues;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A binary min-heap of int items in the range [0, capacity), with extrinsic double priorities.
+ *
+ * Unlike the ExtrinsicMinPQ implementations, nothing is boxed: the heap, its priorities, and the
+ * item-to-heap-position index are all primitive arrays allocated once up front. Positions are
+ * tagged with a generation number, so {@link #clear()} runs in O(1) time instead of O(capacity),
+ * which makes it cheap to reuse one PQ across many searches on the same graph.
+ */
+public class IndexedIntMinPQ {
+    private final int[] heap;
+    private final double[] priorities;
+    private final int[] positions;
+    private final int[] generations;
+    private int generation;
+    private int size;
+
+    /** Creates an empty PQ that can hold the items 0 through capacity - 1. */
+    public IndexedIntMinPQ(int capacity) {
+        this.heap = new int[capacity];
+        this.priorities = new double[capacity];
+        this.positions = new int[capacity];
+        this.generations = new int[capacity];
+        this.generation = 1;
+        this.size = 0;
+    }
+
+    /** Removes all items from the PQ in O(1) time. */
+    public void clear() {
+        size = 0;
+        if (generation == Integer.MAX_VALUE) {
+            Arrays.fill(generations, 0);
+            generation = 0;
+        }
+        generation += 1;
+    }
+
+    /**
+     * Adds an item with the given priority value.
+     * @throws IllegalArgumentException if item is already present in the PQ
+     */
+    public void add(int item, double priority) {
+        if (contains(item)) {
+            throw new IllegalArgumentException("Already contains " + item);
+        }
+        generations[item] = generation;
+        size += 1;
+        place(item, priority, size - 1);
+        percolateUp(size - 1);
+    }
+
+    /** Returns true if the PQ contains the given item; false otherwise. */
+    public boolean contains(int item) {
+        return generations[item] == generation && positions[item] >= 0;
+    }
+
+    /**
+     * Returns the item with the least-valued priority.
+     * @throws NoSuchElementException if the PQ is empty
+     */
+    public int peekMin() {
+        if (size == 0) {
+            throw new NoSuchElementException("PQ is empty");
+        }
+        return heap[0];
+    }
+
+    /**
+     * Returns the least priority value in the PQ.
+     * @throws NoSuchElementException if the PQ is empty
+     */
+    public double peekMinPriority() {
+        if (size == 0) {
+            throw new NoSuchElementException("PQ is empty");
+        }
+        return priorities[0];
+    }
+
+    /**
+     * Removes and returns the item with the least-valued priority.
+     * @throws NoSuchElementException if the PQ is empty
+     */
+    public int removeMin() {
+        if (size == 0) {
+            throw new NoSuchElementException("PQ is empty");
+        }
+        int min = heap[0];
+        positions[min] = -1;
+        size -= 1;
+        if (size > 0) {
+            place(heap[size], priorities[size], 0);
+            percolateDown(0);
+        }
+        return min;
+    }
+
+    /**
+     * Changes the priority of the given item.
+     * @throws NoSuchElementException if the item is not present in the PQ
+     */
+    public void changePriority(int item, double priority) {
+        if (!contains(item)) {
+            throw new NoSuchElementException("PQ does not contain " + item);
+        }
+        int index = positions[item];
+        double oldPriority = priorities[index];
+        priorities[index] = priority;
+        if (priority < oldPriority) {
+            percolateUp(index);
+        } else {
+            percolateDown(index);
+        }
+    }
+
+    /** Returns the number of items in the PQ. */
+    public int size() {
+        return size;
+    }
+
+    /** Returns true if the PQ is empty; false otherwise. */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private void place(int item, double priority, int index) {
+        heap[index] = item;
+        priorities[index] = priority;
+        positions[item] = index;
+    }
+
+    private void percolateUp(int index) {
+        int item = heap[index];
+        double priority = priorities[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (priorities[parent] <= priority) {
+                break;
+            }
+            place(heap[parent], priorities[parent], index);
+            index = parent;
+        }
+        place(item, priority, index);
+    }
+
+    private void percolateDown(int index) {
+        int item = heap[index];
+        double priority = priorities[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && priorities[child + 1] < priorities[child]) {
+                child += 1;
+            }
+            if (priority <= priorities[child]) {
+                break;
+            }
+            place(heap[child], priorities[child], index);
+            index = child;
+        }
+        place(item, priority, index);
+    }
+}
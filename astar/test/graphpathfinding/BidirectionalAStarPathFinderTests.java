@@ -0,0 +1,53 @@
+package graphpathfinding;
+
+import graphpathfinding.graphs.IndexedWeightedDirectedGraph;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Random;
+
+import static graphpathfinding.graphs.TwoWayGridGraph.twoWayGrid;
+
+public class BidirectionalAStarPathFinderTests extends IndexedAStarPathFinderTests {
+    private static final Duration ONE_SECOND = Duration.ofSeconds(1);
+    private static final int WIDTH = 30;
+
+    @Override
+    protected <VERTEX> ShortestPathFinder<VERTEX> createShortestPathFinder(IndexedAStarGraph<VERTEX> graph) {
+        return new BidirectionalAStarPathFinder<>(graph);
+    }
+
+    @Test
+    void findOn_gridGraphWithHeuristic_matchesAStarPathFinder() {
+        Random random = new Random(373);
+        IndexedWeightedDirectedGraph graph = twoWayGrid(WIDTH, 3, random, true);
+
+        ShortestPathFinder<Integer> pathFinder = createShortestPathFinder(graph);
+        for (int i = 0; i < 200; i += 1) {
+            int start = random.nextInt(WIDTH * WIDTH);
+            int end = random.nextInt(WIDTH * WIDTH);
+            ShortestPathResult<Integer> expected = new AStarPathFinder<>(graph)
+                .findShortestPath(start, end, ONE_SECOND);
+            assertThat(pathFinder).shortestPath(start, end, ONE_SECOND)
+                .hasEquivalentSolutionTo(expected);
+        }
+    }
+
+    @Test
+    void findOn_gridGraph_exploresFewerStatesThanUnidirectional() {
+        Random random = new Random(373);
+        IndexedWeightedDirectedGraph graph = twoWayGrid(WIDTH, 3, random, true);
+
+        ShortestPathFinder<Integer> bidirectional = createShortestPathFinder(graph);
+        ShortestPathFinder<Integer> unidirectional = new IndexedAStarPathFinder<>(graph);
+        long bidirectionalStates = 0;
+        long unidirectionalStates = 0;
+        for (int i = 0; i < 200; i += 1) {
+            int start = random.nextInt(WIDTH * WIDTH);
+            int end = random.nextInt(WIDTH * WIDTH);
+            bidirectionalStates += bidirectional.findShortestPath(start, end, ONE_SECOND).numStatesExplored();
+            unidirectionalStates += unidirectional.findShortestPath(start, end, ONE_SECOND).numStatesExplored();
+        }
+        assertThat(bidirectionalStates).isLessThan(unidirectionalStates);
+    }
+}
@@ -0,0 +1,39 @@
+package graphpathfinding;
+
+import graphpathfinding.graphs.IndexedWeightedDirectedGraph;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Random;
+
+import static graphpathfinding.graphs.TwoWayGridGraph.twoWayGrid;
+
+public class ContractionHierarchyPathFinderTests extends IndexedAStarPathFinderTests {
+    private static final Duration ONE_SECOND = Duration.ofSeconds(1);
+
+    @Override
+    protected <VERTEX> ShortestPathFinder<VERTEX> createShortestPathFinder(IndexedAStarGraph<VERTEX> graph) {
+        return new ContractionHierarchyPathFinder<>(graph);
+    }
+
+    /**
+     * Road networks are mostly two-way grids, which need many more shortcuts than sparse random
+     * graphs do.
+     */
+    @Test
+    void findOn_twoWayGridGraph_matchesAStarPathFinder() {
+        int width = 30;
+        Random random = new Random(373);
+        IndexedWeightedDirectedGraph graph = twoWayGrid(width, 10, random);
+
+        ShortestPathFinder<Integer> pathFinder = createShortestPathFinder(graph);
+        for (int i = 0; i < 200; i += 1) {
+            int start = random.nextInt(width * width);
+            int end = random.nextInt(width * width);
+            ShortestPathResult<Integer> expected = new AStarPathFinder<>(graph)
+                .findShortestPath(start, end, ONE_SECOND);
+            assertThat(pathFinder).shortestPath(start, end, ONE_SECOND)
+                .hasEquivalentSolutionTo(expected);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package graphpathfinding;
+
+import edu.washington.cse373.BaseTest;
+import graphpathfinding.graphs.IndexedWeightedDirectedGraph;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class DistanceMatrixTests extends BaseTest {
+    private static final Duration ONE_SECOND = Duration.ofSeconds(1);
+
+    @Test
+    void compute_onSpecExample_returnsShortestDistances() {
+        IndexedWeightedDirectedGraph graph = new IndexedWeightedDirectedGraph(6);
+        graph.addEdge(0, 1, 50);
+        graph.addEdge(0, 2, 20);
+        graph.addEdge(1, 4, 20);
+        graph.addEdge(2, 3, 10);
+        graph.addEdge(3, 4, 70);
+        graph.addEdge(4, 3, 10);
+        graph.addEdge(4, 5, 100);
+
+        double[][] actual = new DistanceMatrix<>(graph).compute(List.of(0, 4, 5), List.of(5, 3, 0, 3));
+        assertThat(actual[0]).containsExactly(170, 30, 0, 30);
+        assertThat(actual[1]).containsExactly(100, 10, Double.POSITIVE_INFINITY, 10);
+        assertThat(actual[2]).containsExactly(0, Double.POSITIVE_INFINITY,
+            Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
+    }
+
+    @Test
+    void compute_withVerticesNotInGraph_returnsInfinity() {
+        IndexedWeightedDirectedGraph graph = new IndexedWeightedDirectedGraph(2);
+        graph.addEdge(0, 1, 5);
+
+        double[][] actual = new DistanceMatrix<>(graph).compute(List.of(0, 7), List.of(1, 7));
+        assertThat(actual[0]).containsExactly(5, Double.POSITIVE_INFINITY);
+        assertThat(actual[1]).containsExactly(Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
+    }
+
+    @Test
+    void compute_onRandomGraph_matchesAStarPathFinder() {
+        int numVertices = 300;
+        Random random = new Random(373);
+        IndexedWeightedDirectedGraph graph = new IndexedWeightedDirectedGraph(numVertices);
+        for (int i = 0; i < numVertices * 3; i += 1) {
+            graph.addEdge(random.nextInt(numVertices), random.nextInt(numVertices), random.nextInt(100));
+        }
+        List<Integer> sources = new ArrayList<>();
+        List<Integer> targets = new ArrayList<>();
+        for (int i = 0; i < 40; i += 1) {
+            sources.add(random.nextInt(numVertices));
+            targets.add(random.nextInt(numVertices));
+        }
+
+        double[][] actual = new DistanceMatrix<>(graph).compute(sources, targets);
+        ShortestPathFinder<Integer> pathFinder = new AStarPathFinder<>(graph);
+        for (int i = 0; i < sources.size(); i += 1) {
+            for (int j = 0; j < targets.size(); j += 1) {
+                ShortestPathResult<Integer> expected =
+                    pathFinder.findShortestPath(sources.get(i), targets.get(j), ONE_SECOND);
+                double expectedDistance = expected.isSolved() ? expected.solutionWeight() : Double.POSITIVE_INFINITY;
+                assertThat(actual[i][j]).isEqualTo(expectedDistance);
+            }
+        }
+    }
+}
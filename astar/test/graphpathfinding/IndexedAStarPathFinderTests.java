@@ -0,0 +1,82 @@
+package graphpathfinding;
+
+import edu.washington.cse373.BaseTest;
+import graphpathfinding.graphs.IndexedWeightedDirectedGraph;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Random;
+
+public class IndexedAStarPathFinderTests extends BaseTest {
+    private static final Duration ONE_SECOND = Duration.ofSeconds(1);
+
+    protected <VERTEX> ShortestPathFinder<VERTEX> createShortestPathFinder(IndexedAStarGraph<VERTEX> graph) {
+        return new IndexedAStarPathFinder<>(graph);
+    }
+
+    protected <VERTEX> ShortestPathFinderAssert<VERTEX> assertThat(ShortestPathFinder<VERTEX> actual) {
+        return new ShortestPathFinderAssert<>(actual);
+    }
+
+    @Test
+    void findOn_specExample_returnsCorrectPath() {
+        IndexedWeightedDirectedGraph graph = new IndexedWeightedDirectedGraph(6);
+        graph.addEdge(0, 1, 50);
+        graph.addEdge(0, 2, 20);
+        graph.addEdge(1, 4, 20);
+        graph.addEdge(2, 3, 10);
+        graph.addEdge(3, 4, 70);
+        graph.addEdge(4, 3, 10);
+        graph.addEdge(4, 5, 100);
+
+        ShortestPathFinder<Integer> pathFinder = createShortestPathFinder(graph);
+        assertThat(pathFinder).shortestPath(0, 5, ONE_SECOND)
+            .hasSolution(0, 1, 4, 5)
+            .hasWeightCloseTo(170);
+    }
+
+    @Test
+    void findWithSameStartAndEndVertex_returnsCorrectPath() {
+        IndexedWeightedDirectedGraph graph = new IndexedWeightedDirectedGraph(2);
+        graph.addEdge(0, 1, 500);
+        ShortestPathFinder<Integer> pathFinder = createShortestPathFinder(graph);
+
+        assertThat(pathFinder).shortestPath(0, 0, ONE_SECOND)
+            .hasSolution(0)
+            .hasWeightCloseTo(0);
+    }
+
+    @Test
+    void findNonexistentPathOn_smallGraph_returnsUnsolvable() {
+        IndexedWeightedDirectedGraph graph = new IndexedWeightedDirectedGraph(2);
+        ShortestPathFinder<Integer> pathFinder = createShortestPathFinder(graph);
+        assertThat(pathFinder).shortestPath(0, 1, ONE_SECOND)
+            .isUnsolvable();
+        assertThat(pathFinder).shortestPath(0, 7, ONE_SECOND)
+            .isUnsolvable();
+    }
+
+    /**
+     * Runs many searches with the same path finder, so this also checks that no state leaks from
+     * one search into the next.
+     */
+    @Test
+    void findOn_randomGraph_matchesAStarPathFinder() {
+        int numVertices = 300;
+        Random random = new Random(373);
+        IndexedWeightedDirectedGraph graph = new IndexedWeightedDirectedGraph(numVertices);
+        for (int i = 0; i < numVertices * 3; i += 1) {
+            graph.addEdge(random.nextInt(numVertices), random.nextInt(numVertices), random.nextInt(100));
+        }
+
+        ShortestPathFinder<Integer> pathFinder = createShortestPathFinder(graph);
+        for (int i = 0; i < 200; i += 1) {
+            int start = random.nextInt(numVertices);
+            int end = random.nextInt(numVertices);
+            ShortestPathResult<Integer> expected = new AStarPathFinder<>(graph)
+                .findShortestPath(start, end, ONE_SECOND);
+            assertThat(pathFinder).shortestPath(start, end, ONE_SECOND)
+                .hasEquivalentSolutionTo(expected);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package graphpathfinding;
+
+import edu.washington.cse373.BaseTest;
+import graphpathfinding.graphs.IndexedWeightedDirectedGraph;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class LandmarkGraphTests extends BaseTest {
+    private static final Duration ONE_SECOND = Duration.ofSeconds(1);
+
+    /** A random directed graph, so that distances to and from landmarks differ. */
+    private static IndexedWeightedDirectedGraph createRandomGraph(int numVertices, Random random) {
+        IndexedWeightedDirectedGraph graph = new IndexedWeightedDirectedGraph(numVertices);
+        for (int i = 0; i < numVertices * 4; i += 1) {
+            graph.addEdge(random.nextInt(numVertices), random.nextInt(numVertices), random.nextInt(100));
+        }
+        return graph;
+    }
+
+    @Test
+    void estimatedDistanceToGoal_isConsistentAndAdmissible() {
+        int numVertices = 200;
+        Random random = new Random(373);
+        IndexedWeightedDirectedGraph graph = createRandomGraph(numVertices, random);
+        LandmarkGraph<Integer> landmarkGraph = new LandmarkGraph<>(graph, 8);
+        assertThat(landmarkGraph.numLandmarks()).isEqualTo(8);
+
+        List<Integer> vertices = new ArrayList<>();
+        for (int v = 0; v < numVertices; v += 1) {
+            vertices.add(v);
+        }
+        double[][] distances = new DistanceMatrix<>(graph).compute(vertices, vertices);
+        for (int goal = 0; goal < numVertices; goal += 1) {
+            for (int v = 0; v < numVertices; v += 1) {
+                double estimate = landmarkGraph.estimatedDistanceToGoal(v, goal);
+                assertThat(estimate).isLessThanOrEqualTo(distances[v][goal]);
+                // Vertices that can't reach the goal never lie on a shortest path to it.
+                for (int i = 0; i < graph.outDegree(v); i += 1) {
+                    int neighbor = graph.neighbor(v, i);
+                    if (distances[neighbor][goal] < Double.POSITIVE_INFINITY) {
+                        double viaNeighbor = graph.neighborWeight(v, i)
+                            + landmarkGraph.estimatedDistanceToGoal(neighbor, goal);
+                        assertThat(estimate).isLessThanOrEqualTo(viaNeighbor);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void findOn_landmarkGraph_matchesBaseGraphWithFewerStates() {
+        int numVertices = 500;
+        Random random = new Random(373);
+        IndexedWeightedDirectedGraph graph = createRandomGraph(numVertices, random);
+        ShortestPathFinder<Integer> plain = new IndexedAStarPathFinder<>(graph);
+        ShortestPathFinder<Integer> landmarks = new IndexedAStarPathFinder<>(new LandmarkGraph<>(graph, 8));
+
+        long plainStates = 0;
+        long landmarkStates = 0;
+        for (int i = 0; i < 200; i += 1) {
+            int start = random.nextInt(numVertices);
+            int end = random.nextInt(numVertices);
+            ShortestPathResult<Integer> expected = plain.findShortestPath(start, end, ONE_SECOND);
+            ShortestPathResult<Integer> actual = landmarks.findShortestPath(start, end, ONE_SECOND);
+            assertThat(actual.isSolved()).isEqualTo(expected.isSolved());
+            if (expected.isSolved()) {
+                assertThat(actual.solutionWeight()).isEqualTo(expected.solutionWeight());
+            }
+            plainStates += expected.numStatesExplored();
+            landmarkStates += actual.numStatesExplored();
+        }
+        assertThat(landmarkStates).isLessThan(plainStates);
+    }
+
+    @Test
+    void constructor_withMoreLandmarksThanVertices_usesEveryVertex() {
+        IndexedWeightedDirectedGraph graph = new IndexedWeightedDirectedGraph(3);
+        graph.addEdge(0, 1, 5);
+        graph.addEdge(1, 2, 5);
+        LandmarkGraph<Integer> landmarkGraph = new LandmarkGraph<>(graph, 10);
+        assertThat(landmarkGraph.numLandmarks()).isEqualTo(3);
+        assertThat(landmarkGraph.estimatedDistanceToGoal(0, 2)).isEqualTo(10);
+        assertThat(landmarkGraph.estimatedDistanceToGoal(2, 0)).isEqualTo(0);
+    }
+
+    /**
+     * A 20 by 20 grid of two-way streets in vertices 3 and up, after a small disconnected piece
+     * (vertices 0 to 2) that comes first in vertex order. The heuristic is the straight-line
+     * distance, like on a real map.
+     */
+    private static IndexedWeightedDirectedGraph createGridAfterPiece() {
+        int side = 20;
+        IndexedWeightedDirectedGraph graph = new IndexedWeightedDirectedGraph(3 + side * side) {
+            @Override
+            public double estimatedDistanceToGoal(int v, int goal) {
+                if (v < 3 || goal < 3) {
+                    return 0;
+                }
+                return Math.hypot((v - 3) / side - (goal - 3) / side, (v - 3) % side - (goal - 3) % side);
+            }
+        };
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 0, 1);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(2, 1, 1);
+        for (int row = 0; row < side; row += 1) {
+            for (int col = 0; col < side; col += 1) {
+                int v = 3 + row * side + col;
+                if (col + 1 < side) {
+                    graph.addEdge(v, v + 1, 1);
+                    graph.addEdge(v + 1, v, 1);
+                }
+                if (row + 1 < side) {
+                    graph.addEdge(v, v + side, 1);
+                    graph.addEdge(v + side, v, 1);
+                }
+            }
+        }
+        return graph;
+    }
+
+    @Test
+    void constructor_withSmallPieceFirst_choosesDistinctLandmarksInLargestComponent() {
+        IndexedWeightedDirectedGraph graph = createGridAfterPiece();
+        LandmarkGraph<Integer> landmarkGraph = new LandmarkGraph<>(graph, 8);
+        assertThat(landmarkGraph.numLandmarks()).isEqualTo(8);
+        assertThat(landmarkGraph.landmarks()).doesNotHaveDuplicates();
+        assertThat(Arrays.stream(landmarkGraph.landmarks())).allMatch(v -> v >= 3);
+
+        Random random = new Random(373);
+        ShortestPathFinder<Integer> plain = new IndexedAStarPathFinder<>(graph);
+        ShortestPathFinder<Integer> landmarks = new IndexedAStarPathFinder<>(landmarkGraph);
+        long plainStates = 0;
+        long landmarkStates = 0;
+        for (int i = 0; i < 100; i += 1) {
+            int start = 3 + random.nextInt(graph.numVertices() - 3);
+            int end = 3 + random.nextInt(graph.numVertices() - 3);
+            ShortestPathResult<Integer> expected = plain.findShortestPath(start, end, ONE_SECOND);
+            ShortestPathResult<Integer> actual = landmarks.findShortestPath(start, end, ONE_SECOND);
+            assertThat(actual.solutionWeight()).isEqualTo(expected.solutionWeight());
+            plainStates += expected.numStatesExplored();
+            landmarkStates += actual.numStatesExplored();
+        }
+        assertThat(landmarkStates).isLessThan(plainStates);
+    }
+
+    @Test
+    void estimatedDistanceToGoal_isNeverLessThanWrappedEstimate() {
+        IndexedWeightedDirectedGraph graph = createGridAfterPiece();
+        LandmarkGraph<Integer> landmarkGraph = new LandmarkGraph<>(graph, 4);
+        for (int v = 0; v < graph.numVertices(); v += 7) {
+            for (int goal = 0; goal < graph.numVertices(); goal += 5) {
+                assertThat(landmarkGraph.estimatedDistanceToGoal(v, goal))
+                    .isGreaterThanOrEqualTo(graph.estimatedDistanceToGoal(v, goal));
+            }
+        }
+    }
+
+    @Test
+    void constructor_withFewerReachableVerticesThanLandmarks_neverRepeatsOne() {
+        IndexedWeightedDirectedGraph graph = new IndexedWeightedDirectedGraph(6);
+        graph.addEdge(0, 1, 5);
+        graph.addEdge(2, 3, 5);
+        graph.addEdge(3, 4, 5);
+        LandmarkGraph<Integer> landmarkGraph = new LandmarkGraph<>(graph, 6);
+        assertThat(landmarkGraph.landmarks()).containsExactlyInAnyOrder(2, 3, 4);
+        assertThat(landmarkGraph.estimatedDistanceToGoal(2, 4)).isEqualTo(10);
+        assertThat(landmarkGraph.estimatedDistanceToGoal(0, 1)).isEqualTo(0);
+    }
+}
@@ -0,0 +1,67 @@
+package graphpathfinding.graphs;
+
+import graphpathfinding.IndexedAStarGraph;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A very simple IndexedAStarGraph with a fixed number of vertices, explicitly-specified edges,
+ * and a heuristic of 0 everywhere. Vertices are their own indices.
+ */
+public class IndexedWeightedDirectedGraph implements IndexedAStarGraph<Integer> {
+    private final List<List<Integer>> targets;
+    private final List<List<Double>> weights;
+
+    /**
+     * Creates a graph with the given number of vertices, and with no edges.
+     */
+    public IndexedWeightedDirectedGraph(int numVertices) {
+        targets = new ArrayList<>(numVertices);
+        weights = new ArrayList<>(numVertices);
+        for (int i = 0; i < numVertices; i += 1) {
+            targets.add(new ArrayList<>());
+            weights.add(new ArrayList<>());
+        }
+    }
+
+    @Override
+    public int numVertices() {
+        return targets.size();
+    }
+
+    @Override
+    public int indexOf(Integer v) {
+        return v >= 0 && v < numVertices() ? v : -1;
+    }
+
+    @Override
+    public Integer vertexAt(int index) {
+        return index;
+    }
+
+    @Override
+    public int outDegree(int v) {
+        return targets.get(v).size();
+    }
+
+    @Override
+    public int neighbor(int v, int i) {
+        return targets.get(v).get(i);
+    }
+
+    @Override
+    public double neighborWeight(int v, int i) {
+        return weights.get(v).get(i);
+    }
+
+    @Override
+    public double estimatedDistanceToGoal(int v, int goal) {
+        return 0;
+    }
+
+    public void addEdge(int p, int q, double w) {
+        targets.get(p).add(q);
+        weights.get(p).add(w);
+    }
+}
@@ -0,0 +1,59 @@
+package graphpathfinding.graphs;
+
+import java.util.Random;
+
+/**
+ * A square grid of vertices with random two-way edges between neighbors, like a street grid.
+ * Vertex x * width + y is at (x, y). The heuristic is either 0 everywhere or the Manhattan
+ * distance between vertices, which is consistent since every edge has weight at least 1.
+ */
+public class TwoWayGridGraph extends IndexedWeightedDirectedGraph {
+    private final int width;
+    private final boolean manhattanHeuristic;
+
+    private TwoWayGridGraph(int width, boolean manhattanHeuristic) {
+        super(width * width);
+        this.width = width;
+        this.manhattanHeuristic = manhattanHeuristic;
+    }
+
+    /**
+     * Returns a width by width grid whose edges have random integer weights from 1 to maxWeight,
+     * with a heuristic of 0 everywhere.
+     */
+    public static TwoWayGridGraph twoWayGrid(int width, int maxWeight, Random random) {
+        return twoWayGrid(width, maxWeight, random, false);
+    }
+
+    /**
+     * Returns a width by width grid whose edges have random integer weights from 1 to maxWeight,
+     * with the Manhattan distance as its heuristic if manhattanHeuristic is true.
+     */
+    public static TwoWayGridGraph twoWayGrid(int width, int maxWeight, Random random, boolean manhattanHeuristic) {
+        TwoWayGridGraph graph = new TwoWayGridGraph(width, manhattanHeuristic);
+        for (int x = 0; x < width; x += 1) {
+            for (int y = 0; y < width; y += 1) {
+                int v = x * width + y;
+                if (x + 1 < width) {
+                    double weight = 1 + random.nextInt(maxWeight);
+                    graph.addEdge(v, v + width, weight);
+                    graph.addEdge(v + width, v, weight);
+                }
+                if (y + 1 < width) {
+                    double weight = 1 + random.nextInt(maxWeight);
+                    graph.addEdge(v, v + 1, weight);
+                    graph.addEdge(v + 1, v, weight);
+                }
+            }
+        }
+        return graph;
+    }
+
+    @Override
+    public double estimatedDistanceToGoal(int v, int goal) {
+        if (!manhattanHeuristic) {
+            return 0;
+        }
+        return Math.abs(v / width - goal / width) + Math.abs(v % width - goal % width);
+    }
+}
@@ -131,6 +131,16 @@ public class BinaryRangeSearcher<T, U> implements ArraySearcher<T, U> {
             this.end = endExclusive;
         }
 
+        /** Returns the index in the sorted array of the first match. */
+        public int start() {
+            return this.start;
+        }
+
+        /** Returns the index in the sorted array just past the last match. */
+        public int end() {
+            return this.end;
+        }
+
         @Override
         public int count() {
             return this.end - this.start;
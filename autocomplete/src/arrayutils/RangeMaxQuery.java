@@ -0,0 +1,122 @@
+package arrayutils;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * Answers "which index holds the largest value in this range?" for a fixed array of longs in
+ * O(log n) time, using a segment tree of indices.
+ *
+ * The tree is stored bottom-up in one int array of length 2 * n: the leaves (the indices
+ * themselves) are at positions n through 2n - 1, and position i above them holds the better of
+ * positions 2i and 2i + 1. Ties go to the smaller index.
+ */
+public class RangeMaxQuery {
+    private final long[] values;
+    private final int[] tree;
+    private final int n;
+
+    /**
+     * Builds the tree for the given values. (Assumes that the array will not be modified
+     * afterwards.)
+     * @throws IllegalArgumentException if values is null
+     */
+    public RangeMaxQuery(long[] values) {
+        if (values == null) {
+            throw new IllegalArgumentException("Values cannot be null");
+        }
+        this.values = values;
+        this.n = values.length;
+        this.tree = new int[2 * n];
+        for (int i = 0; i < n; i += 1) {
+            tree[n + i] = i;
+        }
+        for (int i = n - 1; i > 0; i -= 1) {
+            tree[i] = better(tree[2 * i], tree[2 * i + 1]);
+        }
+    }
+
+    /**
+     * Returns the index of the largest value among values[from] through values[to - 1], or the
+     * smallest such index if there are ties.
+     * @throws IllegalArgumentException if the range is empty or out of bounds
+     */
+    public int argMax(int from, int to) {
+        if (from < 0 || to > n || from >= to) {
+            throw new IllegalArgumentException("Invalid range [" + from + ", " + to + ") for length " + n);
+        }
+        int best = from;
+        for (int lo = from + n, hi = to + n; lo < hi; lo >>= 1, hi >>= 1) {
+            if ((lo & 1) == 1) {
+                best = better(best, tree[lo]);
+                lo += 1;
+            }
+            if ((hi & 1) == 1) {
+                hi -= 1;
+                best = better(best, tree[hi]);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the indices of the k largest values in the range [from, to) (or all of them, if
+     * there are fewer than k), in descending order of value and then ascending order of index.
+     * @throws IllegalArgumentException if the range is out of bounds or k is negative
+     */
+    public int[] largest(int from, int to, int k) {
+        return largest(new int[] {from}, new int[] {to}, 1, k);
+    }
+
+    /**
+     * Returns the indices of the k largest values in the union of the first numRanges ranges
+     * [starts[i], ends[i]) (or all of them, if there are fewer than k), in descending order of
+     * value and then ascending order of index. The ranges must not overlap.
+     *
+     * Rather than sorting every index, this repeatedly takes the largest value left in a range
+     * and splits the range around it, so it takes O((numRanges + k) log n) time.
+     * @throws IllegalArgumentException if a range is out of bounds or k is negative
+     */
+    public int[] largest(int[] starts, int[] ends, int numRanges, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k cannot be negative, but was " + k);
+        }
+        long total = 0;
+        for (int i = 0; i < numRanges; i += 1) {
+            if (starts[i] < 0 || ends[i] > n || starts[i] > ends[i]) {
+                throw new IllegalArgumentException(
+                    "Invalid range [" + starts[i] + ", " + ends[i] + ") for length " + n);
+            }
+            total += ends[i] - starts[i];
+        }
+        int[] result = new int[(int) Math.min(k, total)];
+        // Each range is {index of its largest value, start, end}.
+        PriorityQueue<int[]> ranges = new PriorityQueue<>(
+            Comparator.comparingLong((int[] range) -> -values[range[0]]).thenComparingInt(range -> range[0]));
+        for (int i = 0; i < numRanges && result.length > 0; i += 1) {
+            if (starts[i] < ends[i]) {
+                ranges.add(new int[] {argMax(starts[i], ends[i]), starts[i], ends[i]});
+            }
+        }
+        for (int i = 0; i < result.length; i += 1) {
+            int[] range = ranges.remove();
+            int best = range[0];
+            result[i] = best;
+            if (range[1] < best) {
+                ranges.add(new int[] {argMax(range[1], best), range[1], best});
+            }
+            if (best + 1 < range[2]) {
+                ranges.add(new int[] {argMax(best + 1, range[2]), best + 1, range[2]});
+            }
+        }
+        return result;
+    }
+
+    /** Returns whichever of indices i and j holds the larger value, or the smaller index on ties. */
+    private int better(int i, int j) {
+        if (values[i] != values[j]) {
+            return values[i] > values[j] ? i : j;
+        }
+        return Math.min(i, j);
+    }
+}
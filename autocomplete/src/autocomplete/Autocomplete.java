@@ -2,6 +2,7 @@ package autocomplete;
 
 import arrayutils.ArraySearcher;
 import arrayutils.BinaryRangeSearcher;
+import arrayutils.RangeMaxQuery;
 import edu.princeton.cs.algs4.In;
 
 import java.util.Arrays;
@@ -22,6 +23,13 @@ public class Autocomplete {
     protected static final String FILENAME = "autocomplete/data/cities.txt";
 
     private final ArraySearcher<Term, String> searcher;
+    /**
+     * The searcher again, the terms in the order it sorted them, and a range-max structure over
+     * their weights, if this Autocomplete was created from an array of Terms; otherwise null.
+     */
+    private final BinaryRangeSearcher<Term, String> rangeSearcher;
+    private final Term[] sortedTerms;
+    private final RangeMaxQuery maxWeights;
 
     /**
      * Creates a new Autocomplete instance for the given array of Terms.
@@ -31,17 +39,102 @@ public class Autocomplete {
      * convert them into the proper objects.
      */
     public Autocomplete(Term[] terms) {
-        this(BinaryRangeSearcher.forUnsortedArray(terms, Term::queryOrder, Term::matchesPrefix));
+        // Sorts terms in place.
+        this.rangeSearcher = BinaryRangeSearcher.forUnsortedArray(terms, Term::queryOrder, Term::matchesPrefix);
+        this.searcher = rangeSearcher;
+        this.sortedTerms = terms;
+        long[] weights = new long[terms.length];
+        for (int i = 0; i < terms.length; i += 1) {
+            weights[i] = terms[i].weight();
+        }
+        this.maxWeights = new RangeMaxQuery(weights);
     }
 
     protected Autocomplete(ArraySearcher<Term, String> searcher) {
         this.searcher = searcher;
+        this.rangeSearcher = null;
+        this.sortedTerms = null;
+        this.maxWeights = null;
     }
 
     public Term[] findMatchesForPrefix(String prefix) {
         return this.searcher.findAllMatches(prefix).sortedBy(Term::reverseWeightOrder);
     }
 
+    /**
+     * Returns the k heaviest terms matching prefix (or all of them, if there are fewer than k),
+     * in the same order as {@link #findMatchesForPrefix(String)}.
+     *
+     * Rather than sorting every match, this repeatedly takes the heaviest term left in the range of
+     * matches and splits the range around it (see {@link RangeMaxQuery#largest(int, int, int)}),
+     * so it takes O(k log n) time for n terms.
+     * @throws IllegalArgumentException if prefix is null or k is negative
+     */
+    public Term[] findTopMatchesForPrefix(String prefix, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k cannot be negative, but was " + k);
+        }
+        if (this.rangeSearcher == null) {
+            Term[] matches = findMatchesForPrefix(prefix);
+            return Arrays.copyOf(matches, Math.min(k, matches.length));
+        }
+        BinaryRangeSearcher.MatchResult<Term> matches = this.rangeSearcher.findAllMatches(prefix);
+        return termsAt(this.maxWeights.largest(matches.start(), matches.end(), k));
+    }
+
+    /**
+     * Returns the k heaviest terms with a prefix within maxDistance edits of the given prefix (or
+     * all of them, if there are fewer than k), in descending order of weight; terms with equal
+     * weights are in order of query. So "Pikes Plase" finds "Pike Place Market" with a distance
+     * of 2.
+     *
+     * This runs a {@link LevenshteinAutomaton} over every term, then picks the heaviest matches
+     * the same way as {@link #findTopMatchesForPrefix(String, int)}.
+     * @throws IllegalArgumentException if prefix is null, maxDistance is not between 0 and
+     *         {@link LevenshteinAutomaton#MAX_DISTANCE}, or k is negative
+     */
+    public Term[] findFuzzyMatchesForPrefix(String prefix, int maxDistance, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k cannot be negative, but was " + k);
+        }
+        LevenshteinAutomaton automaton = new LevenshteinAutomaton(prefix, maxDistance);
+        if (this.sortedTerms == null) {
+            return Arrays.stream(this.searcher.findAllMatches("").sortedBy(Term::reverseWeightOrder))
+                .filter(term -> automaton.matchesPrefixOf(term.query()))
+                .limit(k)
+                .toArray(Term[]::new);
+        }
+        // Collect the runs of consecutive matching terms.
+        int[] starts = new int[16];
+        int[] ends = new int[16];
+        int numRanges = 0;
+        for (int i = 0; i < this.sortedTerms.length; i += 1) {
+            if (!automaton.matchesPrefixOf(this.sortedTerms[i].query())) {
+                continue;
+            }
+            if (numRanges > 0 && ends[numRanges - 1] == i) {
+                ends[numRanges - 1] = i + 1;
+            } else {
+                if (numRanges == starts.length) {
+                    starts = Arrays.copyOf(starts, numRanges * 2);
+                    ends = Arrays.copyOf(ends, numRanges * 2);
+                }
+                starts[numRanges] = i;
+                ends[numRanges] = i + 1;
+                numRanges += 1;
+            }
+        }
+        return termsAt(this.maxWeights.largest(starts, ends, numRanges, k));
+    }
+
+    private Term[] termsAt(int[] indices) {
+        Term[] result = new Term[indices.length];
+        for (int i = 0; i < indices.length; i += 1) {
+            result[i] = this.sortedTerms[indices[i]];
+        }
+        return result;
+    }
+
     static Autocomplete loadFromFile(String filename) {
         return loadFromFile(filename, DefaultTerm::new, Autocomplete::new);
     }
@@ -0,0 +1,89 @@
+package autocomplete;
+
+/**
+ * A Levenshtein automaton for fuzzy prefix matching: it reads a string one character at a time
+ * and accepts as soon as what it has read is within maxDistance edits (insertions, deletions, or
+ * substitutions) of the query. So a string is matched if some prefix of it is close to the query.
+ *
+ * A state is a row of the usual edit distance table: entry j is the distance between the first j
+ * characters of the query and the characters read so far, capped at maxDistance + 1 (since any
+ * larger distance can never come back down to maxDistance). The states aren't precomputed into a
+ * table; with the distance bounded by {@link #MAX_DISTANCE}, stepping is a short loop over the
+ * query, and a state with no entry at or below maxDistance is dead, which prunes a trie search
+ * almost immediately.
+ */
+public class LevenshteinAutomaton {
+    /** The largest edit distance supported. */
+    public static final int MAX_DISTANCE = 2;
+
+    private final String query;
+    private final int maxDistance;
+
+    /**
+     * Creates an automaton matching strings with a prefix within maxDistance edits of query.
+     * @throws IllegalArgumentException if query is null or maxDistance is not between 0 and
+     *         MAX_DISTANCE
+     */
+    public LevenshteinAutomaton(String query, int maxDistance) {
+        if (query == null) {
+            throw new IllegalArgumentException("Query cannot be null");
+        }
+        if (maxDistance < 0 || maxDistance > MAX_DISTANCE) {
+            throw new IllegalArgumentException(
+                "Max distance must be between 0 and " + MAX_DISTANCE + ", but was " + maxDistance);
+        }
+        this.query = query;
+        this.maxDistance = maxDistance;
+    }
+
+    /** Returns the state before any characters have been read. */
+    public int[] start() {
+        int[] state = new int[query.length() + 1];
+        for (int j = 0; j < state.length; j += 1) {
+            state[j] = Math.min(j, maxDistance + 1);
+        }
+        return state;
+    }
+
+    /** Stores in next the state after reading c in the given state. */
+    public void step(int[] state, char c, int[] next) {
+        int cap = maxDistance + 1;
+        next[0] = Math.min(state[0] + 1, cap);
+        for (int j = 1; j < state.length; j += 1) {
+            int substitute = state[j - 1] + (query.charAt(j - 1) == c ? 0 : 1);
+            int distance = Math.min(substitute, Math.min(state[j], next[j - 1]) + 1);
+            next[j] = Math.min(distance, cap);
+        }
+    }
+
+    /** Returns whether the characters read so far are within maxDistance edits of the query. */
+    public boolean isMatch(int[] state) {
+        return state[state.length - 1] <= maxDistance;
+    }
+
+    /** Returns whether reading more characters could still lead to a match. */
+    public boolean canMatch(int[] state) {
+        for (int distance : state) {
+            if (distance <= maxDistance) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Returns whether some prefix of s is within maxDistance edits of the query. */
+    public boolean matchesPrefixOf(String s) {
+        int[] state = start();
+        int[] next = new int[state.length];
+        for (int i = 0; i < s.length() && !isMatch(state); i += 1) {
+            step(state, s.charAt(i), next);
+            int[] temp = state;
+            state = next;
+            next = temp;
+            if (!canMatch(state)) {
+                return false;
+            }
+        }
+        return isMatch(state);
+    }
+}
@@ -0,0 +1,471 @@
+package autocomplete;
+
+import arrayutils.ArraySearcher;
+import arrayutils.RangeMaxQuery;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * A compressed trie (radix tree) over the queries of a set of terms, stored in flat arrays.
+ *
+ * The terms are sorted by query, so the terms under any node form a contiguous range of term
+ * indices, starting with the terms whose query ends exactly at that node. Each node stores:
+ * <ul>
+ *   <li>its label: the characters on the edge into it, as a span of one shared char array</li>
+ *   <li>its children: a contiguous block of nodes, sorted by the first character of their labels</li>
+ *   <li>the start of its range of terms, and the end of the terms that end at it</li>
+ *   <li>the largest weight of any term in its subtree</li>
+ * </ul>
+ * Queries are never stored as Strings; a term's query is rebuilt from the labels on the path to
+ * it, only when the term is returned. Shared prefixes are stored once, so the trie takes much
+ * less memory than an array of Term objects.
+ *
+ * Because every node knows the largest weight below it, {@link #topMatches(String, int)} can
+ * visit nodes best-first and stop after k terms, instead of collecting and sorting every match.
+ *
+ * {@link #fuzzyTopMatches(String, int, int)} runs a {@link LevenshteinAutomaton} down the trie
+ * instead, so each shared prefix is only read once and whole subtrees are skipped as soon as the
+ * automaton can no longer match.
+ */
+public class TermTrie implements ArraySearcher<Term, String> {
+    private static final Term[] NO_TERMS = new Term[0];
+
+    /** The weights of the terms, in order of query (and then by descending weight). */
+    private final long[] weights;
+
+    private final char[] labels;
+    /**
+     * The label of node v is labels[labelStart[v]] through labels[labelStart[v + 1] - 1], since
+     * labels are appended in the order nodes are created.
+     */
+    private final int[] labelStart;
+    private final int[] firstChild;
+    private final int[] childCount;
+    /** The first term under node v, which is also the first term ending at v, if any. */
+    private final int[] termStart;
+    /** The end (exclusive) of the terms ending exactly at node v. */
+    private final int[] termEnd;
+    private final long[] maxWeight;
+    /** The heaviest term in any range of term indices, for ranking fuzzy matches. */
+    private final RangeMaxQuery weightMax;
+
+    /**
+     * Builds a trie containing the queries and weights of the given terms. The Term objects
+     * themselves aren't kept.
+     * @throws IllegalArgumentException if terms is null or contains null
+     */
+    public TermTrie(Term[] terms) {
+        if (terms == null) {
+            throw new IllegalArgumentException("Terms cannot be null");
+        }
+        for (Term term : terms) {
+            if (term == null) {
+                throw new IllegalArgumentException("Terms cannot contain null");
+            }
+        }
+        Term[] sorted = terms.clone();
+        Arrays.sort(sorted, ((Comparator<Term>) Term::queryOrder).thenComparing(Term::reverseWeightOrder));
+        int n = sorted.length;
+        String[] queries = new String[n];
+        this.weights = new long[n];
+        for (int i = 0; i < n; i += 1) {
+            queries[i] = sorted[i].query();
+            weights[i] = sorted[i].weight();
+        }
+
+        // A radix tree over n strings has at most 2n nodes, plus the root.
+        Builder builder = new Builder(queries, 2 * n + 1);
+        builder.newNode(0, n, 0);
+        builder.build(0, 0, n);
+        int numNodes = builder.numNodes;
+        this.labels = builder.labels.toString().toCharArray();
+        this.labelStart = Arrays.copyOf(builder.labelStart, numNodes + 1);
+        this.labelStart[numNodes] = labels.length;
+        this.firstChild = Arrays.copyOf(builder.firstChild, numNodes);
+        this.childCount = Arrays.copyOf(builder.childCount, numNodes);
+        this.termStart = Arrays.copyOf(builder.termStart, numNodes);
+        this.termEnd = Arrays.copyOf(builder.termEnd, numNodes);
+        // Children are always created after their parents, so go backwards.
+        this.maxWeight = new long[numNodes];
+        for (int v = numNodes - 1; v >= 0; v -= 1) {
+            long max = -1;
+            for (int t = termStart[v]; t < termEnd[v]; t += 1) {
+                max = Math.max(max, weights[t]);
+            }
+            for (int c = firstChild[v]; c < firstChild[v] + childCount[v]; c += 1) {
+                max = Math.max(max, maxWeight[c]);
+            }
+            maxWeight[v] = max;
+        }
+        this.weightMax = new RangeMaxQuery(weights);
+    }
+
+    /** Returns the number of terms in this trie. */
+    public int size() {
+        return weights.length;
+    }
+
+    /** Returns the number of nodes in this trie. */
+    public int numNodes() {
+        return firstChild.length;
+    }
+
+    /**
+     * Returns all terms whose queries start with prefix, in no particular order.
+     * @throws IllegalArgumentException if prefix is null
+     */
+    @Override
+    public AbstractMatchResult<Term> findAllMatches(String prefix) {
+        if (prefix == null) {
+            throw new IllegalArgumentException("Prefix cannot be null");
+        }
+        int v = find(prefix);
+        int start = v < 0 ? 0 : termStart[v];
+        int end = v < 0 ? 0 : subtreeEnd(v);
+        return new AbstractMatchResult<>() {
+            @Override
+            public int count() {
+                return end - start;
+            }
+
+            @Override
+            public Term[] unsorted() {
+                Term[] matches = new Term[end - start];
+                for (int t = start; t < end; t += 1) {
+                    matches[t - start] = term(t);
+                }
+                return matches;
+            }
+        };
+    }
+
+    /**
+     * Returns the (at most) k heaviest terms whose queries start with prefix, in descending order
+     * of weight; terms with equal weights are in order of query.
+     * @throws IllegalArgumentException if prefix is null or k is negative
+     */
+    public Term[] topMatches(String prefix, int k) {
+        if (prefix == null) {
+            throw new IllegalArgumentException("Prefix cannot be null");
+        }
+        if (k < 0) {
+            throw new IllegalArgumentException("k cannot be negative, but was " + k);
+        }
+        int root = find(prefix);
+        if (root < 0 || k == 0) {
+            return NO_TERMS;
+        }
+        Term[] result = new Term[Math.min(k, subtreeEnd(root) - termStart[root])];
+        int count = 0;
+        Candidates candidates = new Candidates();
+        candidates.add(maxWeight[root], termStart[root], root);
+        while (count < result.length) {
+            int value = candidates.removeMax();
+            if (value < 0) {
+                result[count] = term(~value);
+                count += 1;
+            } else {
+                for (int t = termStart[value]; t < termEnd[value]; t += 1) {
+                    candidates.add(weights[t], t, ~t);
+                }
+                for (int c = firstChild[value]; c < firstChild[value] + childCount[value]; c += 1) {
+                    candidates.add(maxWeight[c], termStart[c], c);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the (at most) k heaviest terms with a prefix within maxDistance edits of the given
+     * prefix, in descending order of weight; terms with equal weights are in order of query.
+     * @throws IllegalArgumentException if prefix is null, maxDistance is not between 0 and
+     *         {@link LevenshteinAutomaton#MAX_DISTANCE}, or k is negative
+     */
+    public Term[] fuzzyTopMatches(String prefix, int maxDistance, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k cannot be negative, but was " + k);
+        }
+        LevenshteinAutomaton automaton = new LevenshteinAutomaton(prefix, maxDistance);
+        if (weights.length == 0) {
+            return NO_TERMS;
+        }
+        FuzzyRanges ranges = new FuzzyRanges(automaton);
+        int[] state = automaton.start();
+        if (automaton.isMatch(state)) {
+            ranges.add(termStart[0], subtreeEnd(0));
+        } else {
+            ranges.collect(0, state);
+        }
+        int[] best = weightMax.largest(ranges.starts, ranges.ends, ranges.size, k);
+        Term[] result = new Term[best.length];
+        for (int i = 0; i < best.length; i += 1) {
+            result[i] = term(best[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the node whose subtree holds exactly the terms starting with prefix, or -1 if there
+     * are no such terms.
+     */
+    private int find(String prefix) {
+        if (weights.length == 0) {
+            return -1;
+        }
+        int v = 0;
+        int i = 0;
+        while (true) {
+            for (int p = labelStart[v]; p < labelStart[v + 1] && i < prefix.length(); p += 1, i += 1) {
+                if (labels[p] != prefix.charAt(i)) {
+                    return -1;
+                }
+            }
+            if (i == prefix.length()) {
+                return v;
+            }
+            v = child(v, prefix.charAt(i));
+            if (v < 0) {
+                return -1;
+            }
+        }
+    }
+
+    /** Returns the child of v whose label starts with c, or -1 if there isn't one. */
+    private int child(int v, char c) {
+        int lo = firstChild[v];
+        int hi = lo + childCount[v] - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            char first = labels[labelStart[mid]];
+            if (first < c) {
+                lo = mid + 1;
+            } else if (first > c) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /** Returns the end (exclusive) of the range of terms under v. */
+    private int subtreeEnd(int v) {
+        while (childCount[v] > 0) {
+            v = firstChild[v] + childCount[v] - 1;
+        }
+        return termEnd[v];
+    }
+
+    /** Returns the term with index t, rebuilding its query from the labels on its path. */
+    private Term term(int t) {
+        StringBuilder query = new StringBuilder();
+        int v = 0;
+        while (true) {
+            query.append(labels, labelStart[v], labelStart[v + 1] - labelStart[v]);
+            if (t < termEnd[v]) {
+                return new DefaultTerm(query.toString(), weights[t]);
+            }
+            // Find the last child whose terms start at or before t.
+            int lo = firstChild[v];
+            int hi = lo + childCount[v] - 1;
+            while (lo < hi) {
+                int mid = (lo + hi + 1) >>> 1;
+                if (termStart[mid] <= t) {
+                    lo = mid;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            v = lo;
+        }
+    }
+
+    /** Builds the trie's arrays, creating the children of each node as one contiguous block. */
+    private static class Builder {
+        final String[] queries;
+        final StringBuilder labels = new StringBuilder();
+        final int[] labelStart;
+        final int[] firstChild;
+        final int[] childCount;
+        final int[] termStart;
+        final int[] termEnd;
+        /** The length of the path to each node, including its label. */
+        final int[] depth;
+        int numNodes;
+
+        Builder(String[] queries, int maxNodes) {
+            this.queries = queries;
+            this.labelStart = new int[maxNodes + 1];
+            this.firstChild = new int[maxNodes];
+            this.childCount = new int[maxNodes];
+            this.termStart = new int[maxNodes];
+            this.termEnd = new int[maxNodes];
+            this.depth = new int[maxNodes];
+        }
+
+        /**
+         * Creates a node for the (non-empty, or root) range of queries [lo, hi), whose path so far
+         * has length start. Its label runs to the end of the range's longest common prefix.
+         */
+        int newNode(int lo, int hi, int start) {
+            int v = numNodes;
+            numNodes += 1;
+            int end = start;
+            if (hi > lo) {
+                String first = queries[lo];
+                String last = queries[hi - 1];
+                while (end < first.length() && end < last.length() && first.charAt(end) == last.charAt(end)) {
+                    end += 1;
+                }
+                labels.append(first, start, end);
+            }
+            labelStart[v + 1] = labels.length();
+            depth[v] = end;
+            termStart[v] = lo;
+            return v;
+        }
+
+        /** Fills in node v, which holds queries [lo, hi), and recursively builds its children. */
+        void build(int v, int lo, int hi) {
+            int end = depth[v];
+            int i = lo;
+            while (i < hi && queries[i].length() == end) {
+                i += 1;
+            }
+            termEnd[v] = i;
+
+            // Sorted queries with the same next character are next to each other.
+            int[] groupStarts = new int[hi - i + 1];
+            int numGroups = 0;
+            for (int j = i; j < hi; j += 1) {
+                if (j == i || queries[j].charAt(end) != queries[j - 1].charAt(end)) {
+                    groupStarts[numGroups] = j;
+                    numGroups += 1;
+                }
+            }
+            groupStarts[numGroups] = hi;
+
+            firstChild[v] = numNodes;
+            childCount[v] = numGroups;
+            for (int g = 0; g < numGroups; g += 1) {
+                newNode(groupStarts[g], groupStarts[g + 1], end);
+            }
+            for (int g = 0; g < numGroups; g += 1) {
+                build(firstChild[v] + g, groupStarts[g], groupStarts[g + 1]);
+            }
+        }
+    }
+
+    /**
+     * A max-heap of nodes and terms, ordered by weight and then by position (the index of the
+     * first term they cover), so that equal weights come out in order of query. Terms are stored
+     * as the complement of their index, so that they can be told apart from nodes.
+     */
+    private static class Candidates {
+        long[] weights = new long[16];
+        int[] positions = new int[16];
+        int[] values = new int[16];
+        int size;
+
+        void add(long weight, int position, int value) {
+            if (size == values.length) {
+                weights = Arrays.copyOf(weights, size * 2);
+                positions = Arrays.copyOf(positions, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            int i = size;
+            size += 1;
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (!isBefore(weight, position, parent)) {
+                    break;
+                }
+                set(i, weights[parent], positions[parent], values[parent]);
+                i = parent;
+            }
+            set(i, weight, position, value);
+        }
+
+        int removeMax() {
+            int max = values[0];
+            size -= 1;
+            long weight = weights[size];
+            int position = positions[size];
+            int value = values[size];
+            int i = 0;
+            while (2 * i + 1 < size) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && isBefore(weights[child + 1], positions[child + 1], child)) {
+                    child += 1;
+                }
+                if (isBefore(weight, position, child)) {
+                    break;
+                }
+                set(i, weights[child], positions[child], values[child]);
+                i = child;
+            }
+            set(i, weight, position, value);
+            return max;
+        }
+
+        /** Returns whether an entry with the given weight and position comes before entry i. */
+        private boolean isBefore(long weight, int position, int i) {
+            return weight > weights[i] || (weight == weights[i] && position < positions[i]);
+        }
+
+        private void set(int i, long weight, int position, int value) {
+            weights[i] = weight;
+            positions[i] = position;
+            values[i] = value;
+        }
+    }
+
+    /**
+     * The ranges of term indices matched by a Levenshtein automaton, in increasing order. Since
+     * a match means some prefix is close enough, each match covers a node's whole subtree.
+     */
+    private class FuzzyRanges {
+        final LevenshteinAutomaton automaton;
+        int[] starts = new int[16];
+        int[] ends = new int[16];
+        int size;
+
+        FuzzyRanges(LevenshteinAutomaton automaton) {
+            this.automaton = automaton;
+        }
+
+        /**
+         * Adds the matches under node v, given the automaton's state after reading the path to v
+         * (not including v's label).
+         */
+        void collect(int v, int[] state) {
+            for (int p = labelStart[v]; p < labelStart[v + 1]; p += 1) {
+                int[] next = new int[state.length];
+                automaton.step(state, labels[p], next);
+                if (automaton.isMatch(next)) {
+                    add(termStart[v], subtreeEnd(v));
+                    return;
+                }
+                if (!automaton.canMatch(next)) {
+                    return;
+                }
+                state = next;
+            }
+            for (int c = firstChild[v]; c < firstChild[v] + childCount[v]; c += 1) {
+                collect(c, state);
+            }
+        }
+
+        void add(int start, int end) {
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+            }
+            starts[size] = start;
+            ends[size] = end;
+            size += 1;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package autocomplete;
+
+/**
+ * An Autocomplete backed by a {@link TermTrie} instead of a sorted array of Terms.
+ *
+ * Matches are found by walking the trie best-first, so they come out already in order of weight,
+ * without copying and sorting the whole range of matching terms.
+ */
+public class TrieAutocomplete extends Autocomplete {
+    private final TermTrie trie;
+
+    /**
+     * Creates a new TrieAutocomplete instance for the given array of Terms.
+     * @throws IllegalArgumentException if terms is null or contains null
+     */
+    public TrieAutocomplete(Term[] terms) {
+        this(new TermTrie(terms));
+    }
+
+    private TrieAutocomplete(TermTrie trie) {
+        super(trie);
+        this.trie = trie;
+    }
+
+    @Override
+    public Term[] findMatchesForPrefix(String prefix) {
+        return this.trie.topMatches(prefix, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public Term[] findTopMatchesForPrefix(String prefix, int k) {
+        return this.trie.topMatches(prefix, k);
+    }
+
+    @Override
+    public Term[] findFuzzyMatchesForPrefix(String prefix, int maxDistance, int k) {
+        return this.trie.fuzzyTopMatches(prefix, maxDistance, k);
+    }
+
+    public static void main(String[] args) {
+        Autocomplete auto = Autocomplete.loadFromFile(FILENAME, DefaultTerm::new, TrieAutocomplete::new);
+        runConsoleLoop(auto);
+    }
+}
@@ -0,0 +1,48 @@
+package arrayutils;
+
+import edu.washington.cse373.BaseTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class RangeMaxQueryTests extends BaseTest {
+    @Test
+    void argMax_matchesLinearScanForEveryRange() {
+        Random random = new Random(373);
+        for (int n : new int[] {1, 2, 7, 64, 100}) {
+            long[] values = new long[n];
+            for (int i = 0; i < n; i += 1) {
+                values[i] = random.nextInt(10);
+            }
+            RangeMaxQuery query = new RangeMaxQuery(values);
+            for (int from = 0; from < n; from += 1) {
+                for (int to = from + 1; to <= n; to += 1) {
+                    int expected = from;
+                    for (int i = from; i < to; i += 1) {
+                        if (values[i] > values[expected]) {
+                            expected = i;
+                        }
+                    }
+                    assertThat(query.argMax(from, to)).as("argMax(%d, %d) of %d", from, to, n).isEqualTo(expected);
+                }
+            }
+        }
+    }
+
+    @Test
+    void argMax_withEmptyRange_throwsIllegalArgument() {
+        RangeMaxQuery query = new RangeMaxQuery(new long[] {1, 2, 3});
+        assertThatThrownBy(() -> query.argMax(1, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> query.argMax(0, 4)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void largest_returnsIndicesByDescendingValue() {
+        RangeMaxQuery query = new RangeMaxQuery(new long[] {5, 1, 9, 5, 3, 9, 0});
+        assertThat(query.largest(0, 7, 4)).containsExactly(2, 5, 0, 3);
+        assertThat(query.largest(1, 3, 10)).containsExactly(2, 1);
+        assertThat(query.largest(new int[] {0, 3}, new int[] {2, 5}, 2, 3)).containsExactly(0, 3, 4);
+        assertThat(query.largest(0, 7, 0)).isEmpty();
+        assertThatThrownBy(() -> query.largest(0, 7, -1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
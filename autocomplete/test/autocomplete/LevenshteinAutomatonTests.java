@@ -0,0 +1,64 @@
+package autocomplete;
+
+import edu.washington.cse373.BaseTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class LevenshteinAutomatonTests extends BaseTest {
+    private static int editDistance(String a, String b) {
+        int[][] table = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i += 1) {
+            for (int j = 0; j <= b.length(); j += 1) {
+                if (i == 0 || j == 0) {
+                    table[i][j] = i + j;
+                } else {
+                    int substitute = table[i - 1][j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                    table[i][j] = Math.min(substitute, Math.min(table[i - 1][j], table[i][j - 1]) + 1);
+                }
+            }
+        }
+        return table[a.length()][b.length()];
+    }
+
+    private static boolean hasClosePrefix(String query, String s, int maxDistance) {
+        for (int end = 0; end <= s.length(); end += 1) {
+            if (editDistance(query, s.substring(0, end)) <= maxDistance) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Test
+    void matchesPrefixOf_agreesWithEditDistanceOfEveryPrefix() {
+        List<String> words = List.of("", "a", "ab", "ba", "abc", "acb", "cab", "seattle", "seatle", "saettle",
+            "seattle, washington", "tacoma", "spokane", "sea");
+        for (int maxDistance = 0; maxDistance <= LevenshteinAutomaton.MAX_DISTANCE; maxDistance += 1) {
+            for (String query : words) {
+                LevenshteinAutomaton automaton = new LevenshteinAutomaton(query, maxDistance);
+                for (String s : words) {
+                    assertThat(automaton.matchesPrefixOf(s))
+                        .as("\"%s\" within %d of a prefix of \"%s\"", query, maxDistance, s)
+                        .isEqualTo(hasClosePrefix(query, s, maxDistance));
+                }
+            }
+        }
+    }
+
+    @Test
+    void matchesPrefixOf_toleratesTypos() {
+        LevenshteinAutomaton automaton = new LevenshteinAutomaton("Pikes Plase", 2);
+        assertThat(automaton.matchesPrefixOf("Pike Place Market")).isTrue();
+        assertThat(automaton.matchesPrefixOf("Pine Street")).isFalse();
+        assertThat(new LevenshteinAutomaton("Pikes Plase", 1).matchesPrefixOf("Pike Place Market")).isFalse();
+    }
+
+    @Test
+    void constructor_withInvalidDistance_throwsIllegalArgument() {
+        assertThatThrownBy(() -> new LevenshteinAutomaton("a", -1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new LevenshteinAutomaton("a", LevenshteinAutomaton.MAX_DISTANCE + 1))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new LevenshteinAutomaton(null, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,141 @@
+package autocomplete;
+
+import edu.washington.cse373.BaseTest;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class TrieAutocompleteTests extends BaseTest {
+    private Autocomplete expected;
+    private Autocomplete actual;
+
+    @BeforeAll
+    void setUp() throws IOException {
+        // Like cities.txt's own loader, skips the first line, which holds the number of terms.
+        List<String> lines = Files.readAllLines(Path.of("data", "cities.txt"));
+        Term[] terms = new Term[lines.size() - 1];
+        for (int i = 1; i < lines.size(); i += 1) {
+            String line = lines.get(i);
+            int tab = line.indexOf('\t');
+            terms[i - 1] = new DefaultTerm(line.substring(tab + 1), Long.parseLong(line.substring(0, tab).trim()));
+        }
+        expected = new Autocomplete(terms.clone());
+        actual = new TrieAutocomplete(terms);
+    }
+
+    private static List<String> describe(Term[] terms) {
+        return Arrays.stream(terms).map(t -> t.weight() + " " + t.query()).collect(Collectors.toList());
+    }
+
+    private static Term[] terms(String... queriesAndWeights) {
+        Term[] terms = new Term[queriesAndWeights.length / 2];
+        for (int i = 0; i < terms.length; i += 1) {
+            terms[i] = new DefaultTerm(queriesAndWeights[2 * i], Long.parseLong(queriesAndWeights[2 * i + 1]));
+        }
+        return terms;
+    }
+
+    @Test
+    void findMatchesForPrefix_matchesArrayAutocomplete() {
+        for (String prefix : List.of("", "S", "Sea", "Seattle", "Seattle, Washington, USA", "San ", "Z", "zzz", "Ö")) {
+            assertThat(describe(actual.findMatchesForPrefix(prefix)))
+                .as("matches for \"%s\"", prefix)
+                .isEqualTo(describe(expected.findMatchesForPrefix(prefix)));
+        }
+    }
+
+    @Test
+    void findMatchesForPrefix_withDuplicatesAndPrefixQueries_returnsAllByWeight() {
+        Autocomplete auto = new TrieAutocomplete(terms(
+            "cat", "1", "ca", "0", "c", "2", "ca", "5", "cab", "5", "dog", "9"));
+        assertThat(describe(auto.findMatchesForPrefix("c"))).containsExactly("5 ca", "5 cab", "2 c", "1 cat", "0 ca");
+        assertThat(describe(auto.findMatchesForPrefix("ca"))).containsExactly("5 ca", "5 cab", "1 cat", "0 ca");
+        assertThat(describe(auto.findMatchesForPrefix("cat"))).containsExactly("1 cat");
+        assertThat(auto.findMatchesForPrefix("catapult")).isEmpty();
+        assertThat(auto.findMatchesForPrefix("b")).isEmpty();
+    }
+
+    @Test
+    void findMatchesForPrefix_withNoTerms_returnsEmpty() {
+        Autocomplete auto = new TrieAutocomplete(new Term[0]);
+        assertThat(auto.findMatchesForPrefix("")).isEmpty();
+        assertThat(auto.findMatchesForPrefix("a")).isEmpty();
+    }
+
+    @Test
+    void topMatches_returnsHeaviestFirst() {
+        TermTrie trie = new TermTrie(terms(
+            "apple", "3", "apricot", "7", "banana", "4", "application", "7", "ape", "1"));
+        assertThat(describe(trie.topMatches("ap", 2))).containsExactly("7 application", "7 apricot");
+        assertThat(describe(trie.topMatches("a", 10)))
+            .containsExactly("7 application", "7 apricot", "3 apple", "1 ape");
+        assertThat(trie.topMatches("a", 0)).isEmpty();
+        assertThat(trie.findAllMatches("app").count()).isEqualTo(2);
+        assertThat(describe(trie.findAllMatches("app").unsorted()))
+            .containsExactlyInAnyOrder("3 apple", "7 application");
+        assertThatThrownBy(() -> trie.topMatches(null, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> trie.findAllMatches(null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void trie_sharesPrefixes() {
+        TermTrie trie = new TermTrie(terms("romane", "1", "romanus", "1", "romulus", "1", "rubens", "1", "ruber", "1"));
+        // r -> (om -> (an -> (e, us), ulus), ube -> (ns, r))
+        assertThat(trie.numNodes()).isEqualTo(9);
+        assertThat(trie.size()).isEqualTo(5);
+    }
+
+    @Test
+    void findTopMatchesForPrefix_matchesFirstOfAllMatches() {
+        for (String prefix : List.of("", "S", "San ", "Seattle", "zzz")) {
+            List<String> all = describe(expected.findMatchesForPrefix(prefix));
+            for (int k : new int[] {0, 1, 5, 100}) {
+                List<String> top = all.subList(0, Math.min(k, all.size()));
+                assertThat(describe(expected.findTopMatchesForPrefix(prefix, k)))
+                    .as("top %d for \"%s\"", k, prefix).isEqualTo(top);
+                assertThat(describe(actual.findTopMatchesForPrefix(prefix, k)))
+                    .as("trie top %d for \"%s\"", k, prefix).isEqualTo(top);
+            }
+        }
+        assertThatThrownBy(() -> expected.findTopMatchesForPrefix("S", -1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void findFuzzyMatchesForPrefix_matchesFilteredAllMatches() {
+        for (String prefix : List.of("", "Seatle", "San Fransisco", "Sant", "Tacona", "zzzz")) {
+            for (int maxDistance = 0; maxDistance <= LevenshteinAutomaton.MAX_DISTANCE; maxDistance += 1) {
+                LevenshteinAutomaton automaton = new LevenshteinAutomaton(prefix, maxDistance);
+                List<String> all = describe(Arrays.stream(expected.findMatchesForPrefix(""))
+                    .filter(term -> automaton.matchesPrefixOf(term.query()))
+                    .toArray(Term[]::new));
+                for (int k : new int[] {0, 1, 10, Integer.MAX_VALUE}) {
+                    List<String> top = all.subList(0, Math.min(k, all.size()));
+                    assertThat(describe(expected.findFuzzyMatchesForPrefix(prefix, maxDistance, k)))
+                        .as("fuzzy top %d for \"%s\" within %d", k, prefix, maxDistance).isEqualTo(top);
+                    assertThat(describe(actual.findFuzzyMatchesForPrefix(prefix, maxDistance, k)))
+                        .as("trie fuzzy top %d for \"%s\" within %d", k, prefix, maxDistance).isEqualTo(top);
+                }
+            }
+        }
+    }
+
+    @Test
+    void fuzzyTopMatches_findsTypos() {
+        TermTrie trie = new TermTrie(terms("Pike Place Market", "9", "Pike Street", "5", "Pine Street", "7"));
+        assertThat(describe(trie.fuzzyTopMatches("Pikes Plase", 2, 10))).containsExactly("9 Pike Place Market");
+        assertThat(describe(trie.fuzzyTopMatches("Pie", 1, 10)))
+            .containsExactly("9 Pike Place Market", "7 Pine Street", "5 Pike Street");
+        assertThat(trie.fuzzyTopMatches("Pikes Plase", 1, 10)).isEmpty();
+        assertThatThrownBy(() -> trie.fuzzyTopMatches("Pike", 3, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> trie.fuzzyTopMatches("Pike", 1, -1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,111 @@
+package benchmarks;
+
+import graphpathfinding.AStarPathFinder;
+import graphpathfinding.BidirectionalAStarPathFinder;
+import graphpathfinding.ContractionHierarchyPathFinder;
+import graphpathfinding.IndexedAStarPathFinder;
+import graphpathfinding.LandmarkGraph;
+import graphpathfinding.ShortestPathFinder;
+import graphpathfinding.ShortestPathResult;
+import huskymaps.graph.CompactStreetMapGraph;
+import huskymaps.graph.Node;
+import huskymaps.graph.StreetMapGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static huskymaps.utils.Constants.NUM_LANDMARKS;
+import static huskymaps.utils.Constants.OSM_GZ_RESOURCE_NAME;
+import static huskymaps.utils.Constants.PLACES_RESOURCE_NAME;
+
+/**
+ * Times shortest-path queries between random pairs of routable nodes on a street map graph.
+ * Each invocation runs the next route in a fixed, seeded list of routes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class AStarPathFinderBenchmark {
+    private static final int NUM_ROUTES = 256;
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+
+    @Param({"AStarPathFinder", "IndexedAStarPathFinder", "BidirectionalAStarPathFinder",
+        "LandmarkAStarPathFinder", "ContractionHierarchyPathFinder"})
+    public String implementation;
+
+    /** The bundled Seattle resource by default, or the path to some other gzipped OSM file. */
+    @Param({OSM_GZ_RESOURCE_NAME})
+    public String osm;
+
+    private ShortestPathFinder<Node> finder;
+    private Node[] starts;
+    private Node[] ends;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        StreetMapGraph graph = osm.equals(OSM_GZ_RESOURCE_NAME)
+            ? StreetMapGraph.fromResources(OSM_GZ_RESOURCE_NAME, PLACES_RESOURCE_NAME)
+            : StreetMapGraph.fromFileAndResource(new File(osm), PLACES_RESOURCE_NAME);
+        CompactStreetMapGraph compact = graph.compact();
+        switch (implementation) {
+            case "AStarPathFinder":
+                finder = new AStarPathFinder<>(graph);
+                break;
+            case "IndexedAStarPathFinder":
+                finder = new IndexedAStarPathFinder<>(compact);
+                break;
+            case "BidirectionalAStarPathFinder":
+                finder = new BidirectionalAStarPathFinder<>(compact);
+                break;
+            case "LandmarkAStarPathFinder":
+                finder = new IndexedAStarPathFinder<>(new LandmarkGraph<>(compact, NUM_LANDMARKS));
+                break;
+            case "ContractionHierarchyPathFinder":
+                finder = new ContractionHierarchyPathFinder<>(compact);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown implementation " + implementation);
+        }
+
+        List<Node> routable = new ArrayList<>();
+        for (int v = 0; v < compact.numVertices(); v += 1) {
+            if (compact.outDegree(v) > 0) {
+                routable.add(compact.vertexAt(v));
+            }
+        }
+        Random random = new Random(373);
+        starts = new Node[NUM_ROUTES];
+        ends = new Node[NUM_ROUTES];
+        for (int i = 0; i < NUM_ROUTES; i += 1) {
+            starts[i] = routable.get(random.nextInt(routable.size()));
+            ends[i] = routable.get(random.nextInt(routable.size()));
+        }
+        next = 0;
+    }
+
+    @Benchmark
+    public ShortestPathResult<Node> findShortestPath() {
+        int i = next;
+        next = (i + 1) % NUM_ROUTES;
+        return finder.findShortestPath(starts[i], ends[i], TIMEOUT);
+    }
+}
@@ -0,0 +1,64 @@
+package benchmarks;
+
+import arrayutils.ArraySearcher;
+import arrayutils.BinaryRangeSearcher;
+import autocomplete.DefaultTerm;
+import autocomplete.Term;
+import edu.princeton.cs.algs4.In;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times BinaryRangeSearcher.findAllMatches on the autocomplete cities data, both on its own and
+ * followed by the weight sort that Autocomplete.findMatchesForPrefix does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinaryRangeSearcherBenchmark {
+    private static final String FILENAME = "autocomplete/data/cities.txt";
+
+    /** Short prefixes match many terms; longer ones match only a few. */
+    @Param({"S", "Sa", "San", "San Fr"})
+    public String prefix;
+
+    private ArraySearcher<Term, String> searcher;
+
+    @Setup
+    public void setUp() {
+        In in = new In(FILENAME);
+        int n = Integer.parseInt(in.readLine().trim());
+        Term[] terms = new Term[n];
+        for (int i = 0; i < n; i += 1) {
+            String line = in.readLine();
+            int tab = line.indexOf('\t');
+            terms[i] = new DefaultTerm(line.substring(tab + 1), Long.parseLong(line.substring(0, tab).trim()));
+        }
+        searcher = BinaryRangeSearcher.forUnsortedArray(terms, Term::queryOrder, Term::matchesPrefix);
+    }
+
+    @Benchmark
+    public int findAllMatches() {
+        return searcher.findAllMatches(prefix).count();
+    }
+
+    @Benchmark
+    public void findAllMatchesSortedByWeight(Blackhole blackhole) {
+        blackhole.consume(searcher.findAllMatches(prefix).sortedBy(Term::reverseWeightOrder));
+    }
+}
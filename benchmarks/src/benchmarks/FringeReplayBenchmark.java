@@ -0,0 +1,198 @@
+package benchmarks;
+
+import graphpathfinding.AStarPathFinder;
+import graphpathfinding.ShortestPathFinder;
+import huskymaps.graph.CompactStreetMapGraph;
+import huskymaps.graph.Node;
+import huskymaps.graph.StreetMapGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import priorityqueues.ArrayHeapMinPQ;
+import priorityqueues.DAryHeapMinPQ;
+import priorityqueues.DoubleMapMinPQ;
+import priorityqueues.ExtrinsicMinPQ;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static huskymaps.utils.Constants.OSM_GZ_RESOURCE_NAME;
+import static huskymaps.utils.Constants.PLACES_RESOURCE_NAME;
+
+/**
+ * Times the ExtrinsicMinPQ implementations on the fringe operations of real routes, rather than
+ * the synthetic priorities of {@link MinPQBenchmark}.
+ *
+ * Setup records the exact sequence of fringe operations that AStarPathFinder makes while finding
+ * a fixed, seeded list of routes, with nodes replaced by their Integer indices in the compact
+ * graph, since ArrayHeapMinPQ requires Comparable items. Each invocation replays the whole
+ * sequence on a new PQ per route. NaiveMinPQ is left out, since it takes minutes per replay.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class FringeReplayBenchmark {
+    private static final int NUM_ROUTES = 200;
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+
+    @Param({"ArrayHeapMinPQ", "DoubleMapMinPQ", "DAryHeapMinPQ"})
+    public String implementation;
+
+    /** The bundled Seattle resource by default, or the path to some other gzipped OSM file. */
+    @Param({OSM_GZ_RESOURCE_NAME})
+    public String osm;
+
+    private OperationLog log;
+
+    @Setup
+    public void setUp() {
+        StreetMapGraph graph = osm.equals(OSM_GZ_RESOURCE_NAME)
+            ? StreetMapGraph.fromResources(OSM_GZ_RESOURCE_NAME, PLACES_RESOURCE_NAME)
+            : StreetMapGraph.fromFileAndResource(new File(osm), PLACES_RESOURCE_NAME);
+        CompactStreetMapGraph compact = graph.compact();
+
+        List<Node> routable = new ArrayList<>();
+        for (int v = 0; v < compact.numVertices(); v += 1) {
+            if (compact.outDegree(v) > 0) {
+                routable.add(compact.vertexAt(v));
+            }
+        }
+        log = new OperationLog(compact);
+        ShortestPathFinder<Node> recorder = new AStarPathFinder<>(graph, () -> log.recording(new DAryHeapMinPQ<>()));
+        Random random = new Random(373);
+        for (int i = 0; i < NUM_ROUTES; i += 1) {
+            Node start = routable.get(random.nextInt(routable.size()));
+            Node end = routable.get(random.nextInt(routable.size()));
+            recorder.findShortestPath(start, end, TIMEOUT);
+        }
+    }
+
+    private ExtrinsicMinPQ<Integer> createMinPQ() {
+        switch (implementation) {
+            case "ArrayHeapMinPQ":
+                return new ArrayHeapMinPQ<>();
+            case "DoubleMapMinPQ":
+                return new DoubleMapMinPQ<>();
+            case "DAryHeapMinPQ":
+                return new DAryHeapMinPQ<>();
+            default:
+                throw new IllegalArgumentException("Unknown implementation " + implementation);
+        }
+    }
+
+    @Benchmark
+    public void replay(Blackhole blackhole) {
+        log.replay(this, blackhole);
+    }
+
+    /** A growable log of fringe operations, with nodes recorded as their compact-graph indices. */
+    private static class OperationLog {
+        private static final byte NEW_PQ = 0;
+        private static final byte ADD = 1;
+        private static final byte CHANGE_PRIORITY = 2;
+        private static final byte REMOVE_MIN = 3;
+        private static final byte CONTAINS = 4;
+
+        private final CompactStreetMapGraph compact;
+        private byte[] ops = new byte[1024];
+        private Integer[] items = new Integer[1024];
+        private double[] priorities = new double[1024];
+        private int size = 0;
+
+        OperationLog(CompactStreetMapGraph compact) {
+            this.compact = compact;
+        }
+
+        void record(byte op, Node item, double priority) {
+            if (size == ops.length) {
+                ops = Arrays.copyOf(ops, size * 2);
+                items = Arrays.copyOf(items, size * 2);
+                priorities = Arrays.copyOf(priorities, size * 2);
+            }
+            ops[size] = op;
+            // Boxed once here, so that the replay doesn't time Integer.valueOf.
+            items[size] = item == null ? null : compact.indexOf(item);
+            priorities[size] = priority;
+            size += 1;
+        }
+
+        ExtrinsicMinPQ<Node> recording(ExtrinsicMinPQ<Node> pq) {
+            record(NEW_PQ, null, 0);
+            return new ExtrinsicMinPQ<>() {
+                @Override
+                public void add(Node item, double priority) {
+                    record(ADD, item, priority);
+                    pq.add(item, priority);
+                }
+
+                @Override
+                public boolean contains(Node item) {
+                    record(CONTAINS, item, 0);
+                    return pq.contains(item);
+                }
+
+                @Override
+                public Node peekMin() {
+                    return pq.peekMin();
+                }
+
+                @Override
+                public Node removeMin() {
+                    record(REMOVE_MIN, null, 0);
+                    return pq.removeMin();
+                }
+
+                @Override
+                public void changePriority(Node item, double priority) {
+                    record(CHANGE_PRIORITY, item, priority);
+                    pq.changePriority(item, priority);
+                }
+
+                @Override
+                public int size() {
+                    return pq.size();
+                }
+            };
+        }
+
+        void replay(FringeReplayBenchmark benchmark, Blackhole blackhole) {
+            ExtrinsicMinPQ<Integer> pq = null;
+            for (int i = 0; i < size; i += 1) {
+                switch (ops[i]) {
+                    case NEW_PQ:
+                        pq = benchmark.createMinPQ();
+                        break;
+                    case ADD:
+                        pq.add(items[i], priorities[i]);
+                        break;
+                    case CHANGE_PRIORITY:
+                        pq.changePriority(items[i], priorities[i]);
+                        break;
+                    case REMOVE_MIN:
+                        blackhole.consume(pq.removeMin());
+                        break;
+                    default:
+                        blackhole.consume(pq.contains(items[i]));
+                        break;
+                }
+            }
+        }
+    }
+}
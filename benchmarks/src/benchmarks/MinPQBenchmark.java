@@ -0,0 +1,104 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import priorityqueues.ArrayHeapMinPQ;
+import priorityqueues.DAryHeapMinPQ;
+import priorityqueues.DoubleMapMinPQ;
+import priorityqueues.ExtrinsicMinPQ;
+import priorityqueues.NaiveMinPQ;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times the ExtrinsicMinPQ implementations on N items: adding them all, draining them with
+ * removeMin, and decreasing priorities the way A* does before draining.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MinPQBenchmark {
+    @Param({"ArrayHeapMinPQ", "DoubleMapMinPQ", "NaiveMinPQ", "DAryHeapMinPQ"})
+    public String implementation;
+
+    @Param({"1000", "10000"})
+    public int size;
+
+    private Integer[] items;
+    private double[] priorities;
+    private double[] decreasedPriorities;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(373);
+        items = new Integer[size];
+        priorities = new double[size];
+        decreasedPriorities = new double[size];
+        for (int i = 0; i < size; i += 1) {
+            items[i] = i;
+            priorities[i] = random.nextDouble() * size;
+            decreasedPriorities[i] = priorities[i] * random.nextDouble();
+        }
+    }
+
+    private ExtrinsicMinPQ<Integer> createMinPQ() {
+        switch (implementation) {
+            case "ArrayHeapMinPQ":
+                return new ArrayHeapMinPQ<>();
+            case "DoubleMapMinPQ":
+                return new DoubleMapMinPQ<>();
+            case "NaiveMinPQ":
+                return new NaiveMinPQ<>();
+            case "DAryHeapMinPQ":
+                return new DAryHeapMinPQ<>();
+            default:
+                throw new IllegalArgumentException("Unknown implementation " + implementation);
+        }
+    }
+
+    private ExtrinsicMinPQ<Integer> filledMinPQ() {
+        ExtrinsicMinPQ<Integer> pq = createMinPQ();
+        for (int i = 0; i < size; i += 1) {
+            pq.add(items[i], priorities[i]);
+        }
+        return pq;
+    }
+
+    @Benchmark
+    public ExtrinsicMinPQ<Integer> add() {
+        return filledMinPQ();
+    }
+
+    @Benchmark
+    public void addThenRemoveAll(Blackhole blackhole) {
+        ExtrinsicMinPQ<Integer> pq = filledMinPQ();
+        while (!pq.isEmpty()) {
+            blackhole.consume(pq.removeMin());
+        }
+    }
+
+    @Benchmark
+    public void addThenDecreaseAllThenRemoveAll(Blackhole blackhole) {
+        ExtrinsicMinPQ<Integer> pq = filledMinPQ();
+        for (int i = 0; i < size; i += 1) {
+            pq.changePriority(items[i], decreasedPriorities[i]);
+        }
+        while (!pq.isEmpty()) {
+            blackhole.consume(pq.removeMin());
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pointsets.KDTreePointSet;
+import pointsets.NaivePointSet;
+import pointsets.Point;
+import pointsets.PointSet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times nearest-neighbor queries (one at a time and batched) on KDTreePointSet and NaivePointSet,
+ * plus KD-tree construction.
+ * Points are uniformly random in the unit square.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PointSetBenchmark {
+    private static final int NUM_QUERIES = 1000;
+
+    @Param({"KDTreePointSet", "NaivePointSet"})
+    public String implementation;
+
+    @Param({"10000", "100000"})
+    public int size;
+
+    private List<Point> points;
+    private PointSet<Point> pointSet;
+    private Point[] queries;
+    private double[] queryXs;
+    private double[] queryYs;
+    private int[] out;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(373);
+        points = new ArrayList<>(size);
+        for (int i = 0; i < size; i += 1) {
+            points.add(new Point(random.nextDouble(), random.nextDouble()));
+        }
+        queries = new Point[NUM_QUERIES];
+        queryXs = new double[NUM_QUERIES];
+        queryYs = new double[NUM_QUERIES];
+        out = new int[NUM_QUERIES];
+        for (int i = 0; i < NUM_QUERIES; i += 1) {
+            queries[i] = new Point(random.nextDouble(), random.nextDouble());
+            queryXs[i] = queries[i].x();
+            queryYs[i] = queries[i].y();
+        }
+        pointSet = createPointSet();
+    }
+
+    private PointSet<Point> createPointSet() {
+        switch (implementation) {
+            case "KDTreePointSet":
+                return KDTreePointSet.create(new ArrayList<>(points));
+            case "NaivePointSet":
+                return new NaivePointSet<>(new ArrayList<>(points));
+            default:
+                throw new IllegalArgumentException("Unknown implementation " + implementation);
+        }
+    }
+
+    /** Time per batch of NUM_QUERIES nearest-neighbor queries. */
+    @Benchmark
+    public void nearest(Blackhole blackhole) {
+        for (Point query : queries) {
+            blackhole.consume(pointSet.nearest(query));
+        }
+    }
+
+    /** Time for the same NUM_QUERIES queries made as one batch. */
+    @Benchmark
+    public int[] nearestBatch() {
+        pointSet.nearest(queryXs, queryYs, out);
+        return out;
+    }
+
+    @Benchmark
+    public PointSet<Point> construct() {
+        return createPointSet();
+    }
+}
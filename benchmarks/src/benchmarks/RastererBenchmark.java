@@ -0,0 +1,71 @@
+package benchmarks;
+
+import huskymaps.graph.Coordinate;
+import huskymaps.rastering.DefaultRasterer;
+import huskymaps.rastering.Rasterer;
+import huskymaps.rastering.TileGrid;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static huskymaps.utils.Constants.ROOT_LAT_DIFF;
+import static huskymaps.utils.Constants.ROOT_LON_DIFF;
+import static huskymaps.utils.Constants.ROOT_LRLAT;
+import static huskymaps.utils.Constants.ROOT_ULLON;
+
+/**
+ * Times DefaultRasterer.rasterizeMap on random viewports inside the map bounds.
+ * Each invocation rasterizes the next viewport in a fixed, seeded list of viewports.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RastererBenchmark {
+    private static final int NUM_VIEWPORTS = 1024;
+
+    @Param({"0", "4", "7"})
+    public int depth;
+
+    private Rasterer rasterer;
+    private Coordinate[] uls;
+    private Coordinate[] lrs;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        rasterer = new DefaultRasterer();
+        Random random = new Random(373);
+        uls = new Coordinate[NUM_VIEWPORTS];
+        lrs = new Coordinate[NUM_VIEWPORTS];
+        for (int i = 0; i < NUM_VIEWPORTS; i += 1) {
+            double lon1 = ROOT_ULLON + random.nextDouble() * ROOT_LON_DIFF;
+            double lon2 = ROOT_ULLON + random.nextDouble() * ROOT_LON_DIFF;
+            double lat1 = ROOT_LRLAT + random.nextDouble() * ROOT_LAT_DIFF;
+            double lat2 = ROOT_LRLAT + random.nextDouble() * ROOT_LAT_DIFF;
+            uls[i] = new Coordinate(Math.max(lat1, lat2), Math.min(lon1, lon2));
+            lrs[i] = new Coordinate(Math.min(lat1, lat2), Math.max(lon1, lon2));
+        }
+        next = 0;
+    }
+
+    @Benchmark
+    public TileGrid rasterizeMap() {
+        int i = next;
+        next = (i + 1) % NUM_VIEWPORTS;
+        return rasterer.rasterizeMap(uls[i], lrs[i], depth);
+    }
+}
@@ -0,0 +1,56 @@
+package benchmarks;
+
+import edu.princeton.cs.algs4.Picture;
+import edu.princeton.cs.algs4.StdRandom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import seamcarving.AStarSeamFinder;
+import seamcarving.DualGradientEnergyFunction;
+import seamcarving.SeamCarver;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static seamcarving.demos.PictureUtils.randomPicture;
+
+/**
+ * Times computing the energy matrix of a random size-by-size picture, and finding a seam in it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class SeamCarverBenchmark {
+    @Param({"100", "500"})
+    public int size;
+
+    private SeamCarver seamCarver;
+
+    @Setup
+    public void setUp() {
+        StdRandom.setSeed(373);
+        Picture picture = randomPicture(size, size);
+        seamCarver = new SeamCarver(picture, new DualGradientEnergyFunction(), new AStarSeamFinder());
+    }
+
+    @Benchmark
+    public double[][] computeEnergies() {
+        return seamCarver.computeEnergies();
+    }
+
+    @Benchmark
+    public List<Integer> findVerticalSeam() {
+        return seamCarver.findVerticalSeam();
+    }
+}
@@ -0,0 +1,190 @@
+package priorityqueues;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * An ExtrinsicMinPQ backed by a d-ary array heap (4-ary by default).
+ *
+ * Items and their priorities are kept in parallel arrays rather than in PriorityNode objects, so
+ * comparisons during percolation read contiguous doubles. A wider heap is shallower than a binary
+ * heap, which trades slightly more comparisons per level in removeMin for fewer levels (and fewer
+ * cache misses) in both removeMin and add/changePriority.
+ *
+ * Unlike ArrayHeapMinPQ, items don't need to be Comparable.
+ */
+public class DAryHeapMinPQ<T> implements ExtrinsicMinPQ<T> {
+    static final int DEFAULT_ARITY = 4;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int arity;
+    Object[] items;
+    double[] priorities;
+    private final Map<T, Integer> indices;
+    private int size;
+
+    public DAryHeapMinPQ() {
+        this(DEFAULT_ARITY);
+    }
+
+    /**
+     * Creates an empty PQ whose heap nodes have the given number of children.
+     * @throws IllegalArgumentException if arity is less than 2
+     */
+    public DAryHeapMinPQ(int arity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("Arity must be at least 2, but was " + arity);
+        }
+        this.arity = arity;
+        this.items = new Object[INITIAL_CAPACITY];
+        this.priorities = new double[INITIAL_CAPACITY];
+        this.indices = new HashMap<>();
+        this.size = 0;
+    }
+
+    /**
+     * Adds an item with the given priority value.
+     * Runs in O(log N) time (except when resizing).
+     *
+     * @throws IllegalArgumentException if item is null or is already present in the PQ
+     */
+    @Override
+    public void add(T item, double priority) {
+        if (item == null || contains(item)) {
+            throw new IllegalArgumentException("Item can not be null or already in the Priority Queue");
+        }
+        if (size == items.length) {
+            items = Arrays.copyOf(items, size * 2);
+            priorities = Arrays.copyOf(priorities, size * 2);
+        }
+        size++;
+        place(item, priority, size - 1);
+        percolateUp(size - 1);
+    }
+
+    /**
+     * Returns true if the PQ contains the given item; false otherwise.
+     * Runs in O(1) time.
+     */
+    @Override
+    public boolean contains(T item) {
+        return indices.containsKey(item);
+    }
+
+    /**
+     * Returns the item with the least-valued priority.
+     * Runs in O(1) time.
+     * @throws NoSuchElementException if the PQ is empty
+     */
+    @Override
+    public T peekMin() {
+        if (size == 0) {
+            throw new NoSuchElementException("PQ is empty");
+        }
+        return itemAt(0);
+    }
+
+    /**
+     * Removes and returns the item with the least-valued priority.
+     * Runs in O(log N) time.
+     * @throws NoSuchElementException if the PQ is empty
+     */
+    @Override
+    public T removeMin() {
+        if (size == 0) {
+            throw new NoSuchElementException("PQ is empty");
+        }
+        T min = itemAt(0);
+        indices.remove(min);
+        size--;
+        if (size > 0) {
+            place(itemAt(size), priorities[size], 0);
+            percolateDown(0);
+        }
+        items[size] = null;
+        return min;
+    }
+
+    /**
+     * Changes the priority of the given item.
+     * Runs in O(log N) time.
+     *
+     * @throws NoSuchElementException if the item is not present in the PQ
+     */
+    @Override
+    public void changePriority(T item, double priority) {
+        Integer index = indices.get(item);
+        if (index == null) {
+            throw new NoSuchElementException("PQ does not contain " + item);
+        }
+        double oldPriority = priorities[index];
+        priorities[index] = priority;
+        if (priority < oldPriority) {
+            percolateUp(index);
+        } else {
+            percolateDown(index);
+        }
+    }
+
+    /**
+     * Returns the number of items in the PQ.
+     * Runs in O(1) time.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T itemAt(int index) {
+        return (T) items[index];
+    }
+
+    private void place(T item, double priority, int index) {
+        items[index] = item;
+        priorities[index] = priority;
+        indices.put(item, index);
+    }
+
+    /** Moves the item at index up until its parent's priority is no greater than its own. */
+    private void percolateUp(int index) {
+        T item = itemAt(index);
+        double priority = priorities[index];
+        while (index > 0) {
+            int parent = (index - 1) / arity;
+            if (priorities[parent] <= priority) {
+                break;
+            }
+            place(itemAt(parent), priorities[parent], index);
+            index = parent;
+        }
+        place(item, priority, index);
+    }
+
+    /** Moves the item at index down until none of its children have a smaller priority. */
+    private void percolateDown(int index) {
+        T item = itemAt(index);
+        double priority = priorities[index];
+        while (true) {
+            int firstChild = arity * index + 1;
+            if (firstChild >= size) {
+                break;
+            }
+            int lastChild = Math.min(firstChild + arity, size);
+            int minChild = firstChild;
+            for (int child = firstChild + 1; child < lastChild; child++) {
+                if (priorities[child] < priorities[minChild]) {
+                    minChild = child;
+                }
+            }
+            if (priority <= priorities[minChild]) {
+                break;
+            }
+            place(itemAt(minChild), priorities[minChild], index);
+            index = minChild;
+        }
+        place(item, priority, index);
+    }
+}
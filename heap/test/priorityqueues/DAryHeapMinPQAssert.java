@@ -0,0 +1,31 @@
+package priorityqueues;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An implementation of AbstractHeapMinPQAssert that extracts the proper fields from a
+ * DAryHeapMinPQ implementation.
+ */
+public class DAryHeapMinPQAssert<T> extends AbstractHeapMinPQAssert<T> {
+
+    public DAryHeapMinPQAssert(DAryHeapMinPQ<T> actual) {
+        super(actual, DAryHeapMinPQAssert.class);
+    }
+
+    @Override
+    protected int extractStartIndex(ExtrinsicMinPQ<T> actual) {
+        return 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected List<PriorityNode<T>> extractHeap(ExtrinsicMinPQ<T> actual) {
+        DAryHeapMinPQ<T> pq = (DAryHeapMinPQ<T>) actual;
+        List<PriorityNode<T>> heap = new ArrayList<>();
+        for (int i = 0; i < pq.size(); i++) {
+            heap.add(new PriorityNode<>((T) pq.items[i], pq.priorities[i]));
+        }
+        return heap;
+    }
+}
@@ -0,0 +1,16 @@
+package priorityqueues;
+
+/**
+ * Runs the ArrayHeapMinPQ tests on DAryHeapMinPQ.
+ */
+public class DAryHeapMinPQTests extends ArrayHeapMinPQTests {
+    @Override
+    protected <T extends Comparable<T>> ExtrinsicMinPQ<T> createMinPQ() {
+        return new DAryHeapMinPQ<>();
+    }
+
+    @Override
+    protected <T extends Comparable<T>> AbstractHeapMinPQAssert<T> assertThat(ExtrinsicMinPQ<T> pq) {
+        return new DAryHeapMinPQAssert<>((DAryHeapMinPQ<T>) pq);
+    }
+}
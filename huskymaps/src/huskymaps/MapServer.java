@@ -4,17 +4,24 @@ import huskymaps.graph.StreetMapGraph;
 import huskymaps.handlers.APIRouteHandler;
 import huskymaps.handlers.RedirectAPIHandler;
 import huskymaps.handlers.rastering.RasterAPIHandler;
+import huskymaps.handlers.rastering.TileAPIHandler;
+import huskymaps.handlers.routing.MatrixAPIHandler;
 import huskymaps.handlers.routing.RoutingAPIHandler;
 import huskymaps.handlers.searching.SearchAPIHandler;
 import huskymaps.rastering.DefaultRasterer;
+import huskymaps.rastering.TileStore;
 import huskymaps.routing.DefaultRouter;
 import huskymaps.searching.DefaultSearcher;
 
+import java.nio.file.Path;
 import java.util.Map;
 
+import static huskymaps.utils.Constants.GRAPH_SNAPSHOT_DIRECTORY;
+import static huskymaps.utils.Constants.GRAPH_SNAPSHOT_FILE_NAME;
 import static huskymaps.utils.Constants.OSM_GZ_RESOURCE_NAME;
 import static huskymaps.utils.Constants.PLACES_RESOURCE_NAME;
 import static huskymaps.utils.Constants.PORT;
+import static huskymaps.utils.Constants.TILE_STORE_BYTES;
 import static spark.Spark.before;
 import static spark.Spark.get;
 import static spark.Spark.port;
@@ -29,10 +36,14 @@ public class MapServer {
 
     /** Entry point for the MapServer. Everything starts here. */
     public static void main(String[] args) {
-        StreetMapGraph graph = StreetMapGraph.fromResources(OSM_GZ_RESOURCE_NAME, PLACES_RESOURCE_NAME);
+        StreetMapGraph graph = StreetMapGraph.fromResourcesWithSnapshot(
+            OSM_GZ_RESOURCE_NAME, PLACES_RESOURCE_NAME, getSnapshotPath());
+        DefaultRouter router = new DefaultRouter(graph, useContractionHierarchy());
         new MapServer(Map.of(
             "/raster", new RasterAPIHandler(new DefaultRasterer()),
-            "/route", new RoutingAPIHandler(new DefaultRouter(graph)),
+            "/tiles/:depth/:x/:y", new TileAPIHandler(new TileStore(TILE_STORE_BYTES)),
+            "/route", new RoutingAPIHandler(router),
+            "/matrix", new MatrixAPIHandler(router),
             "/search", new SearchAPIHandler(new DefaultSearcher(graph)),
             "/", new RedirectAPIHandler()
         )).start();
@@ -62,4 +73,17 @@ public class MapServer {
         }
         return PORT;
     }
+
+    private static Path getSnapshotPath() {
+        String path = System.getenv("GRAPH_SNAPSHOT");
+        if (path != null) {
+            return Path.of(path);
+        }
+        return Path.of(System.getProperty("user.home"), GRAPH_SNAPSHOT_DIRECTORY, GRAPH_SNAPSHOT_FILE_NAME);
+    }
+
+    /** Routing uses a contraction hierarchy if the CONTRACTION_HIERARCHY variable is "true". */
+    private static boolean useContractionHierarchy() {
+        return Boolean.parseBoolean(System.getenv("CONTRACTION_HIERARCHY"));
+    }
 }
@@ -0,0 +1,238 @@
+package huskymaps.graph;
+
+import graphpathfinding.IndexedAStarGraph;
+import graphpathfinding.WeightedEdge;
+import huskymaps.utils.LongIntHashMap;
+import huskymaps.utils.NameDictionary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static huskymaps.utils.Spatial.greatCircleDistance;
+
+/**
+ * A frozen copy of a {@link StreetMapGraph} stored in compressed sparse row (CSR) form.
+ *
+ * Every node is given a dense index (its position in {@link StreetMapGraph#allNodes()}), and the
+ * outgoing edges of node v are stored in positions offsets[v] through offsets[v + 1] - 1 of the
+ * parallel targets, weights, and nameIds arrays. Way names are referred to by their ids in the
+ * global {@link NameDictionary}, the same ids that nodes use.
+ *
+ * Iterating over neighbors with {@link #outDegree(int)}, {@link #neighbor(int, int)}, and
+ * {@link #neighborWeight(int, int)} doesn't allocate anything, so path finders should prefer
+ * those over {@link #neighbors(Node)}.
+ *
+ * Each edge's position in those arrays is its edge id. The edge between two nodes can be found in
+ * constant time with {@link #edgeIndex(int, int)}, which looks up both dense indices, packed into
+ * one long, in a primitive hash table.
+ */
+public class CompactStreetMapGraph implements IndexedAStarGraph<Node> {
+    private final Node[] nodes;
+    private final double[] lats;
+    private final double[] lons;
+    /** The dense index of the node with each OSM id. */
+    private final LongIntHashMap indices;
+    /** The id of the (lightest) edge between each pair of dense indices, packed by pack. */
+    private final LongIntHashMap edgeIndices;
+
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
+    private final int[] nameIds;
+
+    /** Builds the CSR representation of the given graph. */
+    CompactStreetMapGraph(StreetMapGraph graph) {
+        List<Node> allNodes = graph.allNodes();
+        int n = allNodes.size();
+        this.nodes = allNodes.toArray(new Node[0]);
+        this.lats = lats(nodes);
+        this.lons = lons(nodes);
+        this.indices = indexNodes(nodes);
+
+        int numEdges = 0;
+        this.offsets = new int[n + 1];
+        for (int v = 0; v < n; v += 1) {
+            offsets[v] = numEdges;
+            numEdges += graph.neighbors(nodes[v]).size();
+        }
+        offsets[n] = numEdges;
+
+        this.targets = new int[numEdges];
+        this.weights = new double[numEdges];
+        this.nameIds = new int[numEdges];
+        int e = 0;
+        for (int v = 0; v < n; v += 1) {
+            Set<WeightedEdge<Node>> edges = graph.neighbors(nodes[v]);
+            for (WeightedEdge<Node> edge : edges) {
+                targets[e] = indexOf(edge.to());
+                weights[e] = edge.weight();
+                nameIds[e] = nameIdOf(edge);
+                e += 1;
+            }
+        }
+        this.edgeIndices = indexEdges(offsets, targets, weights);
+    }
+
+    /**
+     * Wraps arrays that are already in CSR form, as read from a {@link GraphSnapshot}. The arrays
+     * are used as they are, not copied; the edges out of nodes[v] are in positions offsets[v]
+     * through offsets[v + 1] - 1 of the other three.
+     */
+    CompactStreetMapGraph(Node[] nodes, int[] offsets, int[] targets, double[] weights, int[] nameIds) {
+        this.nodes = nodes;
+        this.lats = lats(nodes);
+        this.lons = lons(nodes);
+        this.indices = indexNodes(nodes);
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.nameIds = nameIds;
+        this.edgeIndices = indexEdges(offsets, targets, weights);
+    }
+
+    private static double[] lats(Node[] nodes) {
+        double[] lats = new double[nodes.length];
+        for (int v = 0; v < nodes.length; v += 1) {
+            lats[v] = nodes[v].lat();
+        }
+        return lats;
+    }
+
+    private static double[] lons(Node[] nodes) {
+        double[] lons = new double[nodes.length];
+        for (int v = 0; v < nodes.length; v += 1) {
+            lons[v] = nodes[v].lon();
+        }
+        return lons;
+    }
+
+    private static LongIntHashMap indexNodes(Node[] nodes) {
+        LongIntHashMap indices = new LongIntHashMap(nodes.length);
+        for (int v = 0; v < nodes.length; v += 1) {
+            indices.put(nodes[v].id(), v);
+        }
+        return indices;
+    }
+
+    private static LongIntHashMap indexEdges(int[] offsets, int[] targets, double[] weights) {
+        LongIntHashMap edgeIndices = new LongIntHashMap(targets.length);
+        for (int v = 0; v + 1 < offsets.length; v += 1) {
+            for (int e = offsets[v]; e < offsets[v + 1]; e += 1) {
+                long key = pack(v, targets[e]);
+                int existing = edgeIndices.get(key, -1);
+                if (existing < 0 || weights[existing] > weights[e]) {
+                    edgeIndices.put(key, e);
+                }
+            }
+        }
+        return edgeIndices;
+    }
+
+    private static int nameIdOf(WeightedEdge<Node> edge) {
+        if (edge instanceof StreetEdge) {
+            return ((StreetEdge) edge).nameId();
+        }
+        return NameDictionary.global().intern(edge.name());
+    }
+
+    @Override
+    public int numVertices() {
+        return nodes.length;
+    }
+
+    @Override
+    public int indexOf(Node v) {
+        return indexOf(v.id());
+    }
+
+    /** Returns the index of the node with the given OSM id, or -1 if there is no such node. */
+    public int indexOf(long id) {
+        return indices.get(id, -1);
+    }
+
+    @Override
+    public Node vertexAt(int index) {
+        return nodes[index];
+    }
+
+    @Override
+    public int outDegree(int v) {
+        return offsets[v + 1] - offsets[v];
+    }
+
+    @Override
+    public int neighbor(int v, int i) {
+        return targets[offsets[v] + i];
+    }
+
+    @Override
+    public double neighborWeight(int v, int i) {
+        return weights[offsets[v] + i];
+    }
+
+    /** Returns the id of the way name of the i-th outgoing edge from v, or -1 if it has none. */
+    public int neighborNameId(int v, int i) {
+        return nameIds[offsets[v] + i];
+    }
+
+    /** Returns the way name with the given id, or null if the id is -1. */
+    public String name(int nameId) {
+        return NameDictionary.global().name(nameId);
+    }
+
+    /** Returns the id of the i-th outgoing edge from v. */
+    @Override
+    public int edgeId(int v, int i) {
+        return offsets[v] + i;
+    }
+
+    /**
+     * Returns the id of the edge from the node with index from to the node with index to, or -1
+     * if there is no such edge. If there are several, returns the lightest one.
+     */
+    public int edgeIndex(int from, int to) {
+        return edgeIndices.get(pack(from, to), -1);
+    }
+
+    /** Returns the index of the node at the end of the edge with the given id. */
+    public int edgeTarget(int e) {
+        return targets[e];
+    }
+
+    public double edgeWeight(int e) {
+        return weights[e];
+    }
+
+    /** Returns the id of the way name of the edge with the given id, or -1 if it has none. */
+    public int edgeNameId(int e) {
+        return nameIds[e];
+    }
+
+    private static long pack(int from, int to) {
+        return ((long) from << 32) | (to & 0xffffffffL);
+    }
+
+    /** Returns the total number of (directed) edges in this graph. */
+    public int numEdges() {
+        return targets.length;
+    }
+
+    @Override
+    public double estimatedDistanceToGoal(int v, int goal) {
+        return greatCircleDistance(lats[v], lons[v], lats[goal], lons[goal]);
+    }
+
+    @Override
+    public List<WeightedEdge<Node>> neighbors(Node v) {
+        int index = indexOf(v);
+        if (index < 0) {
+            return List.of();
+        }
+        List<WeightedEdge<Node>> edges = new ArrayList<>(outDegree(index));
+        for (int e = offsets[index]; e < offsets[index + 1]; e += 1) {
+            edges.add(new StreetEdge(v, nodes[targets[e]], weights[e], nameIds[e]));
+        }
+        return edges;
+    }
+}
@@ -0,0 +1,316 @@
+package huskymaps.graph;
+
+import graphpathfinding.LandmarkGraph;
+import huskymaps.utils.NameDictionary;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes a binary snapshot of a loaded {@link StreetMapGraph}, so that the OSM data
+ * doesn't have to be decompressed and parsed again on every startup.
+ *
+ * A snapshot is laid out as follows, with all numbers big-endian:
+ * <pre>
+ *     header:  int MAGIC, int VERSION, long source stamp, int #names, int #nodes, int #edges
+ *     names:   for each name, int byte length followed by its UTF-8 bytes
+ *     nodes:   long[#nodes] ids, double[#nodes] lats, double[#nodes] lons,
+ *              int[#nodes] name ids, int[#nodes] importances
+ *     edges:   int[#nodes + 1] offsets, int[#edges] targets, double[#edges] weights,
+ *              int[#edges] name ids
+ *     landmarks: int #landmarks, int[#landmarks] node indices,
+ *              double[#nodes * #landmarks] distances from, double[#nodes * #landmarks] distances to
+ * </pre>
+ * Edges are stored in CSR form, like in {@link CompactStreetMapGraph}: the edges out of the node
+ * at index v are the ones in positions offsets[v] through offsets[v + 1] - 1. A name id of -1
+ * means no name. The landmark distances are those of {@link StreetMapGraph#landmarks()}, in
+ * the same interleaved order as in {@link LandmarkGraph}, so that they don't have to be computed
+ * again either.
+ *
+ * The source stamp identifies the data the snapshot was made from (see
+ * {@link #sourceStamp(URL...)}); a snapshot whose stamp doesn't match is stale.
+ */
+public class GraphSnapshot {
+    private static final int MAGIC = 0x484D4753;  // "HMGS"
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4 + 4 + 4;
+
+    /**
+     * Returns a stamp identifying the current contents of the given sources, based on their sizes
+     * and last-modified times. Null sources (missing resources) are allowed.
+     */
+    public static long sourceStamp(URL... sources) throws IOException {
+        long stamp = 17;
+        for (URL source : sources) {
+            long length = -1;
+            long lastModified = -1;
+            if (source != null) {
+                URLConnection connection = source.openConnection();
+                length = connection.getContentLengthLong();
+                lastModified = connection.getLastModified();
+                connection.getInputStream().close();
+            }
+            stamp = 31 * (31 * stamp + length) + lastModified;
+        }
+        return stamp;
+    }
+
+    /** Returns true if the file at path is a readable snapshot made from sources with the given stamp. */
+    public static boolean isFresh(Path path, long sourceStamp) {
+        if (!Files.isRegularFile(path)) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining()) {
+                if (channel.read(header) < 0) {
+                    return false;
+                }
+            }
+            header.flip();
+            return header.getInt() == MAGIC && header.getInt() == VERSION && header.getLong() == sourceStamp;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Writes a snapshot of the given graph to path, replacing any existing file. The snapshot is
+     * written to a temporary file first, so readers never see a partially-written snapshot.
+     */
+    public static void write(StreetMapGraph graph, long sourceStamp, Path path) throws IOException {
+        CompactStreetMapGraph compact = graph.compact();
+        int numNodes = compact.numVertices();
+        int numEdges = compact.numEdges();
+
+        Map<String, Integer> nameToId = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        int[] nodeNameIds = new int[numNodes];
+        int[] edgeNameIds = new int[numEdges];
+        for (int v = 0, e = 0; v < numNodes; v += 1) {
+            nodeNameIds[v] = nameId(compact.vertexAt(v).name(), nameToId, names);
+            for (int i = 0; i < compact.outDegree(v); i += 1, e += 1) {
+                edgeNameIds[e] = nameId(compact.name(compact.neighborNameId(v, i)), nameToId, names);
+            }
+        }
+
+        Path absolute = path.toAbsolutePath();
+        Files.createDirectories(absolute.getParent());
+        Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(sourceStamp);
+            out.writeInt(names.size());
+            out.writeInt(numNodes);
+            out.writeInt(numEdges);
+
+            for (String name : names) {
+                byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+
+            for (int v = 0; v < numNodes; v += 1) {
+                out.writeLong(compact.vertexAt(v).id());
+            }
+            for (int v = 0; v < numNodes; v += 1) {
+                out.writeDouble(compact.vertexAt(v).lat());
+            }
+            for (int v = 0; v < numNodes; v += 1) {
+                out.writeDouble(compact.vertexAt(v).lon());
+            }
+            for (int v = 0; v < numNodes; v += 1) {
+                out.writeInt(nodeNameIds[v]);
+            }
+            for (int v = 0; v < numNodes; v += 1) {
+                out.writeInt(compact.vertexAt(v).importance());
+            }
+
+            int offset = 0;
+            for (int v = 0; v < numNodes; v += 1) {
+                out.writeInt(offset);
+                offset += compact.outDegree(v);
+            }
+            out.writeInt(offset);
+            for (int v = 0; v < numNodes; v += 1) {
+                for (int i = 0; i < compact.outDegree(v); i += 1) {
+                    out.writeInt(compact.neighbor(v, i));
+                }
+            }
+            for (int v = 0; v < numNodes; v += 1) {
+                for (int i = 0; i < compact.outDegree(v); i += 1) {
+                    out.writeDouble(compact.neighborWeight(v, i));
+                }
+            }
+            for (int e = 0; e < numEdges; e += 1) {
+                out.writeInt(edgeNameIds[e]);
+            }
+
+            LandmarkGraph<Node> landmarks = graph.landmarks();
+            out.writeInt(landmarks.numLandmarks());
+            for (int landmark : landmarks.landmarks()) {
+                out.writeInt(landmark);
+            }
+            for (int v = 0; v < numNodes; v += 1) {
+                for (int i = 0; i < landmarks.numLandmarks(); i += 1) {
+                    out.writeDouble(landmarks.distanceFromLandmark(i, v));
+                }
+            }
+            for (int v = 0; v < numNodes; v += 1) {
+                for (int i = 0; i < landmarks.numLandmarks(); i += 1) {
+                    out.writeDouble(landmarks.distanceToLandmark(i, v));
+                }
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static int nameId(String name, Map<String, Integer> nameToId, List<String> names) {
+        if (name == null) {
+            return -1;
+        }
+        return nameToId.computeIfAbsent(name, k -> {
+            names.add(k);
+            return names.size() - 1;
+        });
+    }
+
+    /**
+     * Reads the snapshot at path into a new StreetMapGraph. The snapshot's arrays become the
+     * graph's {@link CompactStreetMapGraph} and {@link LandmarkGraph} as they are, so no edge
+     * objects are created unless something asks for {@link StreetMapGraph#neighbors(Node)}, and
+     * no landmark distances are computed.
+     * @throws IOException if the file can't be read or isn't a complete snapshot in the current
+     *         format
+     */
+    public static StreetMapGraph read(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException(path + " is too large to be a graph snapshot");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IOException(path + " is not a graph snapshot in the current format");
+        }
+        buffer.getLong();
+        int numNames = buffer.getInt();
+        int numNodes = buffer.getInt();
+        int numEdges = buffer.getInt();
+        if (numNames < 0 || numNodes < 0 || numEdges < 0 || numNames > buffer.remaining() / Integer.BYTES) {
+            throw corrupt(path, "invalid counts");
+        }
+
+        // Maps the snapshot's name ids to ids in the global dictionary.
+        int[] nameIds = new int[numNames];
+        for (int i = 0; i < numNames; i += 1) {
+            int length = buffer.remaining() < Integer.BYTES ? -1 : buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) {
+                throw corrupt(path, "invalid name length");
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            nameIds[i] = NameDictionary.global().intern(new String(bytes, StandardCharsets.UTF_8));
+        }
+
+        long nodeBytes = (long) numNodes * (Long.BYTES + 2 * Double.BYTES + 2 * Integer.BYTES);
+        long edgeBytes = (long) (numNodes + 1) * Integer.BYTES
+                + (long) numEdges * (Integer.BYTES + Double.BYTES + Integer.BYTES);
+        if (nodeBytes + edgeBytes + Integer.BYTES > buffer.remaining()) {
+            throw corrupt(path, "expected " + (nodeBytes + edgeBytes) + " bytes of nodes and edges, but found "
+                    + buffer.remaining());
+        }
+        long[] ids = new long[numNodes];
+        buffer.asLongBuffer().get(ids);
+        skip(buffer, Long.BYTES * numNodes);
+        double[] lats = readDoubles(buffer, numNodes);
+        double[] lons = readDoubles(buffer, numNodes);
+        int[] nodeNameIds = readInts(buffer, numNodes);
+        int[] importances = readInts(buffer, numNodes);
+        int[] offsets = readInts(buffer, numNodes + 1);
+        int[] targets = readInts(buffer, numEdges);
+        double[] weights = readDoubles(buffer, numEdges);
+        int[] edgeNameIds = readInts(buffer, numEdges);
+        int numLandmarks = buffer.getInt();
+        long landmarkBytes = (long) numLandmarks * Integer.BYTES + 2L * numNodes * numLandmarks * Double.BYTES;
+        if (numLandmarks < 0 || numLandmarks > numNodes || landmarkBytes != buffer.remaining()) {
+            throw corrupt(path, "invalid landmarks");
+        }
+        int[] landmarks = readInts(buffer, numLandmarks);
+        double[] fromLandmark = readDoubles(buffer, numNodes * numLandmarks);
+        double[] toLandmark = readDoubles(buffer, numNodes * numLandmarks);
+
+        if (offsets[0] != 0 || offsets[numNodes] != numEdges) {
+            throw corrupt(path, "invalid edge offsets");
+        }
+        Node[] nodes = new Node[numNodes];
+        for (int v = 0; v < numNodes; v += 1) {
+            if (offsets[v] > offsets[v + 1]) {
+                throw corrupt(path, "invalid edge offsets");
+            }
+            nodes[v] = new Node(ids[v], lats[v], lons[v], nameId(path, nameIds, nodeNameIds[v]), importances[v]);
+        }
+        for (int e = 0; e < numEdges; e += 1) {
+            if (targets[e] < 0 || targets[e] >= numNodes) {
+                throw corrupt(path, "invalid edge target");
+            }
+            edgeNameIds[e] = nameId(path, nameIds, edgeNameIds[e]);
+        }
+        for (int landmark : landmarks) {
+            if (landmark < 0 || landmark >= numNodes) {
+                throw corrupt(path, "invalid landmark " + landmark);
+            }
+        }
+        CompactStreetMapGraph compact = new CompactStreetMapGraph(nodes, offsets, targets, weights, edgeNameIds);
+        return new StreetMapGraph(compact, new LandmarkGraph<>(compact, landmarks, fromLandmark, toLandmark));
+    }
+
+    private static int nameId(Path path, int[] nameIds, int id) throws IOException {
+        if (id < -1 || id >= nameIds.length) {
+            throw corrupt(path, "invalid name id " + id);
+        }
+        return id < 0 ? NameDictionary.NO_NAME : nameIds[id];
+    }
+
+    private static IOException corrupt(Path path, String problem) {
+        return new IOException(path + " is a corrupt graph snapshot: " + problem);
+    }
+
+    private static int[] readInts(ByteBuffer buffer, int length) {
+        int[] result = new int[length];
+        buffer.asIntBuffer().get(result);
+        skip(buffer, Integer.BYTES * length);
+        return result;
+    }
+
+    private static double[] readDoubles(ByteBuffer buffer, int length) {
+        double[] result = new double[length];
+        buffer.asDoubleBuffer().get(result);
+        skip(buffer, Double.BYTES * length);
+        return result;
+    }
+
+    private static void skip(ByteBuffer buffer, int bytes) {
+        buffer.position(buffer.position() + bytes);
+    }
+}
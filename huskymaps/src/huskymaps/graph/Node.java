@@ -1,17 +1,27 @@
 package huskymaps.graph;
 
-/** Vertex representation for the graph. */
+import huskymaps.utils.NameDictionary;
+
+/**
+ * Vertex representation for the graph. Names are stored as ids in the global
+ * {@link NameDictionary}.
+ */
 public class Node {
     private final double lat;
     private final double lon;
-    private final String name;
+    /** Transient so that serializing a node doesn't expose the id in place of its name. */
+    private final transient int nameId;
     private final long id;
     private final int importance;
 
     protected Node(long id, double lat, double lon, String name, int importance) {
+        this(id, lat, lon, NameDictionary.global().intern(name), importance);
+    }
+
+    protected Node(long id, double lat, double lon, int nameId, int importance) {
         this.lat = lat;
         this.lon = lon;
-        this.name = name;
+        this.nameId = nameId;
         this.id = id;
         this.importance = importance;
     }
@@ -25,7 +35,12 @@ public class Node {
     }
 
     public String name() {
-        return name;
+        return NameDictionary.global().name(nameId);
+    }
+
+    /** Returns the id of this node's name in the global NameDictionary, or NO_NAME if it has none. */
+    public int nameId() {
+        return nameId;
     }
 
     public long id() {
@@ -96,7 +111,7 @@ public class Node {
                 "id=" + id +
                 ", lat=" + lat +
                 ", lon=" + lon +
-                ", name='" + name + '\'' +
+                ", name='" + name() + '\'' +
                 ", importance=" + importance +
                 '}';
     }
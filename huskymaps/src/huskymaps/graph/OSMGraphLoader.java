@@ -2,6 +2,7 @@ package huskymaps.graph;
 
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
+import huskymaps.utils.NameDictionary;
 import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
 import org.xml.sax.helpers.DefaultHandler;
@@ -16,6 +17,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayDeque;
 import java.util.HashMap;
 import java.util.Map;
@@ -41,7 +43,7 @@ import java.util.zip.GZIPInputStream;
 class OSMGraphLoader extends DefaultHandler {
 
     /** Only allow for non-service roads; this prevents going on pedestrian streets. */
-    private static final Set<String> ALLOWED_HIGHWAY_TYPES = Set.of(
+    static final Set<String> ALLOWED_HIGHWAY_TYPES = Set.of(
             "motorway", "trunk", "primary", "secondary", "tertiary", "unclassified", "residential",
             "living_street", "motorway_link", "trunk_link", "primary_link", "secondary_link",
             "tertiary_link"
@@ -70,7 +72,7 @@ class OSMGraphLoader extends DefaultHandler {
      * @param s Input string.
      * @return Cleaned string.
      */
-    private static String normalize(String s) {
+    static String normalize(String s) {
         return s.strip()
                 .replace('“', '"')
                 .replace('”', '"')
@@ -99,14 +101,7 @@ class OSMGraphLoader extends DefaultHandler {
         try {
             SAXParserFactory factory = SAXParserFactory.newInstance();
             SAXParser saxParser = factory.newSAXParser();
-            Map<String, Integer> places;
-            try {
-                Reader fileReader = new InputStreamReader(placesStream);
-                places = new Gson().fromJson(fileReader, new TypeToken<HashMap<String, Integer>>() {}.getType());
-            } catch (NullPointerException e) {
-                e.printStackTrace();
-                places = Map.of();
-            }
+            Map<String, Integer> places = readPlaces(placesStream);
             OSMGraphLoader handler = new OSMGraphLoader(g, places);
             saxParser.parse(new GZIPInputStream(osmGzipStream), handler);
         } catch (ParserConfigurationException | SAXException | IOException e) {
@@ -114,6 +109,17 @@ class OSMGraphLoader extends DefaultHandler {
         }
     }
 
+    /** Reads the importance of each place name from a JSON object, or returns no places if it can't. */
+    static Map<String, Integer> readPlaces(InputStream placesStream) {
+        try {
+            Reader fileReader = new InputStreamReader(placesStream, StandardCharsets.UTF_8);
+            return new Gson().fromJson(fileReader, new TypeToken<HashMap<String, Integer>>() {}.getType());
+        } catch (NullPointerException e) {
+            e.printStackTrace();
+            return Map.of();
+        }
+    }
+
     /**
      * Called at the beginning of an element.
      * @param uri The Namespace URI, or the empty string if the element has no Namespace URI or
@@ -169,13 +175,14 @@ class OSMGraphLoader extends DefaultHandler {
         if (qName.equals("way")) {
             /* We are done looking at a way. (We finished looking at the nodes, speeds, etc...)*/
             if (validWay && !nodePath.isEmpty()) {
+                int wayNameId = NameDictionary.global().intern(wayName);
                 Node from = this.nodes.get(nodePath.remove());
                 assert from != null;
                 while (!nodePath.isEmpty()) {
                     Node to = this.nodes.get(nodePath.remove());
                     assert to != null;
-                    g.addWeightedEdge(from, to, wayName);
-                    g.addWeightedEdge(to, from, wayName);
+                    g.addWeightedEdge(from, to, wayNameId);
+                    g.addWeightedEdge(to, from, wayNameId);
                     from = to;
                 }
             }
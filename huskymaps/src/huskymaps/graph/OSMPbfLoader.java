@@ -0,0 +1,544 @@
+package huskymaps.graph;
+
+import huskymaps.utils.LongIntHashMap;
+import huskymaps.utils.NameDictionary;
+import huskymaps.utils.ProtobufReader;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Loads an OSM PBF file into a graph, producing the same nodes and edges as
+ * {@link OSMStreamLoader} does for the same data in XML.
+ *
+ * A PBF file is a sequence of independently compressed blobs, each holding a block of nodes or
+ * ways. The calling thread reads the blobs and hands them to a pool of threads, one per core,
+ * which inflate them and decode their protocol buffers with a {@link ProtobufReader} into flat
+ * arrays of ids, coordinates, and names. The decoded blocks are then added to the graph on the
+ * calling thread, in the order they appear in the file, so ways always see the nodes before them
+ * and the graph itself is never touched by more than one thread.
+ *
+ * Only zlib-compressed and uncompressed blobs are supported, which is what every common writer
+ * produces by default. As with OSMStreamLoader, edges to nodes that are missing from the file are
+ * skipped.
+ *
+ * See the <a href="https://wiki.openstreetmap.org/wiki/PBF_Format">PBF format</a>.
+ */
+class OSMPbfLoader {
+    /** The largest BlobHeader and Blob that readers are required to accept. */
+    private static final int MAX_HEADER_SIZE = 64 * 1024;
+    private static final int MAX_BLOB_SIZE = 32 * 1024 * 1024;
+    private static final Set<String> SUPPORTED_FEATURES = Set.of("OsmSchema-V0.6", "DenseNodes");
+    /** How many blocks may be decoded ahead of the one being added, per thread. */
+    private static final int BLOCKS_IN_FLIGHT_PER_THREAD = 2;
+
+    private static final String NAME = "name";
+    private static final String HIGHWAY = "highway";
+
+    private final StreetMapGraph g;
+    private final Map<String, Integer> places;
+
+    /** The nodes read so far, and the index in that array of the node with each OSM id. */
+    private Node[] nodes = new Node[1024];
+    private int numNodes;
+    private final LongIntHashMap indices = new LongIntHashMap(1024);
+
+    private OSMPbfLoader(StreetMapGraph g, Map<String, Integer> places) {
+        this.g = g;
+        this.places = places;
+    }
+
+    public static void populateGraph(StreetMapGraph g, File osmPbfFile, InputStream placesStream) {
+        try (InputStream osmPbfStream = new FileInputStream(osmPbfFile)) {
+            populateGraph(g, osmPbfStream, placesStream);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /** Initializes a graph from an OSM PBF file. */
+    public static void populateGraph(StreetMapGraph g, InputStream osmPbfStream, InputStream placesStream) {
+        populateGraph(g, osmPbfStream, placesStream, Runtime.getRuntime().availableProcessors());
+    }
+
+    /** Initializes a graph from an OSM PBF file, decoding its blocks on the given number of threads. */
+    static void populateGraph(StreetMapGraph g, InputStream osmPbfStream, InputStream placesStream,
+                              int numThreads) {
+        try {
+            read(g, osmPbfStream, OSMGraphLoader.readPlaces(placesStream), numThreads);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Adds the nodes and ways of an OSM PBF file to a graph, decoding its blocks on the given
+     * number of threads. The graph keeps whatever was added before any error.
+     * @throws IOException if the file can't be read, or is truncated, corrupt or unsupported
+     */
+    static void read(StreetMapGraph g, InputStream osmPbfStream, Map<String, Integer> places, int numThreads)
+            throws IOException {
+        ExecutorService pool = Executors.newFixedThreadPool(numThreads, task -> {
+            Thread thread = new Thread(task, "osm-pbf-decoder");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(osmPbfStream))) {
+            new OSMPbfLoader(g, places).load(in, pool, numThreads * BLOCKS_IN_FLIGHT_PER_THREAD);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void load(DataInputStream in, ExecutorService pool, int maxInFlight) throws IOException {
+        Deque<Future<Block>> pending = new ArrayDeque<>();
+        boolean seenHeader = false;
+        int first;
+        while ((first = in.read()) >= 0) {
+            int headerSize = (first << 24) | (in.readUnsignedByte() << 16) | in.readUnsignedShort();
+            if (headerSize < 0 || headerSize > MAX_HEADER_SIZE) {
+                throw new IOException("Invalid OSM PBF blob header size " + headerSize);
+            }
+            byte[] header = new byte[headerSize];
+            in.readFully(header);
+            String type = null;
+            long dataSize = -1;
+            ProtobufReader blobHeader = new ProtobufReader(header);
+            while (blobHeader.hasNext()) {
+                int field = blobHeader.nextField();
+                if (field == 1) {
+                    type = blobHeader.readString();
+                } else if (field == 3) {
+                    dataSize = blobHeader.readVarint();
+                } else {
+                    blobHeader.skipField();
+                }
+            }
+            if (type == null || dataSize < 0 || dataSize > MAX_BLOB_SIZE) {
+                throw new IOException("Invalid OSM PBF blob header");
+            }
+            byte[] blob = new byte[(int) dataSize];
+            in.readFully(blob);
+
+            if (type.equals("OSMHeader")) {
+                checkHeader(inflate(blob));
+                seenHeader = true;
+            } else if (type.equals("OSMData")) {
+                if (!seenHeader) {
+                    throw new IOException("OSM PBF data before its header");
+                }
+                pending.add(pool.submit(() -> decode(inflate(blob))));
+                if (pending.size() >= maxInFlight) {
+                    add(await(pending.remove()));
+                }
+            }
+            // Other types of blobs are allowed, and skipped.
+        }
+        while (!pending.isEmpty()) {
+            add(await(pending.remove()));
+        }
+    }
+
+    /** Adds the nodes and ways of the given block to the graph. */
+    private void add(Block block) {
+        for (int i = 0; i < block.numNodes; i += 1) {
+            Node.Builder builder = g.nodeBuilder()
+                    .setId(block.nodeIds[i])
+                    .setLat(block.nodeLats[i])
+                    .setLon(block.nodeLons[i]);
+            String nodeName = block.nodeNames[i];
+            if (nodeName != null) {
+                builder.setName(nodeName).setImportance(places.getOrDefault(nodeName, 0));
+            }
+            Node node = builder.createNode();
+            if (numNodes == nodes.length) {
+                nodes = Arrays.copyOf(nodes, numNodes * 2);
+            }
+            nodes[numNodes] = node;
+            indices.put(node.id(), numNodes);
+            numNodes += 1;
+            g.addNode(node);
+        }
+
+        int start = 0;
+        for (int i = 0; i < block.numWays; i += 1) {
+            int end = block.wayEnds[i];
+            int wayNameId = NameDictionary.global().intern(block.wayNames[i]);
+            Node from = node(block.wayRefs[start]);
+            for (int j = start + 1; j < end; j += 1) {
+                Node to = node(block.wayRefs[j]);
+                if (from != null && to != null) {
+                    g.addWeightedEdge(from, to, wayNameId);
+                    g.addWeightedEdge(to, from, wayNameId);
+                }
+                from = to;
+            }
+            start = end;
+        }
+    }
+
+    /** Returns the node with the given OSM id, or null if there isn't one. */
+    private Node node(long id) {
+        int index = indices.get(id, -1);
+        return index < 0 ? null : nodes[index];
+    }
+
+    private static Block await(Future<Block> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException("Interrupted while decoding OSM PBF data");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Failed to decode OSM PBF data", e.getCause());
+        }
+    }
+
+    /** Checks that reading the file needs no features beyond the ones supported here. */
+    private static void checkHeader(byte[] data) throws IOException {
+        ProtobufReader header = new ProtobufReader(data);
+        while (header.hasNext()) {
+            if (header.nextField() == 4) {
+                String feature = header.readString();
+                if (!SUPPORTED_FEATURES.contains(feature)) {
+                    throw new IOException("Unsupported OSM PBF feature " + feature);
+                }
+            } else {
+                header.skipField();
+            }
+        }
+    }
+
+    /** Returns the contents of a Blob message. */
+    private static byte[] inflate(byte[] blob) throws IOException {
+        ProtobufReader reader = new ProtobufReader(blob);
+        byte[] raw = null;
+        byte[] zlibData = null;
+        long rawSize = -1;
+        while (reader.hasNext()) {
+            int field = reader.nextField();
+            if (field == 1) {
+                raw = reader.readBytes();
+            } else if (field == 2) {
+                rawSize = reader.readVarint();
+            } else if (field == 3) {
+                zlibData = reader.readBytes();
+            } else if (field <= 7) {
+                throw new IOException("Unsupported OSM PBF blob compression (field " + field + ")");
+            } else {
+                reader.skipField();
+            }
+        }
+        if (raw != null) {
+            return raw;
+        } else if (zlibData == null || rawSize < 0 || rawSize > MAX_BLOB_SIZE) {
+            throw new IOException("Invalid OSM PBF blob");
+        }
+        byte[] data = new byte[(int) rawSize];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(zlibData);
+            int length = 0;
+            while (length < data.length && !inflater.finished()) {
+                int n = inflater.inflate(data, length, data.length - length);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += n;
+            }
+            if (length != data.length) {
+                throw new IOException("OSM PBF blob is shorter than its raw size");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Invalid zlib data in OSM PBF blob", e);
+        } finally {
+            inflater.end();
+        }
+        return data;
+    }
+
+    /** Decodes a PrimitiveBlock message. */
+    private static Block decode(byte[] data) throws IOException {
+        // The string table and coordinate offsets may come after the groups that use them.
+        List<ProtobufReader> groups = new ArrayList<>();
+        Block block = new Block();
+        ProtobufReader reader = new ProtobufReader(data);
+        while (reader.hasNext()) {
+            int field = reader.nextField();
+            if (field == 1) {
+                block.strings = readStringTable(reader.readMessage());
+            } else if (field == 2) {
+                groups.add(reader.readMessage());
+            } else if (field == 17) {
+                block.granularity = reader.readVarint();
+            } else if (field == 19) {
+                block.latOffset = reader.readVarint();
+            } else if (field == 20) {
+                block.lonOffset = reader.readVarint();
+            } else {
+                reader.skipField();
+            }
+        }
+        for (ProtobufReader group : groups) {
+            while (group.hasNext()) {
+                int field = group.nextField();
+                if (field == 1) {
+                    block.readNode(group.readMessage());
+                } else if (field == 2) {
+                    block.readDenseNodes(group.readMessage());
+                } else if (field == 3) {
+                    block.readWay(group.readMessage());
+                } else {
+                    group.skipField();
+                }
+            }
+        }
+        return block;
+    }
+
+    private static String[] readStringTable(ProtobufReader reader) throws IOException {
+        List<String> strings = new ArrayList<>();
+        while (reader.hasNext()) {
+            if (reader.nextField() == 1) {
+                strings.add(reader.readString());
+            } else {
+                reader.skipField();
+            }
+        }
+        return strings.toArray(new String[0]);
+    }
+
+    /**
+     * Reads a repeated integer field, which may be packed or not, onto the end of list. Values are
+     * zigzag-decoded if signed, and are added to the value before them if delta-coded.
+     */
+    private static void readLongs(ProtobufReader reader, boolean signed, boolean delta, LongList list)
+            throws IOException {
+        if (reader.wireType() != ProtobufReader.LENGTH_DELIMITED) {
+            readLong(reader, signed, delta, list);
+            return;
+        }
+        ProtobufReader packed = reader.readMessage();
+        while (packed.hasNext()) {
+            readLong(packed, signed, delta, list);
+        }
+    }
+
+    private static void readLong(ProtobufReader reader, boolean signed, boolean delta, LongList list)
+            throws IOException {
+        long value = signed ? reader.readSignedVarint() : reader.readVarint();
+        if (delta && list.size > 0) {
+            value += list.get(list.size - 1);
+        }
+        list.add(value);
+    }
+
+    /** A growable array of longs, reused for each repeated field. */
+    private static class LongList {
+        private long[] values = new long[16];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size] = value;
+            size += 1;
+        }
+
+        long get(int i) {
+            return values[i];
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+
+    /** The nodes and ways decoded from one PrimitiveBlock, in flat arrays. */
+    private static class Block {
+        private String[] strings = new String[0];
+        private long granularity = 100;
+        private long latOffset;
+        private long lonOffset;
+
+        private int numNodes;
+        private long[] nodeIds = new long[0];
+        private double[] nodeLats = new double[0];
+        private double[] nodeLons = new double[0];
+        /** The normalized name of each node, or null if it has none. */
+        private String[] nodeNames = new String[0];
+
+        /** The highways among the ways; the refs of way i end before wayRefs[wayEnds[i]]. */
+        private int numWays;
+        private long[] wayRefs = new long[0];
+        private int[] wayEnds = new int[0];
+        private String[] wayNames = new String[0];
+
+        /** Scratch space for reading repeated fields. */
+        private final LongList ids = new LongList();
+        private final LongList lats = new LongList();
+        private final LongList lons = new LongList();
+        private final LongList keys = new LongList();
+        private final LongList values = new LongList();
+
+        private void readNode(ProtobufReader reader) throws IOException {
+            long id = 0;
+            long lat = 0;
+            long lon = 0;
+            keys.clear();
+            values.clear();
+            while (reader.hasNext()) {
+                int field = reader.nextField();
+                if (field == 1) {
+                    id = reader.readSignedVarint();
+                } else if (field == 2) {
+                    readLongs(reader, false, false, keys);
+                } else if (field == 3) {
+                    readLongs(reader, false, false, values);
+                } else if (field == 8) {
+                    lat = reader.readSignedVarint();
+                } else if (field == 9) {
+                    lon = reader.readSignedVarint();
+                } else {
+                    reader.skipField();
+                }
+            }
+            String nodeName = null;
+            for (int i = 0; i < Math.min(keys.size, values.size); i += 1) {
+                if (string(keys.get(i)).equals(NAME)) {
+                    nodeName = OSMGraphLoader.normalize(string(values.get(i)));
+                }
+            }
+            addNode(id, lat, lon, nodeName);
+        }
+
+        private void readDenseNodes(ProtobufReader reader) throws IOException {
+            ids.clear();
+            lats.clear();
+            lons.clear();
+            keys.clear();
+            while (reader.hasNext()) {
+                int field = reader.nextField();
+                if (field == 1) {
+                    readLongs(reader, true, true, ids);
+                } else if (field == 8) {
+                    readLongs(reader, true, true, lats);
+                } else if (field == 9) {
+                    readLongs(reader, true, true, lons);
+                } else if (field == 10) {
+                    readLongs(reader, false, false, keys);
+                } else {
+                    reader.skipField();
+                }
+            }
+            if (lats.size != ids.size || lons.size != ids.size) {
+                throw new IOException("Malformed OSM PBF dense nodes");
+            }
+            // Each node's tags are pairs of key and value string ids, followed by a 0. If no node
+            // in the block has tags, there are no keys at all.
+            int k = 0;
+            for (int i = 0; i < ids.size; i += 1) {
+                String nodeName = null;
+                while (k + 1 < keys.size && keys.get(k) != 0) {
+                    if (string(keys.get(k)).equals(NAME)) {
+                        nodeName = OSMGraphLoader.normalize(string(keys.get(k + 1)));
+                    }
+                    k += 2;
+                }
+                k += 1;
+                addNode(ids.get(i), lats.get(i), lons.get(i), nodeName);
+            }
+        }
+
+        private void readWay(ProtobufReader reader) throws IOException {
+            keys.clear();
+            values.clear();
+            ids.clear();
+            while (reader.hasNext()) {
+                int field = reader.nextField();
+                if (field == 2) {
+                    readLongs(reader, false, false, keys);
+                } else if (field == 3) {
+                    readLongs(reader, false, false, values);
+                } else if (field == 8) {
+                    readLongs(reader, true, true, ids);
+                } else {
+                    reader.skipField();
+                }
+            }
+            boolean validWay = false;
+            String wayName = "";
+            for (int i = 0; i < Math.min(keys.size, values.size); i += 1) {
+                String key = string(keys.get(i));
+                if (key.equals(HIGHWAY)) {
+                    validWay = OSMGraphLoader.ALLOWED_HIGHWAY_TYPES.contains(string(values.get(i)));
+                } else if (key.equals(NAME)) {
+                    wayName = string(values.get(i));
+                }
+            }
+            if (!validWay || ids.size == 0) {
+                return;
+            }
+            int start = numWays == 0 ? 0 : wayEnds[numWays - 1];
+            if (numWays == wayEnds.length) {
+                wayEnds = Arrays.copyOf(wayEnds, Math.max(16, numWays * 2));
+                wayNames = Arrays.copyOf(wayNames, wayEnds.length);
+            }
+            if (start + ids.size > wayRefs.length) {
+                wayRefs = Arrays.copyOf(wayRefs, Math.max(start + ids.size, wayRefs.length * 2));
+            }
+            System.arraycopy(ids.values, 0, wayRefs, start, ids.size);
+            wayEnds[numWays] = start + ids.size;
+            wayNames[numWays] = wayName;
+            numWays += 1;
+        }
+
+        /**
+         * Adds a node with coordinates in units of the granularity. Its degrees are computed by
+         * dividing a whole number of nanodegrees by an exact power of ten, which gives the same
+         * double as parsing the coordinate's decimal form in XML.
+         */
+        private void addNode(long id, long lat, long lon, String nodeName) {
+            if (numNodes == nodeIds.length) {
+                int capacity = Math.max(16, numNodes * 2);
+                nodeIds = Arrays.copyOf(nodeIds, capacity);
+                nodeLats = Arrays.copyOf(nodeLats, capacity);
+                nodeLons = Arrays.copyOf(nodeLons, capacity);
+                nodeNames = Arrays.copyOf(nodeNames, capacity);
+            }
+            nodeIds[numNodes] = id;
+            nodeLats[numNodes] = (latOffset + granularity * lat) / 1e9;
+            nodeLons[numNodes] = (lonOffset + granularity * lon) / 1e9;
+            nodeNames[numNodes] = nodeName;
+            numNodes += 1;
+        }
+
+        private String string(long index) throws IOException {
+            if (index < 0 || index >= strings.length) {
+                throw new IOException("Invalid OSM PBF string table index " + index);
+            }
+            return strings[(int) index];
+        }
+    }
+}
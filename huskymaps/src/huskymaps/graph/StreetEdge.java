@@ -0,0 +1,24 @@
+package huskymaps.graph;
+
+import graphpathfinding.WeightedEdge;
+import huskymaps.utils.NameDictionary;
+
+/** A WeightedEdge whose name is stored as an id in the global {@link NameDictionary}. */
+class StreetEdge extends WeightedEdge<Node> {
+    private final int nameId;
+
+    StreetEdge(Node from, Node to, double weight, int nameId) {
+        super(from, to, weight);
+        this.nameId = nameId;
+    }
+
+    @Override
+    public String name() {
+        return NameDictionary.global().name(nameId);
+    }
+
+    /** Returns the id of this edge's name, or NO_NAME if it has none. */
+    int nameId() {
+        return nameId;
+    }
+}
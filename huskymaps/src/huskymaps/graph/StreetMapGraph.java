@@ -1,51 +1,139 @@
 package huskymaps.graph;
 
 import graphpathfinding.AStarGraph;
+import graphpathfinding.LandmarkGraph;
 import graphpathfinding.WeightedEdge;
+import huskymaps.utils.NameDictionary;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import static huskymaps.utils.Constants.NUM_LANDMARKS;
 import static huskymaps.utils.Spatial.greatCircleDistance;
 
 public class StreetMapGraph implements AStarGraph<Node> {
     protected Map<Node, Set<WeightedEdge<Node>>> neighbors = new HashMap<>();
     protected List<Node> nodes = new ArrayList<>();
+    private CompactStreetMapGraph compact;
+    private LandmarkGraph<Node> landmarks;
+    /**
+     * True if the edges are stored only in compact, as when read from a snapshot, and the
+     * neighbors map is empty until the graph is changed.
+     */
+    private boolean edgesOnlyInCompact;
 
-    /** Creates a new StreetMapGraph from the data in the specified resources. */
+    public StreetMapGraph() {
+    }
+
+    /**
+     * Creates a graph of the nodes and edges of the given compact graph, without copying its
+     * edges, and with the given landmarks over it if they aren't null.
+     */
+    StreetMapGraph(CompactStreetMapGraph compact, LandmarkGraph<Node> landmarks) {
+        this.nodes = new ArrayList<>(compact.numVertices());
+        for (int v = 0; v < compact.numVertices(); v += 1) {
+            nodes.add(compact.vertexAt(v));
+        }
+        this.compact = compact;
+        this.landmarks = landmarks;
+        this.edgesOnlyInCompact = true;
+    }
+
+    /**
+     * Creates a new StreetMapGraph from the data in the specified resources. The OSM data is read
+     * as PBF if its name ends in ".pbf", and as gzipped XML otherwise.
+     */
     public static StreetMapGraph fromResources(String osmGzipResourceName, String placesResourceName) {
         StreetMapGraph graph = new StreetMapGraph();
-        OSMGraphLoader.populateGraph(graph,
-            StreetMapGraph.class.getResourceAsStream(osmGzipResourceName),
-            StreetMapGraph.class.getResourceAsStream(placesResourceName)
-        );
+        InputStream osm = StreetMapGraph.class.getResourceAsStream(osmGzipResourceName);
+        InputStream places = StreetMapGraph.class.getResourceAsStream(placesResourceName);
+        if (isPbf(osmGzipResourceName)) {
+            OSMPbfLoader.populateGraph(graph, osm, places);
+        } else {
+            OSMStreamLoader.populateGraph(graph, osm, places);
+        }
+        graph.compact();
         return graph;
     }
 
-    /** Creates a new StreetMapGraph from the data in the specified file and resource. */
+    /**
+     * Creates a new StreetMapGraph from the data in the specified resources, reading it from the
+     * {@link GraphSnapshot} at snapshotPath instead if that snapshot was made from the current
+     * versions of the resources. Otherwise, loads the resources and (re)writes the snapshot.
+     */
+    public static StreetMapGraph fromResourcesWithSnapshot(String osmGzipResourceName, String placesResourceName,
+                                                           Path snapshotPath) {
+        long stamp;
+        try {
+            stamp = GraphSnapshot.sourceStamp(
+                StreetMapGraph.class.getResource(osmGzipResourceName),
+                StreetMapGraph.class.getResource(placesResourceName)
+            );
+        } catch (IOException e) {
+            e.printStackTrace();
+            return fromResources(osmGzipResourceName, placesResourceName);
+        }
+
+        if (GraphSnapshot.isFresh(snapshotPath, stamp)) {
+            try {
+                return GraphSnapshot.read(snapshotPath);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        StreetMapGraph graph = fromResources(osmGzipResourceName, placesResourceName);
+        try {
+            GraphSnapshot.write(graph, stamp, snapshotPath);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return graph;
+    }
+
+    /**
+     * Creates a new StreetMapGraph from the data in the specified file and resource. The file is
+     * read as PBF if its name ends in ".pbf", and as gzipped XML otherwise.
+     */
     public static StreetMapGraph fromFileAndResource(File osmGzipFile, String placesResourceName) {
         StreetMapGraph graph = new StreetMapGraph();
-        OSMGraphLoader.populateGraph(graph, osmGzipFile, StreetMapGraph.class.getResourceAsStream(placesResourceName));
+        InputStream places = StreetMapGraph.class.getResourceAsStream(placesResourceName);
+        if (isPbf(osmGzipFile.getName())) {
+            OSMPbfLoader.populateGraph(graph, osmGzipFile, places);
+        } else {
+            OSMStreamLoader.populateGraph(graph, osmGzipFile, places);
+        }
+        graph.compact();
         return graph;
     }
 
     /** Creates a new StreetMapGraph from the data in the specified input streams. */
     public static StreetMapGraph fromStreams(InputStream osmGzip, InputStream places) {
         StreetMapGraph graph = new StreetMapGraph();
-        OSMGraphLoader.populateGraph(graph, osmGzip, places);
+        OSMStreamLoader.populateGraph(graph, osmGzip, places);
+        graph.compact();
         return graph;
     }
 
+    private static boolean isPbf(String osmName) {
+        return osmName.endsWith(".pbf");
+    }
+
     /** Returns a list of outgoing edges for V. Assumes V exists in this graph. */
     @Override
     public Set<WeightedEdge<Node>> neighbors(Node v) {
+        if (edgesOnlyInCompact) {
+            return Collections.unmodifiableSet(new LinkedHashSet<>(compact.neighbors(v)));
+        }
         Set<WeightedEdge<Node>> edges = neighbors.get(v);
         if (edges == null) {
             return Collections.emptySet();
@@ -54,11 +142,51 @@ public class StreetMapGraph implements AStarGraph<Node> {
         }
     }
 
+    /**
+     * Returns the edge from one node to another, or null if there is no such edge. Unlike
+     * searching {@link #neighbors(Node)}, this takes constant time, using the compact graph's
+     * edge index.
+     */
+    public WeightedEdge<Node> edge(Node from, Node to) {
+        CompactStreetMapGraph compact = compact();
+        int v = compact.indexOf(from);
+        int w = compact.indexOf(to);
+        int e = v < 0 || w < 0 ? -1 : compact.edgeIndex(v, w);
+        if (e < 0) {
+            return null;
+        }
+        return new StreetEdge(from, to, compact.edgeWeight(e), compact.edgeNameId(e));
+    }
+
     @Override
     public double estimatedDistanceToGoal(Node v, Node goal) {
         return greatCircleDistance(Coordinate.fromNode(v), Coordinate.fromNode(goal));
     }
 
+    /**
+     * Returns a frozen, array-backed copy of this graph that supports allocation-free neighbor
+     * iteration. The copy is built once, the first time it's needed after the graph changes; the
+     * factory methods build it as soon as loading finishes.
+     */
+    public CompactStreetMapGraph compact() {
+        if (compact == null) {
+            compact = new CompactStreetMapGraph(this);
+        }
+        return compact;
+    }
+
+    /**
+     * Returns the compact graph with {@link LandmarkGraph} estimates, for routing. Like the compact
+     * graph, it's built once, the first time it's needed after the graph changes, unless it was
+     * read from a snapshot; building it takes a couple of Dijkstra searches per landmark.
+     */
+    public LandmarkGraph<Node> landmarks() {
+        if (landmarks == null) {
+            landmarks = new LandmarkGraph<>(compact(), NUM_LANDMARKS);
+        }
+        return landmarks;
+    }
+
     /** Returns an unmodifiable list of all nodes in the graph. */
     public List<Node> allNodes() {
         return Collections.unmodifiableList(nodes);
@@ -66,22 +194,53 @@ public class StreetMapGraph implements AStarGraph<Node> {
 
     /** Adds an edge to this graph, using distance as the weight. */
     protected void addWeightedEdge(Node from, Node to, String name) {
+        addWeightedEdge(from, to, NameDictionary.global().intern(name));
+    }
+
+    /**
+     * Adds an edge to this graph, using distance as the weight, named by its id in the global
+     * NameDictionary.
+     */
+    protected void addWeightedEdge(Node from, Node to, int nameId) {
         double weight = greatCircleDistance(Coordinate.fromNode(from), Coordinate.fromNode(to));
-        neighbors.computeIfAbsent(from, k -> new HashSet<>())
-            .add(new WeightedEdge<>(from, to, weight, name));
+        addWeightedEdge(from, to, weight, nameId);
     }
 
     /** Adds an edge to this graph. */
     protected void addWeightedEdge(Node from, Node to, double weight, String name) {
+        addWeightedEdge(from, to, weight, NameDictionary.global().intern(name));
+    }
+
+    /** Adds an edge to this graph, named by its id in the global NameDictionary. */
+    protected void addWeightedEdge(Node from, Node to, double weight, int nameId) {
+        copyEdgesFromCompact();
+        compact = null;
+        landmarks = null;
         neighbors.computeIfAbsent(from, k -> new HashSet<>())
-            .add(new WeightedEdge<>(from, to, weight, name));
+            .add(new StreetEdge(from, to, weight, nameId));
     }
 
     /** Adds a node to this graph. */
     protected void addNode(Node node) {
+        copyEdgesFromCompact();
+        compact = null;
+        landmarks = null;
         this.nodes.add(node);
     }
 
+    /** Moves the edges into the neighbors map, if they're only in compact, before it's discarded. */
+    private void copyEdgesFromCompact() {
+        if (!edgesOnlyInCompact) {
+            return;
+        }
+        edgesOnlyInCompact = false;
+        for (Node node : nodes) {
+            for (WeightedEdge<Node> edge : compact.neighbors(node)) {
+                neighbors.computeIfAbsent(node, k -> new HashSet<>()).add(edge);
+            }
+        }
+    }
+
     protected Node.Builder nodeBuilder() {
         return new Node.Builder();
     }
@@ -5,6 +5,7 @@ import huskymaps.handlers.APIRouteHandler;
 import huskymaps.rastering.Rasterer;
 import huskymaps.rastering.Tile;
 import huskymaps.rastering.TileGrid;
+import huskymaps.utils.BoundedCache;
 import spark.Request;
 import spark.Response;
 
@@ -18,6 +19,8 @@ import java.util.Objects;
 
 import static huskymaps.utils.Constants.IMG_ROOT;
 import static huskymaps.utils.Constants.MAX_DEPTH;
+import static huskymaps.utils.Constants.RASTER_CACHE_BYTES;
+import static huskymaps.utils.Constants.TILE_CACHE_BYTES;
 import static huskymaps.utils.Constants.TILE_SIZE;
 
 /**
@@ -27,10 +30,34 @@ import static huskymaps.utils.Constants.TILE_SIZE;
 public class RasterAPIHandler extends APIRouteHandler<RasterRequest, RenderedRasterResult> {
 
     private final Rasterer rasterer;
+    /** Decoded tile images, so that each tile is only read from its resource once. */
+    private final BoundedCache<Tile, BufferedImage> tileCache;
+    /** Fully rendered results, so that repeated viewports don't need any image work at all. */
+    private final BoundedCache<TileRange, RenderedRasterResult> rasterCache;
     // Render the result as an image if successful
 
     public RasterAPIHandler(Rasterer rasterer) {
+        this(rasterer, TILE_CACHE_BYTES, RASTER_CACHE_BYTES);
+    }
+
+    /**
+     * Creates a handler that caches up to tileCacheBytes bytes of decoded tile images, and up to
+     * rasterCacheBytes bytes of encoded, fully rendered results.
+     */
+    public RasterAPIHandler(Rasterer rasterer, long tileCacheBytes, long rasterCacheBytes) {
         this.rasterer = rasterer;
+        this.tileCache = new BoundedCache<>(tileCacheBytes, RasterAPIHandler::imageBytes);
+        this.rasterCache = new BoundedCache<>(rasterCacheBytes, result -> result.image.length());
+    }
+
+    /** Returns the cache of decoded tile images, mainly so that its statistics can be inspected. */
+    public BoundedCache<Tile, BufferedImage> tileCache() {
+        return tileCache;
+    }
+
+    /** Returns the cache of rendered results, mainly so that its statistics can be inspected. */
+    public BoundedCache<?, RenderedRasterResult> rasterCache() {
+        return rasterCache;
     }
 
     @Override
@@ -39,7 +66,8 @@ public class RasterAPIHandler extends APIRouteHandler<RasterRequest, RenderedRas
     }
 
     /**
-     * Takes a user query and finds the grid of images that best matches the query.
+     * Takes a user query and finds the grid of images that best matches the query. Unless the
+     * request is for just the grid, the images are rendered into one.
      * @param request RasterRequest
      * @param response Ignored
      * @return RenderedRasterResult
@@ -49,20 +77,26 @@ public class RasterAPIHandler extends APIRouteHandler<RasterRequest, RenderedRas
         Coordinate ul = new Coordinate(request.ullat, request.ullon);
         Coordinate lr = new Coordinate(request.lrlat, request.lrlon);
         TileGrid raster = rasterer.rasterizeMap(ul, lr, Math.min(request.depth, MAX_DEPTH));
-        if (raster.grid != null) {
-            BufferedImage image = render(raster);
-            ByteArrayOutputStream os = new ByteArrayOutputStream();
-            try {
-                ImageIO.write(image, "png", os);
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-            return new RenderedRasterResult(raster, Base64.getEncoder().encodeToString(os.toByteArray()));
+        if (raster.grid != null && request.gridOnly) {
+            return RenderedRasterResult.gridOnly(raster);
+        } else if (raster.grid != null) {
+            return rasterCache.get(new TileRange(raster), range -> renderResult(raster));
         } else {
             return new RenderedRasterResult(raster);
         }
     }
 
+    private RenderedRasterResult renderResult(TileGrid raster) {
+        BufferedImage image = render(raster);
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, "png", os);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return new RenderedRasterResult(raster, Base64.getEncoder().encodeToString(os.toByteArray()));
+    }
+
     private BufferedImage render(TileGrid result) {
         int numVertTiles = result.grid.length;
         int numHorizTiles = result.grid[0].length;
@@ -90,6 +124,10 @@ public class RasterAPIHandler extends APIRouteHandler<RasterRequest, RenderedRas
     }
 
     private BufferedImage getTile(Tile name) {
+        return tileCache.get(name, this::readTile);
+    }
+
+    private BufferedImage readTile(Tile name) {
         String path = IMG_ROOT + name;
         BufferedImage tile = null;
         try {
@@ -99,4 +137,52 @@ public class RasterAPIHandler extends APIRouteHandler<RasterRequest, RenderedRas
         }
         return tile;
     }
+
+    /**
+     * Identifies a non-empty TileGrid by its depth and the tiles at its corners, which is much
+     * cheaper to hash and compare than the whole grid.
+     */
+    private static class TileRange {
+        final int depth;
+        final int minX;
+        final int minY;
+        final int maxX;
+        final int maxY;
+
+        TileRange(TileGrid raster) {
+            Tile ul = raster.grid[0][0];
+            Tile lr = raster.grid[raster.grid.length - 1][raster.grid[0].length - 1];
+            this.depth = ul.depth;
+            this.minX = ul.x;
+            this.minY = ul.y;
+            this.maxX = lr.x;
+            this.maxY = lr.y;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            TileRange that = (TileRange) o;
+            return depth == that.depth &&
+                    minX == that.minX &&
+                    minY == that.minY &&
+                    maxX == that.maxX &&
+                    maxY == that.maxY;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(depth, minX, minY, maxX, maxY);
+        }
+    }
+
+    /** Estimates the memory used by an image's pixels, at 4 bytes per pixel. */
+    private static long imageBytes(BufferedImage image) {
+        return 4L * image.getWidth() * image.getHeight();
+    }
 }
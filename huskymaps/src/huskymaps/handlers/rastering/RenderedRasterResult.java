@@ -1,8 +1,10 @@
 package huskymaps.handlers.rastering;
 
+import huskymaps.rastering.Tile;
 import huskymaps.rastering.TileGrid;
 import org.apache.commons.math3.util.Precision;
 
+import java.util.Arrays;
 import java.util.Objects;
 
 import static huskymaps.utils.Constants.DECIMAL_PLACES;
@@ -13,6 +15,8 @@ public class RenderedRasterResult {
 
     /** The base-64 encoded string of the image. */
     public final String image;
+    /** The grid of tiles making up the image, only included for grid-only requests. */
+    public final Tile[][] grid;
     /** The bounding upper-left, lower-right latitudes and longitudes of the final image. */
     public final double ullat;
     public final double ullon;
@@ -23,7 +27,12 @@ public class RenderedRasterResult {
 
     /** Construct a new RenderedRasterResult with the given parameters. */
     public RenderedRasterResult(TileGrid result, String image) {
+        this(result, image, null);
+    }
+
+    private RenderedRasterResult(TileGrid result, String image, Tile[][] grid) {
         this.image = image;
+        this.grid = grid;
         this.ullat = result.ullat;
         this.ullon = result.ullon;
         this.lrlat = result.lrlat;
@@ -36,6 +45,11 @@ public class RenderedRasterResult {
         this(result, null);
     }
 
+    /** Returns a result with the grid of tiles in place of the rendered image. */
+    public static RenderedRasterResult gridOnly(TileGrid result) {
+        return new RenderedRasterResult(result, null, result.grid);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -50,7 +64,8 @@ public class RenderedRasterResult {
                 Precision.equals(that.lrlat, lrlat, EPSILON) &&
                 Precision.equals(that.lrlon, lrlon, EPSILON) &&
                 success == that.success &&
-                Objects.equals(image, that.image);
+                Objects.equals(image, that.image) &&
+                Arrays.deepEquals(grid, that.grid);
     }
 
     @Override
@@ -68,6 +83,7 @@ public class RenderedRasterResult {
     public String toString() {
         return "RenderedRasterResult{"
                 + "image"
+                + ", grid=" + Arrays.deepToString(grid)
                 + ", ullat=" + ullat
                 + ", ullon=" + ullon
                 + ", lrlat=" + lrlat
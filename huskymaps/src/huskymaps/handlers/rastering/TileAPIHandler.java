@@ -0,0 +1,116 @@
+package huskymaps.handlers.rastering;
+
+import huskymaps.handlers.APIRouteHandler;
+import huskymaps.rastering.Tile;
+import huskymaps.rastering.TileStore;
+import spark.Request;
+import spark.Response;
+
+import static huskymaps.utils.Constants.MAX_DEPTH;
+import static huskymaps.utils.Constants.NOT_FOUND_RESPONSE;
+import static huskymaps.utils.Constants.NOT_MODIFIED_RESPONSE;
+import static huskymaps.utils.Constants.NUM_X_TILES_AT_DEPTH;
+import static huskymaps.utils.Constants.NUM_Y_TILES_AT_DEPTH;
+import static huskymaps.utils.Constants.TILE_MAX_AGE_SECONDS;
+import static spark.Spark.halt;
+
+/**
+ * Handles requests from the web browser for single map tiles at /tiles/:depth/:x/:y.
+ *
+ * Unlike /raster, the stored JPEG bytes of the tile are sent as they are, without decoding,
+ * compositing, re-encoding, or Base64. Each response carries an ETag and Cache-Control header, so
+ * the browser only ever downloads a tile once.
+ */
+public class TileAPIHandler extends APIRouteHandler<TileRequest, byte[]> {
+    private static final byte[] NO_CONTENT = new byte[0];
+
+    private final TileStore tiles;
+
+    public TileAPIHandler(TileStore tiles) {
+        this.tiles = tiles;
+    }
+
+    @Override
+    protected TileRequest parseRequest(Request request) {
+        Tile tile = parseTile(request.params(":depth"), request.params(":x"), request.params(":y"));
+        if (tile == null) {
+            halt(NOT_FOUND_RESPONSE, "Request failed: no such tile.");
+        }
+        return new TileRequest(tile, request.headers("If-None-Match"));
+    }
+
+    /**
+     * Returns the tile with the given depth, x and y, or null if they aren't all integers or
+     * there's no such tile.
+     */
+    static Tile parseTile(String depth, String x, String y) {
+        Tile tile;
+        try {
+            tile = new Tile(Integer.parseInt(depth), Integer.parseInt(x), Integer.parseInt(y));
+        } catch (NumberFormatException e) {
+            // Not a tile name, so there's no such tile
+            return null;
+        }
+        return isInBounds(tile) ? tile : null;
+    }
+
+    /** Returns true if the tile is within the map at its depth. */
+    static boolean isInBounds(Tile tile) {
+        return tile.depth >= 0 && tile.depth <= MAX_DEPTH
+            && tile.x >= 0 && tile.x < NUM_X_TILES_AT_DEPTH[tile.depth]
+            && tile.y >= 0 && tile.y < NUM_Y_TILES_AT_DEPTH[tile.depth];
+    }
+
+    /**
+     * Finds the stored tile and sets the response headers for it.
+     * @param request TileRequest
+     * @param response used to set the status code and headers
+     * @return the bytes of the tile, or no bytes if the browser's cached copy is current
+     */
+    @Override
+    protected byte[] processRequest(TileRequest request, Response response) {
+        TileStore.StoredTile tile = tiles.get(request.tile);
+        if (tile == null) {
+            halt(NOT_FOUND_RESPONSE, "Request failed: no such tile.");
+            return null;
+        }
+        response.header("ETag", tile.etag);
+        response.header("Cache-Control", "public, max-age=" + TILE_MAX_AGE_SECONDS);
+        if (matchesETag(request.ifNoneMatch, tile.etag)) {
+            response.status(NOT_MODIFIED_RESPONSE);
+            return NO_CONTENT;
+        }
+        response.type("image/jpeg");
+        return tile.bytes;
+    }
+
+    /**
+     * Returns true if an If-None-Match header matches the given entity tag, so the browser's
+     * cached copy is current. The header may be "*" or a comma-separated list of tags, and tags
+     * are compared weakly, ignoring any "W/" prefix.
+     */
+    static boolean matchesETag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        if (ifNoneMatch.trim().equals("*")) {
+            return true;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Returns the bytes as they are, which Spark writes straight to the response body. */
+    @Override
+    protected Object buildJsonResponse(byte[] result) {
+        return result;
+    }
+}
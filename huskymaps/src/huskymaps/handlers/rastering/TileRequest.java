@@ -0,0 +1,45 @@
+package huskymaps.handlers.rastering;
+
+import huskymaps.rastering.Tile;
+
+import java.util.Objects;
+
+/** Represents a request for a single map tile received from the browser. */
+public class TileRequest {
+
+    /** The requested tile. */
+    public final Tile tile;
+    /** The entity tag of the browser's cached copy of the tile, or null if it has none. */
+    public final String ifNoneMatch;
+
+    public TileRequest(Tile tile, String ifNoneMatch) {
+        this.tile = tile;
+        this.ifNoneMatch = ifNoneMatch;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        TileRequest that = (TileRequest) o;
+        return Objects.equals(tile, that.tile) &&
+                Objects.equals(ifNoneMatch, that.ifNoneMatch);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(tile, ifNoneMatch);
+    }
+
+    @Override
+    public String toString() {
+        return "TileRequest{" +
+                "tile=" + tile +
+                ", ifNoneMatch='" + ifNoneMatch + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,108 @@
+package huskymaps.handlers.routing;
+
+import com.google.gson.stream.JsonWriter;
+import huskymaps.handlers.APIRouteHandler;
+import huskymaps.routing.Router;
+import spark.Request;
+import spark.Response;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import static huskymaps.utils.Constants.HALT_RESPONSE;
+import static spark.Spark.halt;
+
+/**
+ * Handles requests for the matrix of travel distances between many sources and many targets.
+ *
+ * The response has the form {"distances": [[...], [...], ...]}, with one row per source and one
+ * entry per target, and null for unreachable targets. Rows are computed in parallel, but are
+ * written to the response one at a time, in order, as they become ready, so the whole matrix is
+ * never held as one JSON string.
+ */
+public class MatrixAPIHandler extends APIRouteHandler<MatrixRequest, Boolean> {
+
+    private Router router;
+
+    public MatrixAPIHandler(Router router) {
+        this.router = router;
+    }
+
+    @Override
+    protected MatrixRequest parseRequest(Request request) {
+        return MatrixRequest.from(request);
+    }
+
+    /**
+     * Computes the distance matrix for the request and streams it to the response.
+     * @param request MatrixRequest
+     * @param response The response to write the matrix to
+     * @return true if the whole matrix was written, or false if writing it was cut short
+     */
+    @Override
+    protected Boolean processRequest(MatrixRequest request, Response response) {
+        response.type("application/json");
+        OutputStream body;
+        try {
+            body = response.raw().getOutputStream();
+        } catch (IOException e) {
+            // Nothing has been written yet, so the error status can still be sent.
+            e.printStackTrace();
+            halt(HALT_RESPONSE, "Request failed: unable to write matrix.");
+            return false;
+        }
+        return streamMatrix(router.distanceMatrix(request.sources, request.targets), body);
+    }
+
+    /**
+     * Writes the rows as a JSON object to body, returning false if writing fails partway.
+     *
+     * By the time a write fails, the status and part of the body have already been sent, usually
+     * to a client that has since disconnected, so it's too late to halt with an error status.
+     * Instead, the failure is logged and the remaining rows aren't computed or written.
+     */
+    static boolean streamMatrix(Stream<double[]> rows, OutputStream body) {
+        try {
+            writeMatrix(rows, new BufferedWriter(new OutputStreamWriter(body, StandardCharsets.UTF_8)));
+            return true;
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Matrix response cut short: " + e);
+            return false;
+        }
+    }
+
+    /** Writes the rows as a JSON object to out, flushing but not closing it. */
+    static void writeMatrix(Stream<double[]> rows, Writer out) throws IOException {
+        JsonWriter writer = new JsonWriter(out);
+        writer.beginObject().name("distances").beginArray();
+        rows.forEachOrdered(row -> {
+            try {
+                writer.beginArray();
+                for (double distance : row) {
+                    if (Double.isInfinite(distance)) {
+                        writer.nullValue();
+                    } else {
+                        writer.value(distance);
+                    }
+                }
+                writer.endArray();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.endArray().endObject();
+        writer.flush();
+    }
+
+    /** The matrix has already been written directly to the response. */
+    @Override
+    protected Object buildJsonResponse(Boolean result) {
+        return "";
+    }
+}
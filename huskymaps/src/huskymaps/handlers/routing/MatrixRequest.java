@@ -0,0 +1,91 @@
+package huskymaps.handlers.routing;
+
+import huskymaps.graph.Coordinate;
+import spark.Request;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static huskymaps.utils.Constants.HALT_RESPONSE;
+import static huskymaps.utils.Constants.MAX_MATRIX_LOCATIONS;
+import static spark.Spark.halt;
+
+/**
+ * Represents a distance matrix request received from a client. Sources and targets are given as
+ * semicolon-separated lists of latitude,longitude pairs, e.g. sources=47.65,-122.31;47.61,-122.33
+ */
+public final class MatrixRequest {
+
+    /** The locations to measure distances from and to. */
+    public final List<Coordinate> sources;
+    public final List<Coordinate> targets;
+
+    /**
+     * Returns a MatrixRequest with the required parameters.
+     * @param request Spark Request
+     * @return A populated MatrixRequest of the parsed source and target locations
+     */
+    public static MatrixRequest from(Request request) {
+        try {
+            return new MatrixRequest(
+                        parseCoordinates(request.queryParams("sources")),
+                        parseCoordinates(request.queryParams("targets"))
+                        );
+        } catch (NullPointerException e) {
+            halt(HALT_RESPONSE, "Request failed: parameter not found.");
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            e.printStackTrace();
+            halt(HALT_RESPONSE, "Request failed: unable to parse locations.");
+        }
+        return null;
+    }
+
+    /**
+     * Parses a semicolon-separated list of latitude,longitude pairs.
+     * @throws NumberFormatException if a latitude or longitude can't be parsed
+     * @throws ArrayIndexOutOfBoundsException if a pair is missing its longitude
+     */
+    static List<Coordinate> parseCoordinates(String locations) {
+        List<Coordinate> result = new ArrayList<>();
+        for (String location : locations.split(";")) {
+            String[] parts = location.split(",");
+            result.add(new Coordinate(Double.parseDouble(parts[0]), Double.parseDouble(parts[1])));
+        }
+        if (result.size() > MAX_MATRIX_LOCATIONS) {
+            halt(HALT_RESPONSE, "Request failed: at most " + MAX_MATRIX_LOCATIONS + " locations allowed.");
+        }
+        return result;
+    }
+
+    public MatrixRequest(List<Coordinate> sources, List<Coordinate> targets) {
+        this.sources = sources;
+        this.targets = targets;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        MatrixRequest that = (MatrixRequest) o;
+        return Objects.equals(sources, that.sources) &&
+                Objects.equals(targets, that.targets);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sources, targets);
+    }
+
+    @Override
+    public String toString() {
+        return "MatrixRequest{" +
+                "sources=" + sources +
+                ", targets=" + targets +
+                '}';
+    }
+}
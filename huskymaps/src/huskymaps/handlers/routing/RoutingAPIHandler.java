@@ -1,9 +1,9 @@
 package huskymaps.handlers.routing;
 
 import huskymaps.graph.Coordinate;
-import huskymaps.graph.Node;
 import huskymaps.handlers.APIRouteHandler;
 import huskymaps.routing.NavigationDirection;
+import huskymaps.routing.Route;
 import huskymaps.routing.Router;
 import spark.Request;
 import spark.Response;
@@ -38,25 +38,24 @@ public class RoutingAPIHandler extends APIRouteHandler<RouteRequest, RouteResult
     protected RouteResult processRequest(RouteRequest request, Response response) {
         Coordinate start = new Coordinate(request.startLat, request.startLon);
         Coordinate end = new Coordinate(request.endLat, request.endLon);
-        List<Node> routeNodes = router.shortestPath(start, end);
-        Coordinate[] routeCoords = routeNodes.stream().map(Coordinate::fromNode).toArray(Coordinate[]::new);
-        String directionsText = getDirectionsText(routeNodes);
+        Route route = router.route(start, end);
+        Coordinate[] routeCoords = route.nodes.stream().map(Coordinate::fromNode).toArray(Coordinate[]::new);
+        String directionsText = getDirectionsText(route.directions);
         return new RouteResult(routeCoords, directionsText);
     }
 
     /**
-     * Takes the given route and converts it into an HTML-friendly String.
-     * @param routeNodes
+     * Takes the directions for a route and converts them into an HTML-friendly String.
+     * @param directions
      */
-    private String getDirectionsText(List<Node> routeNodes) {
-        List<NavigationDirection> directions = router.routeDirections(routeNodes);
+    private String getDirectionsText(List<NavigationDirection> directions) {
         if (directions == null || directions.isEmpty()) {
             return "";
         }
         StringBuilder sb = new StringBuilder();
         int step = 1;
         for (NavigationDirection d: directions) {
-            sb.append(String.format("%d. %s <br>", step, d));
+            d.appendTo(sb.append(step).append(". ")).append(" <br>");
             step += 1;
         }
         return sb.toString();
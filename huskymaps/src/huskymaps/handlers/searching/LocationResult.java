@@ -0,0 +1,60 @@
+package huskymaps.handlers.searching;
+
+import huskymaps.graph.Node;
+
+import java.util.Objects;
+
+/** A location matching a full search, as sent to the browser. */
+public class LocationResult {
+
+    public final double lat;
+    public final double lon;
+    public final String name;
+    public final long id;
+    public final int importance;
+
+    public LocationResult(double lat, double lon, String name, long id, int importance) {
+        this.lat = lat;
+        this.lon = lon;
+        this.name = name;
+        this.id = id;
+        this.importance = importance;
+    }
+
+    /** Returns the result for the given node, with its name looked up in the name dictionary. */
+    public static LocationResult from(Node node) {
+        return new LocationResult(node.lat(), node.lon(), node.name(), node.id(), node.importance());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        LocationResult that = (LocationResult) o;
+        return Double.compare(that.lat, lat) == 0 &&
+            Double.compare(that.lon, lon) == 0 &&
+            id == that.id &&
+            importance == that.importance &&
+            Objects.equals(name, that.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(lat, lon, name, id, importance);
+    }
+
+    @Override
+    public String toString() {
+        return "LocationResult{" +
+            "lat=" + lat +
+            ", lon=" + lon +
+            ", name='" + name + '\'' +
+            ", id=" + id +
+            ", importance=" + importance +
+            '}';
+    }
+}
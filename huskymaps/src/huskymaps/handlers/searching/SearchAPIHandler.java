@@ -1,10 +1,12 @@
 package huskymaps.handlers.searching;
 
+import huskymaps.graph.Node;
 import huskymaps.handlers.APIRouteHandler;
 import huskymaps.searching.Searcher;
 import spark.Request;
 import spark.Response;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -20,7 +22,7 @@ public class SearchAPIHandler extends APIRouteHandler<SearchRequest, List<?>> {
 
     @Override
     protected SearchRequest parseRequest(Request request) {
-        return new SearchRequest(request.queryParams("term"), request.queryParams("full") != null);
+        return SearchRequest.from(request);
     }
 
     /**
@@ -28,13 +30,23 @@ public class SearchAPIHandler extends APIRouteHandler<SearchRequest, List<?>> {
      *
      * @param request parameters
      * @param response ignored
-     * @return a list of strings matching the searched prefix if request.full is false; otherwise,
-     * a list of all locations with names exactly matching the search term.
+     * @return a list of strings matching the searched prefix (at most request.limit of them, if
+     * given, and allowing for typos if request.fuzzy is true) if request.full is false; otherwise,
+     * a list of all locations with names exactly matching the search term, as LocationResults.
      */
     @Override
     protected List<?> processRequest(SearchRequest request, Response response) {
         if (request.full) {
-            return searcher.getLocations(request.term);
+            List<LocationResult> locations = new ArrayList<>();
+            for (Node node : searcher.getLocations(request.term)) {
+                locations.add(LocationResult.from(node));
+            }
+            return locations;
+        } else if (request.fuzzy) {
+            int limit = request.limit != SearchRequest.NO_LIMIT ? request.limit : Integer.MAX_VALUE;
+            return searcher.getLocationsByFuzzyPrefix(request.term, limit);
+        } else if (request.limit != SearchRequest.NO_LIMIT) {
+            return searcher.getLocationsByPrefix(request.term, request.limit);
         } else {
             return searcher.getLocationsByPrefix(request.term);
         }
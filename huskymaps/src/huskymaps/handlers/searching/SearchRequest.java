@@ -1,18 +1,62 @@
 package huskymaps.handlers.searching;
 
+import spark.Request;
+
 import java.util.Objects;
 
+import static huskymaps.utils.Constants.HALT_RESPONSE;
+import static spark.Spark.halt;
+
 /** Represents a search request received from the browser. */
 public class SearchRequest {
 
+    /** The limit used when the request doesn't give one. */
+    public static final int NO_LIMIT = -1;
+
     /** The search query. */
     public final String term;
     /** Whether this search requires locations or just a list of matches. */
     public final boolean full;
+    /** The most matches to return for a prefix search, or NO_LIMIT to return them all. */
+    public final int limit;
+    /** Whether a prefix search should tolerate typos. */
+    public final boolean fuzzy;
+
+    /**
+     * Returns a SearchRequest with the given parameters.
+     * @param request Spark Request
+     * @return A populated SearchRequest
+     */
+    public static SearchRequest from(Request request) {
+        int limit = NO_LIMIT;
+        String limitParam = request.queryParams("limit");
+        if (limitParam != null) {
+            try {
+                limit = Integer.parseInt(limitParam);
+            } catch (NumberFormatException e) {
+                halt(HALT_RESPONSE, "Request failed: unable to parse limit.");
+            }
+            if (limit < 0) {
+                halt(HALT_RESPONSE, "Request failed: limit cannot be negative.");
+            }
+        }
+        return new SearchRequest(request.queryParams("term"), request.queryParams("full") != null, limit,
+                "true".equals(request.queryParams("fuzzy")));
+    }
 
     public SearchRequest(String term, boolean full) {
+        this(term, full, NO_LIMIT);
+    }
+
+    public SearchRequest(String term, boolean full, int limit) {
+        this(term, full, limit, false);
+    }
+
+    public SearchRequest(String term, boolean full, int limit, boolean fuzzy) {
         this.term = term;
         this.full = full;
+        this.limit = limit;
+        this.fuzzy = fuzzy;
     }
 
     @Override
@@ -25,12 +69,14 @@ public class SearchRequest {
         }
         SearchRequest that = (SearchRequest) o;
         return full == that.full &&
+                limit == that.limit &&
+                fuzzy == that.fuzzy &&
                 Objects.equals(term, that.term);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(term, full);
+        return Objects.hash(term, full, limit, fuzzy);
     }
 
     @Override
@@ -38,6 +84,8 @@ public class SearchRequest {
         return "SearchRequest{" +
                 "term='" + term + '\'' +
                 ", full=" + full +
+                ", limit=" + limit +
+                ", fuzzy=" + fuzzy +
                 '}';
     }
 }
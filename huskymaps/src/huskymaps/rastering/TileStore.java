@@ -0,0 +1,56 @@
+package huskymaps.rastering;
+
+import huskymaps.utils.BoundedCache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+
+import static huskymaps.utils.Constants.IMG_ROOT;
+
+/**
+ * Serves the stored (still JPEG-encoded) bytes of map tiles, keeping recently used tiles in
+ * memory so that they can be written to a response without touching the classpath again.
+ */
+public class TileStore {
+    private final BoundedCache<Tile, StoredTile> cache;
+
+    /** Creates a store that keeps up to capacityBytes bytes of tiles in memory. */
+    public TileStore(long capacityBytes) {
+        this.cache = new BoundedCache<>(capacityBytes, tile -> tile.bytes.length);
+    }
+
+    /** Returns the stored tile with the given name, or null if there is no such tile. */
+    public StoredTile get(Tile tile) {
+        return cache.get(tile, TileStore::read);
+    }
+
+    public BoundedCache<Tile, StoredTile> cache() {
+        return cache;
+    }
+
+    private static StoredTile read(Tile tile) {
+        try (InputStream in = TileStore.class.getResourceAsStream(IMG_ROOT + tile)) {
+            if (in == null) {
+                return null;
+            }
+            return new StoredTile(tile, in.readAllBytes());
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /** The encoded bytes of a tile, and an entity tag that changes whenever they do. */
+    public static class StoredTile {
+        public final byte[] bytes;
+        public final String etag;
+
+        public StoredTile(Tile tile, byte[] bytes) {
+            CRC32 crc = new CRC32();
+            crc.update(bytes);
+            this.bytes = bytes;
+            this.etag = "\"" + tile + "-" + Long.toHexString(crc.getValue()) + "\"";
+        }
+    }
+}
@@ -2,7 +2,14 @@ package huskymaps.routing;
 
 import graphpathfinding.AStarGraph;
 import graphpathfinding.AStarPathFinder;
+import graphpathfinding.ContractionHierarchyPathFinder;
+import graphpathfinding.DistanceMatrix;
+import graphpathfinding.IndexedAStarGraph;
+import graphpathfinding.IndexedAStarPathFinder;
+import graphpathfinding.LandmarkGraph;
 import graphpathfinding.ShortestPathFinder;
+import graphpathfinding.ShortestPathResult;
+import huskymaps.graph.CompactStreetMapGraph;
 import huskymaps.graph.Coordinate;
 import huskymaps.graph.Node;
 import huskymaps.graph.StreetMapGraph;
@@ -13,25 +20,49 @@ import pointsets.PointSet;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
+import static huskymaps.utils.Constants.NUM_LANDMARKS;
+import static huskymaps.utils.Constants.ROUTE_CACHE_NODES;
+import static huskymaps.utils.Constants.ROUTE_CACHE_TTL_SECONDS;
+import static huskymaps.utils.Spatial.bearing;
+import static huskymaps.utils.Spatial.greatCircleDistance;
 import static huskymaps.utils.Spatial.projectToPoint;
+import static huskymaps.utils.Spatial.projectX;
+import static huskymaps.utils.Spatial.projectY;
 
 /**
  * @see Router
  */
 public class DefaultRouter extends Router {
     private StreetMapGraph graph;
-    private PointSet pointSet;
-    private ShortestPathFinder finder;
+    private PointSet<NodePoint> pointSet;
+    private ShortestPathFinder<Node> finder;
+    private DistanceMatrix<Node> matrix;
+    private RouteCache routeCache;
+    private boolean useContractionHierarchy;
     //private Map<NodePoint, Node> pointToNode;
 
     public DefaultRouter(StreetMapGraph graph) {
+        this(graph, false);
+    }
+
+    /**
+     * Creates a router for the given graph. If useContractionHierarchy is true, the graph is
+     * preprocessed into a contraction hierarchy up front, which takes a while but makes each
+     * route query much faster.
+     */
+    public DefaultRouter(StreetMapGraph graph, boolean useContractionHierarchy) {
         this.graph = graph;
-        this.finder = createPathFinder(graph);
-        List points = new ArrayList<NodePoint>();
-        for (Node node : this.graph.allNodes()) {
-            if (!this.graph.neighbors(node).isEmpty()) {
-                NodePoint p = createNodePoint(node);
+        this.useContractionHierarchy = useContractionHierarchy;
+        this.finder = createPathFinder(useContractionHierarchy ? graph.compact() : graph.landmarks());
+        this.matrix = new DistanceMatrix<>(graph.compact());
+        this.routeCache = new RouteCache(ROUTE_CACHE_NODES, Duration.ofSeconds(ROUTE_CACHE_TTL_SECONDS));
+        List<NodePoint> points = new ArrayList<>();
+        CompactStreetMapGraph compact = this.graph.compact();
+        for (int v = 0; v < compact.numVertices(); v += 1) {
+            if (compact.outDegree(v) > 0) {
+                NodePoint p = createNodePoint(compact.vertexAt(v));
                 points.add(p);
             }
         }
@@ -42,11 +73,22 @@ public class DefaultRouter extends Router {
     protected <T extends Point> PointSet<T> createPointSet(List<T> points) {
         // uncomment (and import) if you want to use WeirdPointSet instead of your own KDTreePointSet:
         // return new WeirdPointSet<>(points);
-        return KDTreePointSet.createAfterShuffling(points);
+        return KDTreePointSet.create(points);
     }
 
     @Override
     protected <VERTEX> ShortestPathFinder<VERTEX> createPathFinder(AStarGraph<VERTEX> g) {
+        if (g instanceof IndexedAStarGraph) {
+            if (useContractionHierarchy) {
+                return new ContractionHierarchyPathFinder<>((IndexedAStarGraph<VERTEX>) g);
+            }
+            // Landmark distances give much tighter estimates than straight-line distances.
+            IndexedAStarGraph<VERTEX> indexed = (IndexedAStarGraph<VERTEX>) g;
+            if (!(indexed instanceof LandmarkGraph)) {
+                indexed = new LandmarkGraph<>(indexed, NUM_LANDMARKS);
+            }
+            return new IndexedAStarPathFinder<>(indexed, true);
+        }
         return new AStarPathFinder<>(g);
     }
 
@@ -59,21 +101,121 @@ public class DefaultRouter extends Router {
     protected Node closest(Coordinate c) {
         // Project to x and y coordinates instead of using raw lat and lon for finding closest points:
         Point p = projectToPoint(c, Point::new);
-        NodePoint closest = (NodePoint) this.pointSet.nearest(p);
+        NodePoint closest = this.pointSet.nearest(p);
         return closest.node();
     }
 
+    /**
+     * Projects all the coordinates into flat arrays and snaps them with one batch query, rather
+     * than allocating a Point per coordinate.
+     */
+    @Override
+    protected List<Node> closest(List<Coordinate> coordinates) {
+        int n = coordinates.size();
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int i = 0; i < n; i += 1) {
+            Coordinate c = coordinates.get(i);
+            xs[i] = projectX(c.lat(), c.lon());
+            ys[i] = projectY(c.lat(), c.lon());
+        }
+        int[] nearest = new int[n];
+        this.pointSet.nearest(xs, ys, nearest);
+        List<NodePoint> points = this.pointSet.allPoints();
+        List<Node> result = new ArrayList<>(n);
+        for (int i : nearest) {
+            result.add(points.get(i).node());
+        }
+        return result;
+    }
+
     @Override
     public List<Node> shortestPath(Coordinate start, Coordinate end) {
+        return route(start, end).nodes;
+    }
+
+    /**
+     * Looks up the route between the snapped endpoints in the route cache, searching for it only
+     * if it isn't there. Routes whose search timed out aren't cached, so they'll be tried again.
+     */
+    @Override
+    public Route route(Coordinate start, Coordinate end) {
         Node src = closest(start);
         Node dest = closest(end);
-        Duration timeout = Duration.ofSeconds(30);
-        return this.finder.findShortestPath(src, dest, timeout).solution();
+        Route route = this.routeCache.get(src, dest);
+        if (route == null) {
+            Duration timeout = Duration.ofSeconds(30);
+            ShortestPathResult<Node> result = this.finder.findShortestPath(src, dest, timeout);
+            route = new Route(result.solution(), routeDirections(result.solution(), result.solutionEdges()));
+            if (!result.isTimedOut()) {
+                this.routeCache.put(src, dest, route);
+            }
+        }
+        return route;
+    }
+
+    public RouteCache routeCache() {
+        return this.routeCache;
+    }
+
+    @Override
+    public Stream<double[]> distanceMatrix(List<Coordinate> sources, List<Coordinate> targets) {
+        return this.matrix.rows(closest(sources), closest(targets));
     }
 
     @Override
     public List<NavigationDirection> routeDirections(List<Node> route) {
-        // Optional
-        return null;
+        return routeDirections(route, null);
+    }
+
+    /**
+     * Builds the directions in a single walk along the route. Consecutive edges with the same way
+     * name id are merged into one direction, and a new direction begins, turning by the change in
+     * bearing, wherever the way name changes.
+     *
+     * The ids of the route's edges are used if the path finder recorded them (edges isn't null);
+     * otherwise, each edge is looked up in the compact graph's edge index.
+     */
+    private List<NavigationDirection> routeDirections(List<Node> route, int[] edges) {
+        List<NavigationDirection> directions = new ArrayList<>();
+        if (route.size() < 2) {
+            return directions;
+        }
+        CompactStreetMapGraph compact = this.graph.compact();
+        NavigationDirection current = null;
+        int currentNameId = -1;
+        double prevBearing = 0.0;
+        for (int i = 1; i < route.size(); i += 1) {
+            Node fromNode = route.get(i - 1);
+            Node toNode = route.get(i);
+            int edge = edges != null
+                ? edges[i - 1]
+                : compact.edgeIndex(compact.indexOf(fromNode), compact.indexOf(toNode));
+            int nameId = -1;
+            double distance = greatCircleDistance(fromNode.lat(), fromNode.lon(), toNode.lat(), toNode.lon());
+            if (edge >= 0) {
+                nameId = compact.edgeNameId(edge);
+                distance = compact.edgeWeight(edge);
+            }
+            double bearing = normalizeBearing(bearing(fromNode.lat(), fromNode.lon(), toNode.lat(), toNode.lon()));
+
+            if (current == null || nameId != currentNameId) {
+                int direction = current == null
+                    ? NavigationDirection.START
+                    : NavigationDirection.getDirection(prevBearing, bearing);
+                String way = nameId < 0 ? NavigationDirection.UNKNOWN_ROAD : compact.name(nameId);
+                current = new NavigationDirection(direction, way, 0.0);
+                currentNameId = nameId;
+                directions.add(current);
+            }
+            current.distance += distance;
+            prevBearing = bearing;
+        }
+        return directions;
+    }
+
+    /** Converts a bearing in [-180, 180] to one in [0, 360), as getDirection expects. */
+    private static double normalizeBearing(double bearing) {
+        return bearing < 0 ? bearing + 360.0 : bearing;
     }
 }
@@ -57,9 +57,33 @@ public class NavigationDirection {
         this.distance = 0.0;
     }
 
+    /** Creates a NavigationDirection with the given direction, way, and distance. */
+    NavigationDirection(int direction, String way, double distance) {
+        this.direction = direction;
+        this.way = way;
+        this.distance = distance;
+    }
+
     public String toString() {
-        return String.format("%s on %s and continue for %.3f miles.",
-                DIRECTIONS[direction], way, distance);
+        return appendTo(new StringBuilder()).toString();
+    }
+
+    /**
+     * Appends the string representation of this direction to sb, without the overhead of
+     * String.format, and returns sb.
+     */
+    public StringBuilder appendTo(StringBuilder sb) {
+        long thousandths = Math.round(distance * 1000);
+        long fraction = thousandths % 1000;
+        sb.append(DIRECTIONS[direction]).append(" on ").append(way).append(" and continue for ")
+            .append(thousandths / 1000).append('.');
+        if (fraction < 100) {
+            sb.append('0');
+        }
+        if (fraction < 10) {
+            sb.append('0');
+        }
+        return sb.append(fraction).append(" miles.");
     }
 
     /**
@@ -0,0 +1,50 @@
+package huskymaps.routing;
+
+import huskymaps.graph.Node;
+
+import java.util.List;
+import java.util.Objects;
+
+/** A route through the graph, along with the directions for following it. */
+public class Route {
+
+    /** The unmodifiable nodes in the order visited, or an empty list if there is no route. */
+    public final List<Node> nodes;
+    /** The unmodifiable directions for the route, or null if directions aren't supported. */
+    public final List<NavigationDirection> directions;
+
+    /**
+     * Creates a route from copies of the given lists, so that a route shared by the RouteCache
+     * can't be changed by its creator or any of its callers.
+     */
+    public Route(List<Node> nodes, List<NavigationDirection> directions) {
+        this.nodes = List.copyOf(nodes);
+        this.directions = directions == null ? null : List.copyOf(directions);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        Route that = (Route) o;
+        return Objects.equals(nodes, that.nodes) &&
+            Objects.equals(directions, that.directions);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(nodes, directions);
+    }
+
+    @Override
+    public String toString() {
+        return "Route{" +
+            "nodes=" + nodes +
+            ", directions=" + directions +
+            '}';
+    }
+}
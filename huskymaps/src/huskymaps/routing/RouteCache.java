@@ -0,0 +1,74 @@
+package huskymaps.routing;
+
+import huskymaps.graph.Node;
+import huskymaps.utils.BoundedCache;
+
+import java.time.Duration;
+
+/**
+ * Keeps recently requested routes so that popular ones are only searched for once.
+ *
+ * Routes are keyed by the ids of the nodes that their endpoints snapped to, rather than by the
+ * requested coordinates, so that nearby requests for the same trip share one entry. The cache
+ * is bounded by the total number of nodes in its routes.
+ */
+public class RouteCache {
+    private final BoundedCache<Key, Route> cache;
+
+    /**
+     * Creates a cache that holds routes with up to maxNodes nodes in total, each for at most
+     * timeToLive (or indefinitely, if timeToLive is null).
+     */
+    public RouteCache(long maxNodes, Duration timeToLive) {
+        this.cache = new BoundedCache<>(maxNodes, route -> route.nodes.size() + 1, timeToLive);
+    }
+
+    /** Returns the cached route from start to end, or null if there isn't one. */
+    public Route get(Node start, Node end) {
+        return cache.get(new Key(start.id(), end.id()));
+    }
+
+    public void put(Node start, Node end, Route route) {
+        cache.put(new Key(start.id(), end.id()), route);
+    }
+
+    /** Returns the underlying cache, for its hit rate and other counts. */
+    public BoundedCache<?, Route> cache() {
+        return cache;
+    }
+
+    @Override
+    public String toString() {
+        return "RouteCache{" +
+            "cache=" + cache +
+            ", hitRate=" + cache.hitRate() +
+            '}';
+    }
+
+    private static final class Key {
+        final long start;
+        final long end;
+
+        Key(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key that = (Key) o;
+            return start == that.start && end == that.end;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Long.hashCode(start) + Long.hashCode(end);
+        }
+    }
+}
@@ -7,7 +7,9 @@ import huskymaps.graph.Node;
 import pointsets.Point;
 import pointsets.PointSet;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 public abstract class Router {
     /** Creates a NodePoint from a given Node, for use in a PointSet */
@@ -28,6 +30,20 @@ public abstract class Router {
      */
     protected abstract Node closest(Coordinate c);
 
+    /**
+     * Returns the nodes closest to each of the given coordinates, in the same order.
+     *
+     * @param coordinates
+     * @return The nodes in the graph closest to each of the targets.
+     */
+    protected List<Node> closest(List<Coordinate> coordinates) {
+        List<Node> result = new ArrayList<>(coordinates.size());
+        for (Coordinate c : coordinates) {
+            result.add(closest(c));
+        }
+        return result;
+    }
+
     /**
      * Returns a List of nodes representing the shortest path from the node
      * closest to a start location to the node closest to the destination location.
@@ -37,6 +53,29 @@ public abstract class Router {
      */
     public abstract List<Node> shortestPath(Coordinate start, Coordinate end);
 
+    /**
+     * Returns the shortest path from the node closest to a start location to the node closest to
+     * the destination location, along with its directions.
+     * @param start
+     * @param end
+     * @return The nodes on the shortest path, and the directions for following them.
+     */
+    public Route route(Coordinate start, Coordinate end) {
+        List<Node> nodes = shortestPath(start, end);
+        return new Route(nodes, routeDirections(nodes));
+    }
+
+    /**
+     * Returns the lengths of the shortest paths from the node closest to each source location to
+     * the node closest to each target location, as rows in the same order as sources. The rows
+     * are computed lazily (possibly in parallel), so they can be sent on as soon as they're ready.
+     * @param sources
+     * @param targets
+     * @return The rows of the distance matrix, where entry j of row i is the distance from
+     *         source i to target j, or Double.POSITIVE_INFINITY if it is unreachable.
+     */
+    public abstract Stream<double[]> distanceMatrix(List<Coordinate> sources, List<Coordinate> targets);
+
     /**
      * Creates the list of directions corresponding to a route on the graph.
      * @param route The route to translate into directions. Each element
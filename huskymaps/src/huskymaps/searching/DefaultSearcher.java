@@ -3,16 +3,30 @@ package huskymaps.searching;
 import autocomplete.Autocomplete;
 import autocomplete.DefaultTerm;
 import autocomplete.Term;
+import autocomplete.TrieAutocomplete;
 import huskymaps.graph.Node;
 import huskymaps.graph.StreetMapGraph;
+import huskymaps.utils.NameDictionary;
 
 import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.LinkedList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Set;
+
+import static huskymaps.utils.Constants.FUZZY_ONE_EDIT_LENGTH;
+import static huskymaps.utils.Constants.FUZZY_TWO_EDITS_LENGTH;
 
 /**
+ * A Searcher over the named nodes of a graph.
+ *
+ * Names are identified by their ids in the global {@link NameDictionary}, which the graph's
+ * nodes already carry, so building the index and looking names up compare ints rather than
+ * strings. The autocomplete terms are decoded from the same dictionary. The index maps each name
+ * id to the indices of the nodes with that name, stored as one int array grouped by name (like
+ * the offsets and targets of a compressed graph), so full location lookups take time
+ * proportional to the number of matches instead of scanning every node. Only the ids that some
+ * node uses are indexed, so the index doesn't grow with the street names, or with the names of
+ * other graphs, that share the dictionary.
+ *
  * @see Searcher
  */
 public class DefaultSearcher extends Searcher {
@@ -20,22 +34,77 @@ public class DefaultSearcher extends Searcher {
     private Autocomplete terms;
     private StreetMapGraph graph;
 
+    private final NameDictionary dictionary;
+    /** The distinct name ids among the nodes, in increasing order. */
+    private final int[] nameIds;
+    /**
+     * The nodes whose name has id nameIds[i] are at indices nodeIndices[nodeOffsets[i]] through
+     * nodeIndices[nodeOffsets[i + 1] - 1] of graph.allNodes(), in the graph's order.
+     */
+    private final int[] nodeOffsets;
+    private final int[] nodeIndices;
+
+    /**
+     * Creates a searcher for the named locations in the graph. Each distinct name becomes one
+     * term, weighted by the most important location with that name, so matches never need to be
+     * deduplicated. Nodes without names are ignored.
+     */
     public DefaultSearcher(StreetMapGraph graph) {
         this.graph = graph;
-        List<Term> allTerms = new LinkedList<>();
-        int size = 0;
-        for (Node node : graph.allNodes()) {
-            if (node.name() != null && node.importance() >= 0) {
-                Term term = createTerm(node.name(), node.importance());
-                allTerms.add(term);
-                size++;
+        this.dictionary = NameDictionary.global();
+        List<Node> nodes = graph.allNodes();
+        int[] ids = new int[nodes.size()];
+        int numNamed = 0;
+        for (Node node : nodes) {
+            if (node.nameId() != NameDictionary.NO_NAME) {
+                ids[numNamed] = node.nameId();
+                numNamed += 1;
             }
         }
-        Term[] t = new Term[size];
-        for (int i = 0; i < size; i++) {
-            t[i] = allTerms.remove(0);
+        Arrays.sort(ids, 0, numNamed);
+        int distinct = 0;
+        for (int i = 0; i < numNamed; i += 1) {
+            if (i == 0 || ids[i] != ids[i - 1]) {
+                ids[distinct] = ids[i];
+                distinct += 1;
+            }
         }
-        this.terms = createAutocomplete(t);
+        this.nameIds = Arrays.copyOf(ids, distinct);
+
+        int[] counts = new int[distinct];
+        int[] importances = new int[distinct];
+        Arrays.fill(importances, Integer.MIN_VALUE);
+        for (Node node : nodes) {
+            if (node.nameId() != NameDictionary.NO_NAME) {
+                int i = Arrays.binarySearch(nameIds, node.nameId());
+                counts[i] += 1;
+                importances[i] = Math.max(importances[i], node.importance());
+            }
+        }
+
+        // Group the node indices by name id with a counting sort.
+        this.nodeOffsets = new int[distinct + 1];
+        for (int i = 0; i < distinct; i += 1) {
+            nodeOffsets[i + 1] = nodeOffsets[i] + counts[i];
+        }
+        this.nodeIndices = new int[numNamed];
+        int[] next = Arrays.copyOf(nodeOffsets, distinct);
+        for (int v = 0; v < nodes.size(); v += 1) {
+            int id = nodes.get(v).nameId();
+            if (id != NameDictionary.NO_NAME) {
+                int i = Arrays.binarySearch(nameIds, id);
+                nodeIndices[next[i]] = v;
+                next[i] += 1;
+            }
+        }
+
+        List<Term> t = new ArrayList<>(distinct);
+        for (int i = 0; i < distinct; i += 1) {
+            if (importances[i] >= 0) {
+                t.add(createTerm(dictionary.name(nameIds[i]), importances[i]));
+            }
+        }
+        this.terms = createAutocomplete(t.toArray(new Term[0]));
     }
 
     @Override
@@ -45,29 +114,75 @@ public class DefaultSearcher extends Searcher {
 
     @Override
     protected Autocomplete createAutocomplete(Term[] termsArray) {
-        return new Autocomplete(termsArray);
+        return new TrieAutocomplete(termsArray);
     }
 
     @Override
     public List<String> getLocationsByPrefix(String prefix) {
-        Term[] matches = this.terms.findMatchesForPrefix(prefix);
-        Set<String> locByPre = new HashSet<>();
+        return queries(this.terms.findMatchesForPrefix(prefix));
+    }
+
+    @Override
+    public List<String> getLocationsByPrefix(String prefix, int limit) {
+        return queries(this.terms.findTopMatchesForPrefix(prefix, limit));
+    }
+
+    @Override
+    public List<String> getLocationsByFuzzyPrefix(String prefix, int limit) {
+        return queries(this.terms.findFuzzyMatchesForPrefix(prefix, maxEditsFor(prefix), limit));
+    }
+
+    /** Returns the number of typos to allow in the given prefix, which grows with its length. */
+    private static int maxEditsFor(String prefix) {
+        if (prefix == null || prefix.length() < FUZZY_ONE_EDIT_LENGTH) {
+            return 0;
+        }
+        return prefix.length() < FUZZY_TWO_EDITS_LENGTH ? 1 : 2;
+    }
+
+    private static List<String> queries(Term[] matches) {
+        List<String> result = new ArrayList<>(matches.length);
         for (Term term : matches) {
-            locByPre.add(term.query());
+            result.add(term.query());
         }
-        List<String> allPre = new ArrayList<>();
-        allPre.addAll(locByPre);
-        return allPre;
+        return result;
     }
 
     @Override
     public List<Node> getLocations(String locationName) {
-        List<Node> allLoc = new ArrayList<>();
-        for (Node node : this.graph.allNodes()) {
-            if (node.name().equals(locationName)) {
-                allLoc.add(node);
-            }
+        int id = this.dictionary.idOf(locationName);
+        int i = id == NameDictionary.NO_NAME ? -1 : Arrays.binarySearch(this.nameIds, id);
+        if (i < 0) {
+            return new ArrayList<>();
+        }
+        List<Node> nodes = this.graph.allNodes();
+        List<Node> allLoc = new ArrayList<>(this.nodeOffsets[i + 1] - this.nodeOffsets[i]);
+        for (int j = this.nodeOffsets[i]; j < this.nodeOffsets[i + 1]; j += 1) {
+            allLoc.add(nodes.get(this.nodeIndices[j]));
         }
         return allLoc;
     }
+
+    /** Returns the number of distinct location names. */
+    public int numNames() {
+        return this.nameIds.length;
+    }
+
+    /**
+     * Returns the memory used by the name index, in bytes. The shared name dictionary and the
+     * autocomplete terms aren't counted.
+     */
+    public long indexSizeBytes() {
+        return 4L * (this.nameIds.length + this.nodeOffsets.length + this.nodeIndices.length);
+    }
+
+    @Override
+    public String toString() {
+        return "DefaultSearcher{" +
+            "names=" + this.nameIds.length +
+            ", indexedNodes=" + this.nodeIndices.length +
+            ", indexSizeBytes=" + indexSizeBytes() +
+            ", dictionary=" + this.dictionary +
+            '}';
+    }
 }
@@ -22,6 +22,27 @@ public abstract class Searcher {
      */
     public abstract List<String> getLocationsByPrefix(String prefix);
 
+    /**
+     * Collects the names of the (at most) limit most important locations that prefix-match the
+     * query string, most important first.
+     * @param prefix Prefix string to be searched for.
+     * @param limit The most names to return.
+     * @return A <code>List</code> of full names of locations matching the <code>prefix</code>.
+     */
+    public List<String> getLocationsByPrefix(String prefix, int limit) {
+        List<String> locations = getLocationsByPrefix(prefix);
+        return locations.subList(0, Math.min(limit, locations.size()));
+    }
+
+    /**
+     * Collects the names of the (at most) limit most important locations that prefix-match the
+     * query string, allowing for a typo or two in longer queries, most important first.
+     * @param prefix Prefix string to be searched for, possibly misspelled.
+     * @param limit The most names to return.
+     * @return A <code>List</code> of full names of locations nearly matching the <code>prefix</code>.
+     */
+    public abstract List<String> getLocationsByFuzzyPrefix(String prefix, int limit);
+
     /**
      * Collects all locations that match a cleaned <code>locationName</code>, and return
      * information about each node that matches.
@@ -0,0 +1,193 @@
+package huskymaps.utils;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * A thread-safe cache that holds values up to a total weight (usually an estimate of their size
+ * in bytes), evicting the least-recently-used entries to make room for new ones. Entries may also
+ * be given a time to live, after which they are dropped the next time they are looked up.
+ *
+ * Counts of hits, misses, evictions, and expirations are kept so that the cache can be tuned.
+ */
+public class BoundedCache<K, V> {
+    private final long capacity;
+    private final ToLongFunction<V> weigher;
+    /** How long entries live, in nanoseconds, or 0 if they never expire. */
+    private final long timeToLiveNanos;
+    private final LongSupplier ticker;
+    /** Entries in access order, so the first entry is always the least-recently used. */
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    /**
+     * Creates an empty cache that holds values with a total weight of at most capacity, where the
+     * weight of each value is given by weigher.
+     * @throws IllegalArgumentException if capacity is negative
+     */
+    public BoundedCache(long capacity, ToLongFunction<V> weigher) {
+        this(capacity, weigher, null);
+    }
+
+    /**
+     * Creates an empty cache like {@link #BoundedCache(long, ToLongFunction)}, but whose entries
+     * expire once they are older than timeToLive. If timeToLive is null, they never expire.
+     * @throws IllegalArgumentException if capacity is negative or timeToLive is not positive
+     */
+    public BoundedCache(long capacity, ToLongFunction<V> weigher, Duration timeToLive) {
+        this(capacity, weigher, timeToLive, System::nanoTime);
+    }
+
+    /** Creates a cache that reads the current time, in nanoseconds, from ticker. */
+    BoundedCache(long capacity, ToLongFunction<V> weigher, Duration timeToLive, LongSupplier ticker) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative, but was " + capacity);
+        }
+        if (timeToLive != null && (timeToLive.isNegative() || timeToLive.isZero())) {
+            throw new IllegalArgumentException("Time to live must be positive, but was " + timeToLive);
+        }
+        this.capacity = capacity;
+        this.weigher = weigher;
+        this.timeToLiveNanos = timeToLive == null ? 0 : timeToLive.toNanos();
+        this.ticker = ticker;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns the value cached for key, or null if there isn't one (or it has expired). Counts as
+     * a hit or a miss.
+     */
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null && timeToLiveNanos > 0 && ticker.getAsLong() - entry.createdNanos >= timeToLiveNanos) {
+            entries.remove(key);
+            weight -= entry.weight;
+            expirations += 1;
+            entry = null;
+        }
+        if (entry == null) {
+            misses += 1;
+            return null;
+        }
+        hits += 1;
+        return entry.value;
+    }
+
+    /**
+     * Returns the value cached for key. If there isn't one, computes it with loader and caches
+     * it (unless it is null).
+     *
+     * The loader runs without holding the cache's lock, so slow loads don't block other threads;
+     * if two threads miss on the same key at once, both may run the loader.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = get(key);
+        if (value == null) {
+            value = loader.apply(key);
+            if (value != null) {
+                put(key, value);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Caches value for key, evicting least-recently-used entries as needed to stay within the
+     * capacity. A value weighing more than the whole capacity isn't cached at all.
+     */
+    public synchronized void put(K key, V value) {
+        long valueWeight = weigher.applyAsLong(value);
+        Entry<V> old = entries.remove(key);
+        if (old != null) {
+            weight -= old.weight;
+        }
+        if (valueWeight > capacity) {
+            return;
+        }
+        Iterator<Map.Entry<K, Entry<V>>> leastRecent = entries.entrySet().iterator();
+        while (weight + valueWeight > capacity) {
+            weight -= leastRecent.next().getValue().weight;
+            leastRecent.remove();
+            evictions += 1;
+        }
+        entries.put(key, new Entry<>(value, valueWeight, ticker.getAsLong()));
+        weight += valueWeight;
+    }
+
+    /** Removes all entries from the cache. The hit, miss, and eviction counts are kept. */
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    /** Returns the number of entries in the cache. */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /** Returns the total weight of the entries in the cache. */
+    public synchronized long weight() {
+        return weight;
+    }
+
+    public long capacity() {
+        return capacity;
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    public synchronized long expirations() {
+        return expirations;
+    }
+
+    /** Returns the fraction of lookups that were hits, or 0 if there haven't been any. */
+    public synchronized double hitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "BoundedCache{" +
+                "size=" + entries.size() +
+                ", weight=" + weight +
+                ", capacity=" + capacity +
+                ", hits=" + hits +
+                ", misses=" + misses +
+                ", evictions=" + evictions +
+                ", expirations=" + expirations +
+                '}';
+    }
+
+    /** A cached value, along with its weight and when it was cached. */
+    private static class Entry<V> {
+        final V value;
+        final long weight;
+        final long createdNanos;
+
+        Entry(V value, long weight, long createdNanos) {
+            this.value = value;
+            this.weight = weight;
+            this.createdNanos = createdNanos;
+        }
+    }
+}
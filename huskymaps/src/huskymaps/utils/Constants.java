@@ -73,14 +73,55 @@ public class Constants {
     public static final String OSM_GZ_RESOURCE_NAME = "/seattle-small.osm.gz";
     public static final String PLACES_RESOURCE_NAME = "/places.json";
 
+    /**
+     * The directory, relative to the user's home directory, and file name of the binary graph
+     * snapshot, unless the GRAPH_SNAPSHOT environment variable gives another path. The snapshot is
+     * read back on startup, so it's kept somewhere only this user can write to, not in the shared
+     * temporary directory.
+     */
+    public static final String GRAPH_SNAPSHOT_DIRECTORY = ".huskymaps";
+    public static final String GRAPH_SNAPSHOT_FILE_NAME = "graph.snapshot";
+
     /** The tile image resources are in the IMG_ROOT folder. */
     public static final String IMG_ROOT = "/tiles/";
     public static final int MIN_ZOOM_LEVEL = 10;
     public static final int[] MIN_X_TILE_AT_DEPTH = {163, 326, 652, 1304, 2608, 5216, 10432, 20864};
     public static final int[] MIN_Y_TILE_AT_DEPTH = {357, 714, 1428, 2856, 5712, 11424, 22848, 45696};
 
+    /** The default memory budget for decoded tile images cached by the raster handler. */
+    public static final long TILE_CACHE_BYTES = 64L * 1024 * 1024;
+    /** The default memory budget for encoded images cached by the raster handler. */
+    public static final long RASTER_CACHE_BYTES = 32L * 1024 * 1024;
+    /** The default memory budget for encoded tiles served directly by the tile handler. */
+    public static final long TILE_STORE_BYTES = 64L * 1024 * 1024;
+    /** How long browsers may use a tile from their cache without checking back, in seconds. */
+    public static final int TILE_MAX_AGE_SECONDS = 24 * 60 * 60;
+
+    /** The number of landmarks whose distances guide route searches. */
+    public static final int NUM_LANDMARKS = 16;
+
+    /** The most route nodes, summed over all routes, kept by the route cache. */
+    public static final long ROUTE_CACHE_NODES = 1L << 20;
+    /** How long the route cache keeps a route, in seconds. */
+    public static final int ROUTE_CACHE_TTL_SECONDS = 60 * 60;
+
+    /**
+     * Fuzzy searches allow one typo in prefixes with at least FUZZY_ONE_EDIT_LENGTH characters,
+     * and two in prefixes with at least FUZZY_TWO_EDITS_LENGTH; shorter prefixes must match
+     * exactly, since almost every name is within a typo or two of them.
+     */
+    public static final int FUZZY_ONE_EDIT_LENGTH = 3;
+    public static final int FUZZY_TWO_EDITS_LENGTH = 6;
+
+    /** The most sources or targets that a single distance matrix request may have. */
+    public static final int MAX_MATRIX_LOCATIONS = 1000;
+
     /** HTTP failed response. */
     public static final int HALT_RESPONSE = 500;
+    /** HTTP response for a resource that doesn't exist. */
+    public static final int NOT_FOUND_RESPONSE = 404;
+    /** HTTP response telling the browser that its cached copy is still current. */
+    public static final int NOT_MODIFIED_RESPONSE = 304;
 
     /** Default port for serving the application locally. */
     public static final int PORT = 8080;
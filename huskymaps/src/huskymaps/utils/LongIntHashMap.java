@@ -0,0 +1,145 @@
+package huskymaps.utils;
+
+/**
+ * A hash map from long keys to int values, stored in two flat arrays with open addressing and
+ * linear probing, so that neither keys nor values are boxed.
+ *
+ * Key 0 marks empty slots in the arrays, so a mapping for 0 itself is kept in a separate field.
+ * Entries can't be removed. Not thread-safe, but any number of threads may read a map that is no
+ * longer being modified.
+ */
+public class LongIntHashMap {
+    private static final double MAX_LOAD_FACTOR = 0.5;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private boolean hasZeroKey;
+    private int zeroValue;
+
+    /** Creates an empty map. */
+    public LongIntHashMap() {
+        this(16);
+    }
+
+    /** Creates an empty map with room for expectedSize entries before it needs to grow. */
+    public LongIntHashMap(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size cannot be negative, but was " + expectedSize);
+        }
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    /** Returns the value for key, or missing if there is no mapping for key. */
+    public int get(long key, int missing) {
+        if (key == 0) {
+            return hasZeroKey ? zeroValue : missing;
+        }
+        for (int i = slot(key); ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == key) {
+                return values[i];
+            } else if (k == 0) {
+                return missing;
+            }
+        }
+    }
+
+    public boolean containsKey(long key) {
+        if (key == 0) {
+            return hasZeroKey;
+        }
+        for (int i = slot(key); ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == key) {
+                return true;
+            } else if (k == 0) {
+                return false;
+            }
+        }
+    }
+
+    /** Maps key to value, replacing any previous value. */
+    public void put(long key, int value) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size += 1;
+            }
+            zeroValue = value;
+            return;
+        }
+        int i = slot(key);
+        while (keys[i] != 0) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        size += 1;
+        if (size > keys.length * MAX_LOAD_FACTOR) {
+            grow();
+        }
+    }
+
+    /** Returns the number of keys in this map. */
+    public int size() {
+        return size;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(oldKeys.length * 2);
+        for (int j = 0; j < oldKeys.length; j += 1) {
+            long key = oldKeys[j];
+            if (key != 0) {
+                int i = slot(key);
+                while (keys[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = key;
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    private void allocate(int tableSize) {
+        this.keys = new long[tableSize];
+        this.values = new int[tableSize];
+        this.mask = tableSize - 1;
+    }
+
+    /** Returns the first slot to probe for key, after mixing its bits (MurmurHash3's finalizer). */
+    private int slot(long key) {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+
+    /** Returns the smallest power of two that holds expectedSize entries within the load factor. */
+    private static int tableSizeFor(int expectedSize) {
+        long needed = Math.max(4, (long) Math.ceil(expectedSize / MAX_LOAD_FACTOR) + 1);
+        long size = Long.highestOneBit(needed - 1) << 1;
+        if (size > 1 << 30) {
+            throw new IllegalArgumentException("Too many entries: " + expectedSize);
+        }
+        return (int) size;
+    }
+
+    @Override
+    public String toString() {
+        return "LongIntHashMap{" +
+                "size=" + size +
+                ", capacity=" + keys.length +
+                '}';
+    }
+}
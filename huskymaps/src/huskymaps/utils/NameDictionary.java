@@ -0,0 +1,201 @@
+package huskymaps.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Assigns a dense int id to each distinct string, so that names can be stored and compared as
+ * ints.
+ *
+ * The strings themselves are stored once each, back to back as UTF-8 in one growable byte array:
+ * the bytes of the string with id i are bytes[offsets[i]] through bytes[offsets[i + 1] - 1]. A
+ * hash table of ids, probed with a hash of those bytes, finds the id of a string. Compared to a
+ * String per name, this saves the object headers and the UTF-16 encoding of non-Latin-1 names,
+ * and duplicate names cost nothing at all.
+ *
+ * Strings are decoded from the arena each time they're asked for, so callers that need a name
+ * repeatedly should hold on to it. Ids are never reused.
+ *
+ * Thread-safe. Only {@link #intern(String)} takes a lock: each new name is written to parts of the
+ * arrays no reader looks at yet, and then published in a volatile {@link Snapshot} of the arrays
+ * and size, so the lookups read whichever snapshot is current without locking.
+ */
+public class NameDictionary {
+    /** The id standing for no name (null). */
+    public static final int NO_NAME = -1;
+
+    private static final double MAX_LOAD_FACTOR = 0.5;
+    private static final NameDictionary GLOBAL = new NameDictionary();
+
+    private byte[] bytes = new byte[1024];
+    private int[] offsets = new int[17];
+    /** The hash of each string, so the table can grow without rehashing the bytes. */
+    private int[] hashes = new int[16];
+    private int size;
+    /** Each slot holds an id plus one, or 0 if it's empty. */
+    private int[] table = new int[32];
+    /** The names published to readers; replaced after each new name is added. */
+    private volatile Snapshot snapshot = new Snapshot(bytes, offsets, hashes, size, table);
+
+    /**
+     * The arrays and size as of some intern call. Slots and offsets past size may be changed by
+     * later calls, so readers ignore any id that isn't less than size.
+     */
+    private static final class Snapshot {
+        final byte[] bytes;
+        final int[] offsets;
+        final int[] hashes;
+        final int size;
+        final int[] table;
+
+        Snapshot(byte[] bytes, int[] offsets, int[] hashes, int size, int[] table) {
+            this.bytes = bytes;
+            this.offsets = offsets;
+            this.hashes = hashes;
+            this.size = size;
+            this.table = table;
+        }
+
+        boolean equalsAt(int id, byte[] utf8) {
+            return Arrays.equals(bytes, offsets[id], offsets[id + 1], utf8, 0, utf8.length);
+        }
+    }
+
+    /** Creates an empty dictionary. Most code should share the {@link #global()} one instead. */
+    public NameDictionary() {
+    }
+
+    /** Returns the dictionary shared by the graph's nodes and edges and the search index. */
+    public static NameDictionary global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Returns the id of name, adding it if it isn't in this dictionary yet, or NO_NAME if name is
+     * null.
+     */
+    public synchronized int intern(String name) {
+        if (name == null) {
+            return NO_NAME;
+        }
+        byte[] utf8 = name.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(utf8);
+        int mask = table.length - 1;
+        int slot = hash & mask;
+        while (table[slot] != 0) {
+            int id = table[slot] - 1;
+            if (hashes[id] == hash && equalsAt(id, utf8)) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        int id = size;
+        if (id == hashes.length) {
+            hashes = Arrays.copyOf(hashes, id * 2);
+            offsets = Arrays.copyOf(offsets, id * 2 + 1);
+        }
+        int start = offsets[id];
+        if (start + utf8.length > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, start + utf8.length));
+        }
+        System.arraycopy(utf8, 0, bytes, start, utf8.length);
+        offsets[id + 1] = start + utf8.length;
+        hashes[id] = hash;
+        size += 1;
+        table[slot] = id + 1;
+        if (size > table.length * MAX_LOAD_FACTOR) {
+            grow();
+        }
+        snapshot = new Snapshot(bytes, offsets, hashes, size, table);
+        return id;
+    }
+
+    /** Returns the id of name, or NO_NAME if name is null or isn't in this dictionary. */
+    public int idOf(String name) {
+        if (name == null) {
+            return NO_NAME;
+        }
+        Snapshot names = snapshot;
+        byte[] utf8 = name.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(utf8);
+        int mask = names.table.length - 1;
+        for (int slot = hash & mask; names.table[slot] != 0; slot = (slot + 1) & mask) {
+            int id = names.table[slot] - 1;
+            if (id >= names.size) {
+                // Added after this snapshot, so the slot was empty in it.
+                return NO_NAME;
+            }
+            if (names.hashes[id] == hash && names.equalsAt(id, utf8)) {
+                return id;
+            }
+        }
+        return NO_NAME;
+    }
+
+    /**
+     * Returns the name with the given id, or null if id is NO_NAME.
+     * @throws IllegalArgumentException if id isn't NO_NAME or an id in this dictionary
+     */
+    public String name(int id) {
+        if (id == NO_NAME) {
+            return null;
+        }
+        Snapshot names = snapshot;
+        if (id < 0 || id >= names.size) {
+            throw new IllegalArgumentException("No name with id " + id);
+        }
+        int start = names.offsets[id];
+        return new String(names.bytes, start, names.offsets[id + 1] - start, StandardCharsets.UTF_8);
+    }
+
+    /** Returns the number of names in this dictionary; their ids are 0 through size() - 1. */
+    public int size() {
+        return snapshot.size;
+    }
+
+    /** Returns the number of bytes used by this dictionary's arrays, including unused capacity. */
+    public long sizeBytes() {
+        Snapshot names = snapshot;
+        return names.bytes.length + 4L * (names.offsets.length + names.hashes.length + names.table.length);
+    }
+
+    private boolean equalsAt(int id, byte[] utf8) {
+        int start = offsets[id];
+        return Arrays.equals(bytes, start, offsets[id + 1], utf8, 0, utf8.length);
+    }
+
+    private void grow() {
+        table = new int[table.length * 2];
+        int mask = table.length - 1;
+        for (int id = 0; id < size; id += 1) {
+            int slot = hashes[id] & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = id + 1;
+        }
+    }
+
+    /** Returns an FNV-1a hash of the bytes, with its bits mixed by MurmurHash3's finalizer. */
+    private static int hash(byte[] utf8) {
+        int h = 0x811c9dc5;
+        for (byte b : utf8) {
+            h = (h ^ (b & 0xff)) * 0x01000193;
+        }
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        return "NameDictionary{" +
+                "size=" + size() +
+                ", sizeBytes=" + sizeBytes() +
+                '}';
+    }
+}
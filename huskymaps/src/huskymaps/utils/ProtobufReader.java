@@ -0,0 +1,165 @@
+package huskymaps.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads fields of a protocol buffer message directly from a byte array, without generated code
+ * or a schema.
+ *
+ * Each call to {@link #nextField()} reads a field's key and returns its number; the caller then
+ * reads its value with the method matching its type, or skips it with {@link #skipField()}.
+ * Length-delimited values (strings, bytes, nested messages, and packed repeated fields) can be
+ * read as another ProtobufReader over the same array, so nothing is copied.
+ *
+ * See the <a href="https://protobuf.dev/programming-guides/encoding/">encoding guide</a>.
+ */
+public class ProtobufReader {
+    public static final int VARINT = 0;
+    public static final int FIXED64 = 1;
+    public static final int LENGTH_DELIMITED = 2;
+    public static final int FIXED32 = 5;
+
+    private final byte[] buffer;
+    private final int limit;
+    private int position;
+    private int wireType = -1;
+
+    /** Creates a reader over the whole array. */
+    public ProtobufReader(byte[] buffer) {
+        this(buffer, 0, buffer.length);
+    }
+
+    /** Creates a reader over buffer[offset] through buffer[offset + length - 1]. */
+    public ProtobufReader(byte[] buffer, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > buffer.length) {
+            throw new IllegalArgumentException("Invalid range at " + offset + " of length " + length);
+        }
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    /** Returns whether there are any more bytes to read. */
+    public boolean hasNext() {
+        return position < limit;
+    }
+
+    /**
+     * Reads the key of the next field and returns its field number.
+     * @throws IOException if the key is malformed
+     */
+    public int nextField() throws IOException {
+        long key = readVarint();
+        wireType = (int) (key & 0x7);
+        int field = (int) (key >>> 3);
+        if (field <= 0) {
+            throw new IOException("Malformed protobuf: invalid field number " + field);
+        }
+        return field;
+    }
+
+    /** Returns the wire type of the field whose key was just read. */
+    public int wireType() {
+        return wireType;
+    }
+
+    /** Reads a varint: an int32, int64, uint32, uint64, bool, or enum. */
+    public long readVarint() throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (position >= limit) {
+                throw new IOException("Malformed protobuf: truncated varint");
+            }
+            byte b = buffer[position];
+            position += 1;
+            result |= (long) (b & 0x7f) << shift;
+            if (b >= 0) {
+                return result;
+            }
+        }
+        throw new IOException("Malformed protobuf: varint is too long");
+    }
+
+    /** Reads a zigzag-encoded varint: an sint32 or sint64. */
+    public long readSignedVarint() throws IOException {
+        long n = readVarint();
+        return (n >>> 1) ^ -(n & 1);
+    }
+
+    /**
+     * Reads a length-delimited value as a reader over its bytes, and moves past it.
+     * @throws IOException if the length runs past the end of this reader
+     */
+    public ProtobufReader readMessage() throws IOException {
+        int length = readLength();
+        ProtobufReader message = new ProtobufReader(buffer, position, length);
+        position += length;
+        return message;
+    }
+
+    /** Reads a length-delimited value as a UTF-8 string. */
+    public String readString() throws IOException {
+        int length = readLength();
+        String s = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return s;
+    }
+
+    /** Reads a length-delimited value as a new byte array. */
+    public byte[] readBytes() throws IOException {
+        int length = readLength();
+        byte[] bytes = new byte[length];
+        System.arraycopy(buffer, position, bytes, 0, length);
+        position += length;
+        return bytes;
+    }
+
+    /**
+     * Skips the value of the field whose key was just read.
+     * @throws IOException if its wire type is unsupported or it runs past the end of this reader
+     */
+    public void skipField() throws IOException {
+        switch (wireType) {
+            case VARINT:
+                readVarint();
+                break;
+            case FIXED64:
+                skip(8);
+                break;
+            case LENGTH_DELIMITED:
+                skip(readLength());
+                break;
+            case FIXED32:
+                skip(4);
+                break;
+            default:
+                throw new IOException("Malformed protobuf: unsupported wire type " + wireType);
+        }
+    }
+
+    /** Returns the underlying array. */
+    public byte[] buffer() {
+        return buffer;
+    }
+
+    /** Returns the index in the underlying array of the next byte to read. */
+    public int position() {
+        return position;
+    }
+
+    private int readLength() throws IOException {
+        long length = readVarint();
+        if (length < 0 || length > limit - position) {
+            throw new IOException("Malformed protobuf: length " + length + " runs past the end of the message");
+        }
+        return (int) length;
+    }
+
+    private void skip(int length) throws IOException {
+        if (length > limit - position) {
+            throw new IOException("Malformed protobuf: field runs past the end of the message");
+        }
+        position += length;
+    }
+}
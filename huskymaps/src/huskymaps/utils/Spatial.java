@@ -24,10 +24,15 @@ public class Spatial {
      * @source https://www.movable-type.co.uk/scripts/latlong.html
      */
     public static double greatCircleDistance(Coordinate v, Coordinate w) {
-        double lonV = v.lon();
-        double lonW = w.lon();
-        double latV = v.lat();
-        double latW = w.lat();
+        return greatCircleDistance(v.lat(), v.lon(), w.lat(), w.lon());
+    }
+
+    /**
+     * Returns the great-circle (haversine) distance between geographic coordinates, given as raw
+     * latitudes and longitudes so that callers don't need to allocate Coordinate objects.
+     * @see #greatCircleDistance(Coordinate, Coordinate)
+     */
+    public static double greatCircleDistance(double latV, double lonV, double latW, double lonW) {
         double phi1 = Math.toRadians(latV);
         double phi2 = Math.toRadians(latW);
         double dphi = Math.toRadians(latW - latV);
@@ -48,18 +53,31 @@ public class Spatial {
      * @source https://en.wikipedia.org/wiki/Transverse_Mercator_projection
      */
     public static <T> T projectToPoint(Coordinate p, BiFunction<Double, Double, T> pointFactory) {
-        double lon = p.lon();
-        double lat = p.lat();
+        return pointFactory.apply(projectX(p.lat(), p.lon()), projectY(p.lat(), p.lon()));
+    }
+
+    /**
+     * Returns the projected x-value for a raw latitude and longitude, without boxing or allocating.
+     * @see #projectToPoint(Coordinate, BiFunction)
+     */
+    public static double projectX(double lat, double lon) {
         double dlon = Math.toRadians(lon - ROOT_LON);
         double phi = Math.toRadians(lat);
 
         double b = Math.sin(dlon) * Math.cos(phi);
-        double x = (K0 / 2) * Math.log((1 + b) / (1 - b));
+        return (K0 / 2) * Math.log((1 + b) / (1 - b));
+    }
 
-        double con = Math.atan(Math.tan(phi) / Math.cos(dlon));
-        double y = K0 * (con - Math.toRadians(ROOT_LAT));
+    /**
+     * Returns the projected y-value for a raw latitude and longitude, without boxing or allocating.
+     * @see #projectToPoint(Coordinate, BiFunction)
+     */
+    public static double projectY(double lat, double lon) {
+        double dlon = Math.toRadians(lon - ROOT_LON);
+        double phi = Math.toRadians(lat);
 
-        return pointFactory.apply(x, y);
+        double con = Math.atan(Math.tan(phi) / Math.cos(dlon));
+        return K0 * (con - Math.toRadians(ROOT_LAT));
     }
 
     /**
@@ -73,10 +91,17 @@ public class Spatial {
      * @source https://www.movable-type.co.uk/scripts/latlong.html
      */
     public static double bearing(Coordinate v, Coordinate w) {
-        double phi1 = Math.toRadians(v.lat());
-        double phi2 = Math.toRadians(w.lat());
-        double lambda1 = Math.toRadians(v.lon());
-        double lambda2 = Math.toRadians(w.lon());
+        return bearing(v.lat(), v.lon(), w.lat(), w.lon());
+    }
+
+    /**
+     * Returns the initial bearing between vertices v and w in degrees, as described above.
+     */
+    public static double bearing(double latV, double lonV, double latW, double lonW) {
+        double phi1 = Math.toRadians(latV);
+        double phi2 = Math.toRadians(latW);
+        double lambda1 = Math.toRadians(lonV);
+        double lambda2 = Math.toRadians(lonW);
 
         double y = Math.sin(lambda2 - lambda1) * Math.cos(phi2);
         double x = Math.cos(phi1) * Math.sin(phi2);
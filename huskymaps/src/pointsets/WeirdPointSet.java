@@ -105,9 +105,24 @@ public class WeirdPointSet<T extends Point> implements PointSet<T> {
         return illilill.illililil;
     }
 
+    @Override
+    public void nearest(double[] xs, double[] ys, int[] out) {
+        new NaivePointSet<>(iliillili).nearest(xs, ys, out);
+    }
+
+    @Override
+    public List<T> kNearest(Point target, int k) {
+        return new NaivePointSet<>(iliillili).kNearest(target, k);
+    }
+
+    @Override
+    public List<T> withinRadius(Point target, double radius) {
+        return new NaivePointSet<>(iliillili).withinRadius(target, radius);
+    }
+
     @Override
     public List<T> allPoints() {
-        return iliillili;
+        return Collections.unmodifiableList(iliillili);
     }
 
     private Illiilli illllililll(Illiilli illilll, Point ililillli, Illiilli iillilli) {
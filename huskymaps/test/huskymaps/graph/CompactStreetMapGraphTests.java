@@ -0,0 +1,114 @@
+package huskymaps.graph;
+
+import edu.washington.cse373.BaseTest;
+import graphpathfinding.IndexedAStarPathFinder;
+import graphpathfinding.ShortestPathResult;
+import graphpathfinding.WeightedEdge;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static huskymaps.TestConstants.TEST_DATA_ROOT;
+import static huskymaps.utils.Constants.PLACES_RESOURCE_NAME;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class CompactStreetMapGraphTests extends BaseTest {
+    private static final File OSM_DB_PATH_TINY = TEST_DATA_ROOT.resolve("tiny.osm.gz").toFile();
+    private StreetMapGraph graph;
+
+    @BeforeAll
+    void setUp() {
+        graph = StreetMapGraph.fromFileAndResource(OSM_DB_PATH_TINY, PLACES_RESOURCE_NAME);
+    }
+
+    @Test
+    void compact_hasSameEdgesAsGraph() {
+        CompactStreetMapGraph compact = graph.compact();
+        assertThat(compact.numVertices()).isEqualTo(graph.allNodes().size());
+        for (Node node : graph.allNodes()) {
+            int v = compact.indexOf(node);
+            assertThat(compact.vertexAt(v)).isEqualTo(node);
+
+            List<String> expected = new ArrayList<>();
+            for (WeightedEdge<Node> edge : graph.neighbors(node)) {
+                expected.add(edge.to().id() + " " + edge.weight() + " " + edge.name());
+            }
+            List<String> actual = new ArrayList<>();
+            for (int i = 0; i < compact.outDegree(v); i += 1) {
+                actual.add(compact.vertexAt(compact.neighbor(v, i)).id() + " "
+                    + compact.neighborWeight(v, i) + " "
+                    + compact.name(compact.neighborNameId(v, i)));
+            }
+            assertThat(actual).as("edges out of %s", node).containsExactlyInAnyOrderElementsOf(expected);
+        }
+    }
+
+    @Test
+    void compact_isRebuiltAfterGraphChanges() {
+        StreetMapGraph g = new StreetMapGraph();
+        Node a = new Node(1, 47.6, -122.3, null, 0);
+        Node b = new Node(2, 47.7, -122.3, null, 0);
+        g.addNode(a);
+        g.addNode(b);
+        assertThat(g.compact().outDegree(g.compact().indexOf(a))).isEqualTo(0);
+
+        g.addWeightedEdge(a, b, "road");
+        CompactStreetMapGraph compact = g.compact();
+        assertThat(compact.outDegree(compact.indexOf(a))).isEqualTo(1);
+        assertThat(compact.indexOf(3L)).isEqualTo(-1);
+    }
+
+    @Test
+    void edgeIndex_findsEveryEdge() {
+        CompactStreetMapGraph compact = graph.compact();
+        for (int v = 0; v < compact.numVertices(); v += 1) {
+            for (int i = 0; i < compact.outDegree(v); i += 1) {
+                int e = compact.edgeIndex(v, compact.neighbor(v, i));
+                assertThat(e).isNotNegative();
+                assertThat(compact.edgeTarget(e)).isEqualTo(compact.neighbor(v, i));
+                assertThat(compact.edgeWeight(e)).isLessThanOrEqualTo(compact.neighborWeight(v, i));
+            }
+        }
+        Node a = compact.vertexAt(compact.indexOf(11L));
+        Node b = compact.vertexAt(compact.indexOf(66L));
+        assertThat(graph.edge(a, b)).isNull();
+        assertThat(compact.edgeIndex(compact.indexOf(a), compact.indexOf(b))).isEqualTo(-1);
+    }
+
+    @Test
+    void edge_matchesNeighbors() {
+        for (Node node : graph.allNodes()) {
+            for (WeightedEdge<Node> expected : graph.neighbors(node)) {
+                WeightedEdge<Node> actual = graph.edge(node, expected.to());
+                assertThat(actual.to()).isEqualTo(expected.to());
+                assertThat(actual.weight()).isEqualTo(expected.weight());
+                assertThat(actual.name()).isEqualTo(expected.name());
+            }
+        }
+    }
+
+    @Test
+    void findShortestPath_recordingEdges_returnsEdgesAlongSolution() {
+        CompactStreetMapGraph compact = graph.compact();
+        Node start = compact.vertexAt(compact.indexOf(41L));
+        Node end = compact.vertexAt(compact.indexOf(46L));
+        ShortestPathResult<Node> result = new IndexedAStarPathFinder<>(compact, true)
+            .findShortestPath(start, end, Duration.ofSeconds(1));
+        List<Node> solution = result.solution();
+        int[] edges = result.solutionEdges();
+        assertThat(edges).hasSize(solution.size() - 1);
+        double weight = 0;
+        for (int i = 0; i < edges.length; i += 1) {
+            assertThat(compact.vertexAt(compact.edgeTarget(edges[i]))).isEqualTo(solution.get(i + 1));
+            weight += compact.edgeWeight(edges[i]);
+        }
+        assertThat(weight).isCloseTo(result.solutionWeight(), within(1e-9));
+        assertThat(new IndexedAStarPathFinder<>(compact).findShortestPath(start, end, Duration.ofSeconds(1))
+            .solutionEdges()).isNull();
+    }
+}
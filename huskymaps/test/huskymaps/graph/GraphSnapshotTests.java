@@ -0,0 +1,145 @@
+package huskymaps.graph;
+
+import edu.washington.cse373.BaseTest;
+import graphpathfinding.WeightedEdge;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static huskymaps.TestConstants.TEST_DATA_ROOT;
+import static huskymaps.utils.Constants.PLACES_RESOURCE_NAME;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class GraphSnapshotTests extends BaseTest {
+    private static final File OSM_DB_PATH_TINY = TEST_DATA_ROOT.resolve("tiny.osm.gz").toFile();
+    private static final long STAMP = 373;
+    private StreetMapGraph graph;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeAll
+    void setUp() {
+        graph = StreetMapGraph.fromFileAndResource(OSM_DB_PATH_TINY, PLACES_RESOURCE_NAME);
+    }
+
+    private static List<String> describeEdges(StreetMapGraph g, Node node) {
+        List<String> edges = new ArrayList<>();
+        for (WeightedEdge<Node> edge : g.neighbors(node)) {
+            edges.add(edge.to().id() + " " + edge.weight() + " " + edge.name());
+        }
+        return edges;
+    }
+
+    @Test
+    void read_afterWrite_hasSameNodesAndEdges() throws IOException {
+        Path path = tempDir.resolve("tiny.snapshot");
+        GraphSnapshot.write(graph, STAMP, path);
+        StreetMapGraph copy = GraphSnapshot.read(path);
+
+        assertThat(copy.allNodes()).hasSameSizeAs(graph.allNodes());
+        for (int i = 0; i < graph.allNodes().size(); i += 1) {
+            Node expected = graph.allNodes().get(i);
+            Node actual = copy.allNodes().get(i);
+            assertThat(actual.toString()).isEqualTo(expected.toString());
+            assertThat(describeEdges(copy, actual)).as("edges out of %s", expected)
+                .containsExactlyInAnyOrderElementsOf(describeEdges(graph, expected));
+        }
+    }
+
+    @Test
+    void isFresh_onlyForMatchingStamp() throws IOException {
+        Path path = tempDir.resolve("stamped.snapshot");
+        assertThat(GraphSnapshot.isFresh(path, STAMP)).isFalse();
+
+        GraphSnapshot.write(graph, STAMP, path);
+        assertThat(GraphSnapshot.isFresh(path, STAMP)).isTrue();
+        assertThat(GraphSnapshot.isFresh(path, STAMP + 1)).isFalse();
+    }
+
+    @Test
+    void isFresh_andRead_rejectOtherFiles() throws IOException {
+        Path path = tempDir.resolve("not-a.snapshot");
+        Files.writeString(path, "definitely not a graph snapshot");
+        assertThat(GraphSnapshot.isFresh(path, STAMP)).isFalse();
+        assertThatThrownBy(() -> GraphSnapshot.read(path)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void read_withTruncatedOrCorruptSnapshot_throwsIOException() throws IOException {
+        Path path = tempDir.resolve("good.snapshot");
+        GraphSnapshot.write(graph, STAMP, path);
+        byte[] bytes = Files.readAllBytes(path);
+
+        Path damaged = tempDir.resolve("damaged.snapshot");
+        for (int length : new int[] {28, 40, bytes.length / 2, bytes.length - 1}) {
+            Files.write(damaged, Arrays.copyOf(bytes, length));
+            assertThatThrownBy(() -> GraphSnapshot.read(damaged)).as("truncated to %d bytes", length)
+                .isInstanceOf(IOException.class);
+        }
+
+        // The first name's length, right after the header, and then the number of nodes.
+        for (int offset : new int[] {28, 20}) {
+            byte[] corrupt = bytes.clone();
+            ByteBuffer.wrap(corrupt).putInt(offset, -5);
+            Files.write(damaged, corrupt);
+            assertThatThrownBy(() -> GraphSnapshot.read(damaged)).as("-5 at %d", offset)
+                .isInstanceOf(IOException.class);
+        }
+
+        // The number of landmarks, the last edge's name id before it, and the first landmark after it.
+        int numLandmarks = graph.landmarks().numLandmarks();
+        int landmarksOffset = bytes.length - Integer.BYTES
+            - numLandmarks * (Integer.BYTES + 2 * Double.BYTES * graph.allNodes().size());
+        int[] offsets = {landmarksOffset, landmarksOffset - Integer.BYTES, landmarksOffset + Integer.BYTES};
+        for (int offset : offsets) {
+            byte[] corrupt = bytes.clone();
+            ByteBuffer.wrap(corrupt).putInt(offset, Integer.MAX_VALUE);
+            Files.write(damaged, corrupt);
+            assertThatThrownBy(() -> GraphSnapshot.read(damaged)).as("corrupt int at %d", offset)
+                .isInstanceOf(IOException.class);
+        }
+    }
+
+    @Test
+    void read_afterWrite_hasSameLandmarks() throws IOException {
+        Path path = tempDir.resolve("landmarks.snapshot");
+        GraphSnapshot.write(graph, STAMP, path);
+        StreetMapGraph copy = GraphSnapshot.read(path);
+        assertThat(copy.landmarks().landmarks()).isNotEmpty().containsExactly(graph.landmarks().landmarks());
+        int n = graph.allNodes().size();
+        for (int v = 0; v < n; v += 1) {
+            for (int goal = 0; goal < n; goal += 1) {
+                assertThat(copy.landmarks().estimatedDistanceToGoal(v, goal))
+                    .isEqualTo(graph.landmarks().estimatedDistanceToGoal(v, goal));
+            }
+        }
+    }
+
+    @Test
+    void read_thenAddEdge_keepsTheSnapshotEdges() throws IOException {
+        Path path = tempDir.resolve("editable.snapshot");
+        GraphSnapshot.write(graph, STAMP, path);
+        StreetMapGraph copy = GraphSnapshot.read(path);
+        Node from = copy.allNodes().get(0);
+        Node to = copy.allNodes().get(copy.allNodes().size() - 1);
+        int before = copy.compact().numEdges();
+
+        copy.addWeightedEdge(from, to, 1.0, "shortcut");
+        assertThat(copy.compact().numEdges()).isEqualTo(before + 1);
+        assertThat(copy.edge(from, to).name()).isEqualTo("shortcut");
+        for (Node node : graph.allNodes()) {
+            assertThat(describeEdges(copy, node)).containsAll(describeEdges(graph, node));
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package huskymaps.graph;
+
+import edu.washington.cse373.BaseTest;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static huskymaps.TestConstants.TEST_DATA_ROOT;
+import static huskymaps.graph.OSMStreamLoaderTests.describe;
+import static huskymaps.graph.OSMStreamLoaderTests.places;
+
+public class OSMPbfLoaderTests extends BaseTest {
+    /** Loads the XML file with the stream loader and the PBF file on 1 and 4 threads, and compares them. */
+    private List<String> assertPbfMatchesXml(String xmlFile, String pbfFile) throws IOException {
+        StreetMapGraph xml = new StreetMapGraph();
+        OSMStreamLoader.populateGraph(xml, Files.newInputStream(TEST_DATA_ROOT.resolve(xmlFile)), places());
+        List<String> expected = describe(xml);
+
+        byte[] pbf = Files.readAllBytes(TEST_DATA_ROOT.resolve(pbfFile));
+        for (int numThreads : new int[] {1, 4}) {
+            StreetMapGraph graph = new StreetMapGraph();
+            OSMPbfLoader.populateGraph(graph, new ByteArrayInputStream(pbf), places(), numThreads);
+            assertThat(describe(graph)).as("%d threads", numThreads).isEqualTo(expected);
+        }
+        return expected;
+    }
+
+    /** tiny.osm.pbf holds the same data as tiny.osm.gz, in dense and plain node groups and in zlib and raw blobs. */
+    @Test
+    void populateGraph_withTinyFile_matchesXmlLoader() throws IOException {
+        assertThat(assertPbfMatchesXml("tiny.osm.gz", "tiny.osm.pbf")).hasSize(7 + 2 * 8);
+    }
+
+    /** named.osm.pbf is laid out like tiny.osm.pbf, with tagged nodes in both the dense and plain groups. */
+    @Test
+    void populateGraph_withNamedNodes_matchesXmlLoaderNamesAndImportances() throws IOException {
+        List<String> expected = assertPbfMatchesXml("named.osm.gz", "named.osm.pbf");
+        assertThat(expected).contains(
+            "1 47.6097 -122.3421 Pike Place Market 9",
+            "2 47.6062 -122.3331 Café \"Z\" 5",
+            "3 47.61 -122.33 null 0",
+            "4 47.6123 -122.3 Not a place 0",
+            "6 47.63 -122.32 Café \"Z\" 5",
+            "7 47.64 -122.305 Pike Place Market 9");
+        assertThat(expected).hasSize(7 + 2 * 5);
+    }
+
+    @Test
+    void fromFileAndResource_withPbfFile_readsItAsPbf() {
+        StreetMapGraph graph = StreetMapGraph.fromFileAndResource(
+            TEST_DATA_ROOT.resolve("tiny.osm.pbf").toFile(), "/places.json");
+        assertThat(graph.allNodes()).hasSize(7);
+    }
+
+    @Test
+    void populateGraph_withEmptyFile_addsNothing() {
+        StreetMapGraph graph = new StreetMapGraph();
+        OSMPbfLoader.populateGraph(graph, new ByteArrayInputStream(new byte[0]), places(), 2);
+        assertThat(graph.allNodes()).isEmpty();
+    }
+
+    @Test
+    void read_withTruncatedOrCorruptFile_throwsIOException() throws IOException {
+        byte[] pbf = Files.readAllBytes(TEST_DATA_ROOT.resolve("tiny.osm.pbf"));
+        int headerBlobEnd = Integer.BYTES + ByteBuffer.wrap(pbf).getInt() + headerDataSize(pbf);
+        for (int length : new int[] {2, 10, headerBlobEnd - 1, headerBlobEnd + 2, pbf.length / 2, pbf.length - 1}) {
+            assertThatThrownBy(() -> read(Arrays.copyOf(pbf, length)))
+                .as("truncated to %d bytes", length)
+                .isInstanceOf(IOException.class);
+        }
+
+        for (int headerSize : new int[] {-1, Integer.MAX_VALUE, 1 << 20}) {
+            byte[] corrupt = pbf.clone();
+            ByteBuffer.wrap(corrupt).putInt(0, headerSize);
+            assertThatThrownBy(() -> read(corrupt))
+                .as("blob header size %d", headerSize)
+                .isInstanceOf(IOException.class);
+        }
+
+        // Garbage in place of the first data blob's zlib stream.
+        byte[] corrupt = pbf.clone();
+        Arrays.fill(corrupt, headerBlobEnd + 40, headerBlobEnd + 80, (byte) 0x5a);
+        for (int numThreads : new int[] {1, 4}) {
+            assertThatThrownBy(() -> read(corrupt, numThreads))
+                .as("%d threads", numThreads)
+                .isInstanceOf(IOException.class);
+        }
+    }
+
+    @Test
+    void populateGraph_withTruncatedFile_reportsTheErrorAndAddsNoWays() throws IOException {
+        byte[] pbf = Files.readAllBytes(TEST_DATA_ROOT.resolve("tiny.osm.pbf"));
+        StreetMapGraph graph = new StreetMapGraph();
+        OSMPbfLoader.populateGraph(graph, new ByteArrayInputStream(Arrays.copyOf(pbf, pbf.length - 1)), places(), 1);
+        // The ways are in the truncated last blob, so none of them are added.
+        for (Node node : graph.allNodes()) {
+            assertThat(graph.neighbors(node)).isEmpty();
+        }
+    }
+
+    private static void read(byte[] pbf) throws IOException {
+        read(pbf, 2);
+    }
+
+    private static void read(byte[] pbf, int numThreads) throws IOException {
+        OSMPbfLoader.read(new StreetMapGraph(), new ByteArrayInputStream(pbf), Map.of(), numThreads);
+    }
+
+    /** Returns the datasize of the file's first blob, the varint after field 3 (0x18) of its short header. */
+    private int headerDataSize(byte[] pbf) {
+        int headerEnd = Integer.BYTES + ByteBuffer.wrap(pbf).getInt();
+        int i = headerEnd - 1;
+        while ((pbf[i - 1] & 0x80) != 0) {
+            i -= 1;
+        }
+        assertThat(pbf[i - 1]).isEqualTo((byte) 0x18);
+        int value = 0;
+        for (int shift = 0; i < headerEnd; i += 1, shift += 7) {
+            value |= (pbf[i] & 0x7f) << shift;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,169 @@
+package huskymaps.graph;
+
+import edu.washington.cse373.BaseTest;
+import graphpathfinding.WeightedEdge;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+import static huskymaps.TestConstants.TEST_DATA_ROOT;
+
+public class OSMStreamLoaderTests extends BaseTest {
+    /** Shared with OSMPbfLoaderTests, whose named.osm.pbf has nodes with these names. */
+    static final String PLACES = "{\"Café \\\"Z\\\"\": 5, \"Pike Place Market\": 9}";
+
+    /** Exercises the parts of XML that the stream loader has to handle itself. */
+    private static final String XML = String.join("\n",
+        "<?xml version='1.0' encoding='UTF-8'?>",
+        "<!-- A comment with <node id=\"99\"/> in it -->",
+        "<!DOCTYPE osm>",
+        "<osm version=\"0.6\">",
+        "  <bounds minlat=\"47.5\" minlon=\"-122.5\" maxlat=\"47.75\" maxlon=\"-122.2\"/>",
+        "  <node id=\"1\" lat=\"47.6097\" lon=\"-122.3421\">",
+        "    <tag k=\"name\" v=\"  Pike Place Market \"/>",
+        "    <tag k=\"amenity\" v=\"marketplace\"/>",
+        "  </node>",
+        "  <node lon='-122.3331' lat='47.6062' id='2' >",
+        "    <tag v='Caf&#233; &quot;Z&quot;' k='name' />",
+        "  </node>",
+        "  <node id = \"3\" lat = \"47.61\" lon = \"-122.33\"/>",
+        "  <node id=\"4\" lat=\"4.7612345678901234E1\" lon=\"-122.300000000000001\"></node>",
+        "  <node id=\"5\" lat=\"47.62\" lon=\"-122.31\" version=\"1\">"
+            + "<tag k=\"name\" v=\"A &amp; B &lt;&gt; &apos;C&apos; &#x1F600;\"/></node>",
+        "  <way id=\"10\">",
+        "    <nd ref=\"1\"/>",
+        "    <nd ref=\"2\"/>",
+        "    <nd ref=\"3\"/>",
+        "    <tag k=\"name\" v=\"First&#10;Avenue\tSouth\"/>",
+        "    <tag k=\"highway\" v=\"primary\"/>",
+        "  </way>",
+        "  <way id=\"11\">",
+        "    <nd ref=\"3\"/><nd ref=\"4\"/><nd ref=\"5\"/>",
+        "    <tag k=\"highway\" v=\"residential\"/>",
+        "  </way>",
+        "  <way id=\"12\">",
+        "    <nd ref=\"1\"/>",
+        "    <nd ref=\"5\"/>",
+        "    <tag k=\"name\" v=\"Footpath\"/>",
+        "    <tag k=\"highway\" v=\"footway\"/>",
+        "  </way>",
+        "  <relation id=\"20\">",
+        "    <member type=\"way\" ref=\"10\" role=\"\"/>",
+        "    <tag k=\"name\" v=\"Not a node name\"/>",
+        "  </relation>",
+        "</osm>",
+        "");
+
+    private static byte[] gzip(String s) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(s.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    static InputStream places() {
+        return new ByteArrayInputStream(PLACES.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Describes every node, in order, and every edge, sorted, of the graph. */
+    static List<String> describe(StreetMapGraph graph) {
+        List<String> result = new ArrayList<>();
+        for (Node node : graph.allNodes()) {
+            result.add(node.id() + " " + node.lat() + " " + node.lon() + " " + node.name() + " " + node.importance());
+        }
+        List<String> edges = new ArrayList<>();
+        for (Node node : graph.allNodes()) {
+            for (WeightedEdge<Node> edge : graph.neighbors(node)) {
+                edges.add(edge.from().id() + " -> " + edge.to().id() + " " + edge.weight() + " " + edge.name());
+            }
+        }
+        Collections.sort(edges);
+        result.addAll(edges);
+        return result;
+    }
+
+    private static List<String> loadWithSax(byte[] osmGzip) {
+        StreetMapGraph graph = new StreetMapGraph();
+        OSMGraphLoader.populateGraph(graph, new ByteArrayInputStream(osmGzip), places());
+        return describe(graph);
+    }
+
+    private static List<String> loadWithStream(byte[] osmGzip, int chunkSize) {
+        StreetMapGraph graph = new StreetMapGraph();
+        OSMStreamLoader.populateGraph(graph, new ByteArrayInputStream(osmGzip), places(), chunkSize);
+        return describe(graph);
+    }
+
+    @Test
+    void populateGraph_withTinyFile_matchesSaxLoader() throws IOException {
+        byte[] osmGzip = Files.readAllBytes(TEST_DATA_ROOT.resolve("tiny.osm.gz"));
+        List<String> expected = loadWithSax(osmGzip);
+        assertThat(expected).isNotEmpty();
+        assertThat(loadWithStream(osmGzip, 1 << 16)).isEqualTo(expected);
+    }
+
+    @Test
+    void populateGraph_withTrickyXml_matchesSaxLoaderForAnyChunkSize() throws IOException {
+        byte[] osmGzip = gzip(XML);
+        List<String> expected = loadWithSax(osmGzip);
+        assertThat(expected).contains(
+            "1 47.6097 -122.3421 Pike Place Market 9",
+            "2 47.6062 -122.3331 Café \"Z\" 5",
+            "5 47.62 -122.31 A & B <> 'C' 😀 0");
+        for (int chunkSize : new int[] {1, 2, 7, 64, 1 << 16}) {
+            assertThat(loadWithStream(osmGzip, chunkSize)).as("chunk size %d", chunkSize).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void populateGraph_withMissingNode_skipsItsEdges() throws IOException {
+        String xml = "<osm><node id=\"1\" lat=\"47.6\" lon=\"-122.3\"/><node id=\"2\" lat=\"47.7\" lon=\"-122.3\"/>"
+            + "<way id=\"10\"><nd ref=\"1\"/><nd ref=\"404\"/><nd ref=\"2\"/><nd ref=\"1\"/>"
+            + "<tag k=\"highway\" v=\"tertiary\"/></way></osm>";
+        List<String> graph = loadWithStream(gzip(xml), 1 << 16);
+        assertThat(graph.stream().filter(s -> s.contains("->"))).hasSize(2);
+    }
+
+    @Test
+    void parseDouble_matchesDoubleParseDouble() {
+        Random random = new Random(373);
+        List<String> inputs = new ArrayList<>(List.of("0", "-0.0", "47.5", "-122.5", "+1.25", "1e3", "1.5E-3",
+            "123456789012345678.9", "0.000000000000000000000001"));
+        for (int i = 0; i < 1000; i += 1) {
+            inputs.add(String.format(Locale.ROOT, "%.7f", random.nextDouble() * 360 - 180));
+            inputs.add(Double.toString(random.nextDouble() * 180 - 90));
+        }
+        for (String input : inputs) {
+            byte[] bytes = input.getBytes(StandardCharsets.US_ASCII);
+            assertThat(OSMStreamLoader.parseDouble(bytes, bytes.length)).as(input).isEqualTo(Double.parseDouble(input));
+        }
+        byte[] bad = "12a".getBytes(StandardCharsets.US_ASCII);
+        assertThatThrownBy(() -> OSMStreamLoader.parseDouble(bad, bad.length))
+            .isInstanceOf(NumberFormatException.class);
+    }
+
+    @Test
+    void parseLong_matchesLongParseLong() {
+        for (String input : List.of("0", "7", "-42", "+42", "4611686018427387904", "-9223372036854775808")) {
+            byte[] bytes = input.getBytes(StandardCharsets.US_ASCII);
+            assertThat(OSMStreamLoader.parseLong(bytes, bytes.length)).as(input).isEqualTo(Long.parseLong(input));
+        }
+        for (String input : List.of("", "-", "1.5", "9223372036854775808")) {
+            byte[] bytes = input.getBytes(StandardCharsets.US_ASCII);
+            assertThatThrownBy(() -> OSMStreamLoader.parseLong(bytes, bytes.length))
+                .as(input).isInstanceOf(NumberFormatException.class);
+        }
+    }
+}
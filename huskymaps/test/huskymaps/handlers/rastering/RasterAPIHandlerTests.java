@@ -0,0 +1,63 @@
+package huskymaps.handlers.rastering;
+
+import edu.washington.cse373.BaseTest;
+import huskymaps.rastering.DefaultRasterer;
+import huskymaps.rastering.Tile;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+public class RasterAPIHandlerTests extends BaseTest {
+    private static RasterRequest request(double ullat, double ullon, double lrlat, double lrlon) {
+        return request(ullat, ullon, lrlat, lrlon, false);
+    }
+
+    private static RasterRequest request(double ullat, double ullon, double lrlat, double lrlon, boolean gridOnly) {
+        return RasterRequest.from(Map.of(
+            "ullat", ullat,
+            "ullon", ullon,
+            "lrlat", lrlat,
+            "lrlon", lrlon,
+            "depth", 1,
+            "grid_only", gridOnly
+        ));
+    }
+
+    @Test
+    void processRequest_forSameTileGrid_reusesRenderedResult() {
+        RasterAPIHandler handler = new RasterAPIHandler(new DefaultRasterer());
+        RenderedRasterResult first = handler.processRequest(request(47.7, -122.6, 47.6, -122.4), null);
+        // A slightly different viewport that's covered by the same tiles
+        RenderedRasterResult second = handler.processRequest(request(47.69, -122.59, 47.61, -122.41), null);
+
+        assertThat(first.success).isTrue();
+        assertThat(second).isSameAs(first);
+        assertThat(handler.rasterCache().hits()).isEqualTo(1);
+        assertThat(handler.rasterCache().misses()).isEqualTo(1);
+    }
+
+    @Test
+    void processRequest_forDifferentTileGrids_rendersEach() {
+        RasterAPIHandler handler = new RasterAPIHandler(new DefaultRasterer());
+        RenderedRasterResult first = handler.processRequest(request(47.7, -122.6, 47.6, -122.4), null);
+        RenderedRasterResult second = handler.processRequest(request(47.7, -122.3, 47.6, -122.1), null);
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(handler.rasterCache().misses()).isEqualTo(2);
+    }
+
+    @Test
+    void processRequest_forGridOnly_returnsGridWithoutRendering() {
+        RasterAPIHandler handler = new RasterAPIHandler(new DefaultRasterer());
+        RenderedRasterResult result = handler.processRequest(request(47.7, -122.6, 47.6, -122.4, true), null);
+        RenderedRasterResult rendered = handler.processRequest(request(47.7, -122.6, 47.6, -122.4), null);
+
+        assertThat(result.success).isTrue();
+        assertThat(result.image).isNull();
+        assertThat(result.grid).isNotEmpty();
+        assertThat(result.grid[0][0]).isEqualTo(new Tile(1, 0, 0));
+        assertThat(result.ullat).isEqualTo(rendered.ullat);
+        assertThat(result.lrlon).isEqualTo(rendered.lrlon);
+        assertThat(handler.rasterCache().misses()).isEqualTo(1);
+    }
+}
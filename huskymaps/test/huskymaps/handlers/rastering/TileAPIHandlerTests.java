@@ -0,0 +1,185 @@
+package huskymaps.handlers.rastering;
+
+import edu.washington.cse373.BaseTest;
+import huskymaps.rastering.Tile;
+import huskymaps.rastering.TileStore;
+import org.junit.jupiter.api.Test;
+import spark.HaltException;
+import spark.Request;
+import spark.Response;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static huskymaps.utils.Constants.MAX_DEPTH;
+import static huskymaps.utils.Constants.NOT_FOUND_RESPONSE;
+import static huskymaps.utils.Constants.NOT_MODIFIED_RESPONSE;
+import static huskymaps.utils.Constants.NUM_X_TILES_AT_DEPTH;
+import static huskymaps.utils.Constants.NUM_Y_TILES_AT_DEPTH;
+import static huskymaps.utils.Constants.TILE_MAX_AGE_SECONDS;
+
+public class TileAPIHandlerTests extends BaseTest {
+    private static final Tile TILE = new Tile(1, 2, 1);
+    private static final byte[] JPEG = {(byte) 0xff, (byte) 0xd8, 1, 2, 3, (byte) 0xff, (byte) 0xd9};
+
+    /** A store holding only TILE, so the tests don't depend on the tile images. */
+    private static class OneTileStore extends TileStore {
+        final StoredTile stored = new StoredTile(TILE, JPEG);
+
+        OneTileStore() {
+            super(1024);
+        }
+
+        @Override
+        public StoredTile get(Tile tile) {
+            return tile.equals(TILE) ? stored : null;
+        }
+    }
+
+    private static class FakeRequest extends Request {
+        private final Map<String, String> params = new HashMap<>();
+        private final String ifNoneMatch;
+
+        FakeRequest(String depth, String x, String y, String ifNoneMatch) {
+            params.put(":depth", depth);
+            params.put(":x", x);
+            params.put(":y", y);
+            this.ifNoneMatch = ifNoneMatch;
+        }
+
+        @Override
+        public String params(String param) {
+            return params.get(param);
+        }
+
+        @Override
+        public String headers(String header) {
+            return header.equals("If-None-Match") ? ifNoneMatch : null;
+        }
+    }
+
+    private static class RecordingResponse extends Response {
+        final Map<String, String> headers = new HashMap<>();
+        int status = 200;
+        String type;
+
+        @Override
+        public void header(String header, String value) {
+            headers.put(header, value);
+        }
+
+        @Override
+        public void status(int statusCode) {
+            this.status = statusCode;
+        }
+
+        @Override
+        public void type(String contentType) {
+            this.type = contentType;
+        }
+    }
+
+    @Test
+    void parseTile_withTileInBounds_returnsTile() {
+        assertThat(TileAPIHandler.parseTile("1", "2", "1")).isEqualTo(TILE);
+        assertThat(TileAPIHandler.parseTile("0", "0", "0")).isEqualTo(new Tile(0, 0, 0));
+        int last = MAX_DEPTH;
+        assertThat(TileAPIHandler.parseTile(String.valueOf(last), String.valueOf(NUM_X_TILES_AT_DEPTH[last] - 1),
+            String.valueOf(NUM_Y_TILES_AT_DEPTH[last] - 1))).isNotNull();
+    }
+
+    @Test
+    void parseTile_withOutOfBoundsOrNonNumericValues_returnsNull() {
+        String[][] invalid = {
+            {"-1", "0", "0"},
+            {String.valueOf(MAX_DEPTH + 1), "0", "0"},
+            {"0", String.valueOf(NUM_X_TILES_AT_DEPTH[0]), "0"},
+            {"0", "0", String.valueOf(NUM_Y_TILES_AT_DEPTH[0])},
+            {"0", "-1", "0"},
+            {"0", "0", "-1"},
+            {"one", "0", "0"},
+            {"0", "0.5", "0"},
+            {"0", "0", "0.jpg"},
+            {"", "0", "0"},
+            {null, "0", "0"},
+            {"99999999999", "0", "0"},
+        };
+        for (String[] values : invalid) {
+            assertThat(TileAPIHandler.parseTile(values[0], values[1], values[2])).as(String.join("/", values)).isNull();
+        }
+    }
+
+    @Test
+    void parseRequest_withNoSuchTile_haltsWith404() {
+        TileAPIHandler handler = new TileAPIHandler(new OneTileStore());
+        assertThat(handler.parseRequest(new FakeRequest("1", "2", "1", "\"a\"")))
+            .isEqualTo(new TileRequest(TILE, "\"a\""));
+        for (FakeRequest request : new FakeRequest[] {
+            new FakeRequest("1", "4", "1", null),
+            new FakeRequest("x", "2", "1", null),
+        }) {
+            assertThatThrownBy(() -> handler.parseRequest(request))
+                .isInstanceOfSatisfying(HaltException.class,
+                    e -> assertThat(e.getStatusCode()).isEqualTo(NOT_FOUND_RESPONSE));
+        }
+    }
+
+    @Test
+    void matchesETag_comparesListsWildcardsAndWeakTags() {
+        String etag = "\"d1_x2_y1.jpg-1a2b\"";
+        assertThat(TileAPIHandler.matchesETag(null, etag)).isFalse();
+        assertThat(TileAPIHandler.matchesETag("", etag)).isFalse();
+        assertThat(TileAPIHandler.matchesETag(etag, etag)).isTrue();
+        assertThat(TileAPIHandler.matchesETag("W/" + etag, etag)).isTrue();
+        assertThat(TileAPIHandler.matchesETag("\"other\", " + etag, etag)).isTrue();
+        assertThat(TileAPIHandler.matchesETag(" * ", etag)).isTrue();
+        assertThat(TileAPIHandler.matchesETag("\"d1_x2_y1.jpg-1a2c\"", etag)).isFalse();
+        assertThat(TileAPIHandler.matchesETag("d1_x2_y1.jpg-1a2b", etag)).isFalse();
+    }
+
+    @Test
+    void processRequest_withoutCachedCopy_sendsJpegWithCachingHeaders() {
+        OneTileStore store = new OneTileStore();
+        RecordingResponse response = new RecordingResponse();
+        byte[] body = new TileAPIHandler(store).processRequest(new TileRequest(TILE, null), response);
+
+        assertThat(body).isEqualTo(JPEG);
+        assertThat(response.status).isEqualTo(200);
+        assertThat(response.type).isEqualTo("image/jpeg");
+        assertThat(response.headers).containsEntry("ETag", store.stored.etag)
+            .containsEntry("Cache-Control", "public, max-age=" + TILE_MAX_AGE_SECONDS);
+    }
+
+    @Test
+    void processRequest_withMatchingIfNoneMatch_sends304WithoutBody() {
+        OneTileStore store = new OneTileStore();
+        TileAPIHandler handler = new TileAPIHandler(store);
+        RecordingResponse response = new RecordingResponse();
+        byte[] body = handler.processRequest(new TileRequest(TILE, store.stored.etag), response);
+
+        assertThat(body).isEmpty();
+        assertThat(response.status).isEqualTo(NOT_MODIFIED_RESPONSE);
+        assertThat(response.type).isNull();
+        assertThat(response.headers).containsEntry("ETag", store.stored.etag)
+            .containsKey("Cache-Control");
+
+        RecordingResponse stale = new RecordingResponse();
+        assertThat(handler.processRequest(new TileRequest(TILE, "\"stale\""), stale)).isEqualTo(JPEG);
+        assertThat(stale.status).isEqualTo(200);
+    }
+
+    @Test
+    void processRequest_withMissingTile_haltsWith404() {
+        TileAPIHandler handler = new TileAPIHandler(new OneTileStore());
+        RecordingResponse response = new RecordingResponse();
+        assertThatThrownBy(() -> handler.processRequest(new TileRequest(new Tile(1, 0, 0), null), response))
+            .isInstanceOfSatisfying(HaltException.class,
+                e -> assertThat(e.getStatusCode()).isEqualTo(NOT_FOUND_RESPONSE));
+        assertThat(response.headers).isEmpty();
+    }
+
+    @Test
+    void buildJsonResponse_returnsTheBytesUnchanged() {
+        assertThat(new TileAPIHandler(new OneTileStore()).buildJsonResponse(JPEG)).isSameAs(JPEG);
+    }
+}
@@ -0,0 +1,65 @@
+package huskymaps.handlers.routing;
+
+import edu.washington.cse373.BaseTest;
+import huskymaps.graph.Coordinate;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+public class MatrixAPIHandlerTests extends BaseTest {
+    @Test
+    void parseCoordinates_parsesSemicolonSeparatedPairs() {
+        assertThat(MatrixRequest.parseCoordinates("47.65,-122.31;47.61,-122.33")).containsExactly(
+            new Coordinate(47.65, -122.31),
+            new Coordinate(47.61, -122.33)
+        );
+    }
+
+    @Test
+    void writeMatrix_writesRowsInOrderWithNullForUnreachable() throws IOException {
+        StringWriter out = new StringWriter();
+        Stream<double[]> rows = Stream.of(
+            new double[]{0, 1.5},
+            new double[]{Double.POSITIVE_INFINITY, 0}
+        ).parallel();
+        MatrixAPIHandler.writeMatrix(rows, out);
+        assertThat(out.toString()).isEqualTo("{\"distances\":[[0.0,1.5],[null,0.0]]}");
+    }
+
+    @Test
+    void streamMatrix_withWholeMatrixWritten_returnsTrue() {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        assertThat(MatrixAPIHandler.streamMatrix(Stream.of(new double[]{0, 2.5}), body)).isTrue();
+        assertThat(body.toString(StandardCharsets.UTF_8)).isEqualTo("{\"distances\":[[0.0,2.5]]}");
+    }
+
+    @Test
+    void streamMatrix_whenClientDisconnects_stopsWritingWithoutThrowing() {
+        int limit = 16 * 1024;
+        OutputStream disconnected = new OutputStream() {
+            private int written = 0;
+
+            @Override
+            public void write(int b) throws IOException {
+                if (written == limit) {
+                    throw new IOException("Connection reset by peer");
+                }
+                written += 1;
+            }
+        };
+        AtomicInteger computed = new AtomicInteger();
+        Stream<double[]> rows = IntStream.range(0, 10000)
+            .mapToObj(i -> new double[100])
+            .peek(row -> computed.incrementAndGet());
+
+        assertThat(MatrixAPIHandler.streamMatrix(rows, disconnected)).isFalse();
+        assertThat(computed.get()).isLessThan(10000);
+    }
+}
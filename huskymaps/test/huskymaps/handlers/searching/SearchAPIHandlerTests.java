@@ -0,0 +1,53 @@
+package huskymaps.handlers.searching;
+
+import com.google.gson.Gson;
+import edu.washington.cse373.BaseTest;
+import huskymaps.graph.Node;
+import huskymaps.graph.StreetMapGraph;
+import huskymaps.searching.DefaultSearcher;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class SearchAPIHandlerTests extends BaseTest {
+    private static class NamedNode extends Node {
+        NamedNode(long id, double lat, double lon, String name, int importance) {
+            super(id, lat, lon, name, importance);
+        }
+    }
+
+    private static class NodesGraph extends StreetMapGraph {
+        NodesGraph(List<Node> nodes) {
+            this.nodes = nodes;
+        }
+    }
+
+    /** Exposes the handler's processing and its JSON, as the server would send it. */
+    private static class TestHandler extends SearchAPIHandler {
+        TestHandler(List<Node> nodes) {
+            super(new DefaultSearcher(new NodesGraph(nodes)));
+        }
+
+        String json(SearchRequest request) {
+            return (String) buildJsonResponse(processRequest(request, null));
+        }
+    }
+
+    @Test
+    void buildJsonResponse_forFullSearch_hasNamesAndNotNameIds() {
+        TestHandler handler = new TestHandler(List.of(
+            new NamedNode(7, 47.6, -122.3, "Pike Place Market", 3),
+            new NamedNode(8, 47.7, -122.4, "Pine Street", 1)
+        ));
+        String json = handler.json(new SearchRequest("Pike Place Market", true));
+        assertThat(json).doesNotContain("name_id");
+        assertThat(json).isEqualTo(
+            "[{\"lat\":47.6,\"lon\":-122.3,\"name\":\"Pike Place Market\",\"id\":7,\"importance\":3}]");
+    }
+
+    @Test
+    void toJson_withNode_omitsNameId() {
+        assertThat(new Gson().toJson(new NamedNode(7, 47.6, -122.3, "Pike Place Market", 3)))
+            .isEqualTo("{\"lat\":47.6,\"lon\":-122.3,\"id\":7,\"importance\":3}");
+    }
+}
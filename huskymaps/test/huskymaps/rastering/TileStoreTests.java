@@ -0,0 +1,28 @@
+package huskymaps.rastering;
+
+import edu.washington.cse373.BaseTest;
+import org.junit.jupiter.api.Test;
+
+public class TileStoreTests extends BaseTest {
+    @Test
+    void get_forMissingTile_returnsNullWithoutCaching() {
+        TileStore store = new TileStore(1024);
+        assertThat(store.get(new Tile(0, -1, -1))).isNull();
+        assertThat(store.cache().size()).isEqualTo(0);
+    }
+
+    @Test
+    void storedTileETag_isStableForSameBytesAndChangesWithThem() {
+        Tile tile = new Tile(1, 2, 1);
+        TileStore.StoredTile tileA = new TileStore.StoredTile(tile, new byte[] {1, 2, 3});
+        TileStore.StoredTile sameBytes = new TileStore.StoredTile(tile, new byte[] {1, 2, 3});
+        TileStore.StoredTile otherBytes = new TileStore.StoredTile(tile, new byte[] {1, 2, 4});
+        TileStore.StoredTile otherTile = new TileStore.StoredTile(new Tile(1, 2, 0), new byte[] {1, 2, 3});
+
+        assertThat(sameBytes.etag).isEqualTo(tileA.etag);
+        assertThat(otherBytes.etag).isNotEqualTo(tileA.etag);
+        assertThat(otherTile.etag).isNotEqualTo(tileA.etag);
+        // A strong entity tag is a quoted string.
+        assertThat(tileA.etag).startsWith("\"").endsWith("\"").hasSizeGreaterThan(2);
+    }
+}
@@ -0,0 +1,10 @@
+package huskymaps.routing;
+
+import huskymaps.graph.StreetMapGraph;
+
+public class ContractionHierarchyRouterTinyTests extends RouterTinyTests {
+    @Override
+    protected Router createRouter(StreetMapGraph graph) {
+        return new DefaultRouter(graph, true);
+    }
+}
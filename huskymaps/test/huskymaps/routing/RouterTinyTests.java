@@ -1,6 +1,9 @@
 package huskymaps.routing;
 
 import edu.washington.cse373.BaseTest;
+import graphpathfinding.IndexedAStarPathFinder;
+import graphpathfinding.ShortestPathFinder;
+import graphpathfinding.ShortestPathResult;
 import huskymaps.graph.Coordinate;
 import huskymaps.graph.Node;
 import huskymaps.graph.StreetMapGraph;
@@ -10,6 +13,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 
 import java.io.File;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 
@@ -31,6 +35,10 @@ public class RouterTinyTests extends BaseTest {
         initialized = true;
     }
 
+    protected Router createRouter(StreetMapGraph graph) {
+        return new DefaultRouter(graph);
+    }
+
     @Test
     void test22to66() {
         RouteRequest request = RouteRequest.from(Map.of(
@@ -41,7 +49,7 @@ public class RouterTinyTests extends BaseTest {
         ));
         Coordinate start = new Coordinate(request.startLat, request.startLon);
         Coordinate end = new Coordinate(request.endLat, request.endLon);
-        List<Node> actual = new DefaultRouter(tinyGraph).shortestPath(start, end);
+        List<Node> actual = createRouter(tinyGraph).shortestPath(start, end);
         assertThat(actual).extracting(Node::id).containsExactly(22L, 46L, 66L);
     }
 
@@ -55,7 +63,7 @@ public class RouterTinyTests extends BaseTest {
         ));
         Coordinate start = new Coordinate(request.startLat, request.startLon);
         Coordinate end = new Coordinate(request.endLat, request.endLon);
-        List<Node> actual = new DefaultRouter(tinyGraph).shortestPath(start, end);
+        List<Node> actual = createRouter(tinyGraph).shortestPath(start, end);
         assertThat(actual).extracting(Node::id).containsExactly(22L, 11L);
     }
 
@@ -69,7 +77,7 @@ public class RouterTinyTests extends BaseTest {
         ));
         Coordinate start = new Coordinate(request.startLat, request.startLon);
         Coordinate end = new Coordinate(request.endLat, request.endLon);
-        List<Node> actual = new DefaultRouter(tinyGraph).shortestPath(start, end);
+        List<Node> actual = createRouter(tinyGraph).shortestPath(start, end);
         assertThat(actual).extracting(Node::id).containsExactly(41L, 63L, 66L, 46L);
     }
 
@@ -83,7 +91,98 @@ public class RouterTinyTests extends BaseTest {
         ));
         Coordinate start = new Coordinate(request.startLat, request.startLon);
         Coordinate end = new Coordinate(request.endLat, request.endLon);
-        List<Node> actual = new DefaultRouter(tinyGraph).shortestPath(start, end);
+        List<Node> actual = createRouter(tinyGraph).shortestPath(start, end);
         assertThat(actual).extracting(Node::id).containsExactly(66L, 63L, 55L);
     }
+
+    @Test
+    void closest_forBatch_matchesSingleLookups() {
+        Router router = createRouter(tinyGraph);
+        List<Coordinate> coordinates = List.of(
+                new Coordinate(47.55, -122.45),
+                new Coordinate(47.75, -122.2),
+                new Coordinate(47.5, -122.5),
+                new Coordinate(47.6, -122.3)
+        );
+        List<Node> actual = router.closest(coordinates);
+        assertThat(actual).hasSize(coordinates.size());
+        for (int i = 0; i < coordinates.size(); i += 1) {
+            assertThat(actual.get(i)).isEqualTo(router.closest(coordinates.get(i)));
+        }
+    }
+
+    @Test
+    void distanceMatrix_matchesShortestPathLengths() {
+        Router router = createRouter(tinyGraph);
+        List<Coordinate> locations = List.of(
+                new Coordinate(47.55, -122.45),
+                new Coordinate(47.75, -122.2),
+                new Coordinate(47.5, -122.5)
+        );
+        double[][] actual = router.distanceMatrix(locations, locations).toArray(double[][]::new);
+
+        List<Node> nodes = router.closest(locations);
+        ShortestPathFinder<Node> finder = new IndexedAStarPathFinder<>(tinyGraph.compact());
+        for (int i = 0; i < nodes.size(); i += 1) {
+            for (int j = 0; j < nodes.size(); j += 1) {
+                ShortestPathResult<Node> expected =
+                    finder.findShortestPath(nodes.get(i), nodes.get(j), Duration.ofSeconds(1));
+                assertThat(actual[i][j]).isCloseTo(expected.solutionWeight(), within(1e-9));
+            }
+        }
+    }
+
+    @Test
+    void route_toSameSnappedNodes_usesRouteCache() {
+        DefaultRouter router = (DefaultRouter) createRouter(tinyGraph);
+        Route first = router.route(new Coordinate(47.55, -122.45), new Coordinate(47.75, -122.2));
+        Route second = router.route(new Coordinate(47.5501, -122.4501), new Coordinate(47.7499, -122.2001));
+        assertThat(second).isSameAs(first);
+        assertThat(second.nodes).extracting(Node::id).containsExactly(22L, 46L, 66L);
+        assertThat(router.routeCache().cache().hits()).isEqualTo(1);
+        assertThat(router.routeCache().cache().misses()).isEqualTo(1);
+    }
+
+    @Test
+    void route_whenCached_cannotBeModified() {
+        Router router = createRouter(tinyGraph);
+        Route route = router.route(new Coordinate(47.5, -122.3), new Coordinate(47.75, -122.3));
+        assertThatThrownBy(() -> route.nodes.clear()).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> route.directions.clear()).isInstanceOf(UnsupportedOperationException.class);
+        assertThat(router.route(new Coordinate(47.5, -122.3), new Coordinate(47.75, -122.3))).isEqualTo(route);
+        assertThatThrownBy(() -> router.shortestPath(new Coordinate(47.5, -122.3), new Coordinate(47.75, -122.3))
+            .clear()).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void routeDirections_mergesEdgesOnTheSameWay() {
+        Router router = createRouter(tinyGraph);
+        Route route = router.route(new Coordinate(47.5, -122.3), new Coordinate(47.75, -122.3));
+        assertThat(route.nodes).extracting(Node::id).containsExactly(41L, 63L, 66L, 46L);
+        assertThat(route.directions).extracting(d -> d.direction).first().isEqualTo(NavigationDirection.START);
+        assertThat(route.directions).extracting(d -> d.way).containsExactly(
+                "11/41/63 southeast side highway",
+                "scenic 22/55/63/66 highway",
+                "22/46/66 northwest side highway"
+        );
+
+        ShortestPathResult<Node> expected = new IndexedAStarPathFinder<>(tinyGraph.compact())
+                .findShortestPath(route.nodes.get(0), route.nodes.get(3), Duration.ofSeconds(1));
+        double total = route.directions.stream().mapToDouble(d -> d.distance).sum();
+        assertThat(total).isCloseTo(expected.solutionWeight(), within(1e-9));
+    }
+
+    @Test
+    void routeDirections_withSingleNode_isEmpty() {
+        Router router = createRouter(tinyGraph);
+        assertThat(router.routeDirections(List.of(tinyGraph.allNodes().get(0)))).isEmpty();
+    }
+
+    @Test
+    void navigationDirection_toString_matchesFormat() {
+        assertThat(new NavigationDirection(NavigationDirection.LEFT, "Main Street", 0.05).toString())
+                .isEqualTo("Turn left on Main Street and continue for 0.050 miles.");
+        assertThat(new NavigationDirection(NavigationDirection.START, "I 5", 12.3456).toString())
+                .isEqualTo(String.format("%s on %s and continue for %.3f miles.", "Start", "I 5", 12.3456));
+    }
 }
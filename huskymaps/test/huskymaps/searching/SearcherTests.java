@@ -3,6 +3,7 @@ package huskymaps.searching;
 import edu.washington.cse373.BaseTest;
 import huskymaps.graph.Node;
 import huskymaps.graph.StreetMapGraph;
+import huskymaps.utils.NameDictionary;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
@@ -47,6 +48,50 @@ public class SearcherTests extends BaseTest {
             new SimpleNode("ca", 0));
     }
 
+    @Test
+    void getLocations_withUnnamedNodesAndNoMatch_returnsOnlyNamedMatches() {
+        List<Node> nodes = List.of(
+            new SimpleNode(null, 0),
+            new SimpleNode("ca", 0),
+            new SimpleNode(null, 1),
+            new SimpleNode("ca", -1)
+        );
+
+        Searcher searcher = createSearcher(nodes);
+        assertThat(searcher.getLocations("ca")).containsExactly(new SimpleNode("ca", 0), new SimpleNode("ca", -1));
+        assertThat(searcher.getLocations("c")).isEmpty();
+        assertThat(searcher.getLocations(null)).isEmpty();
+    }
+
+    @Test
+    void indexSizeBytes_countsIndexedNodes() {
+        DefaultSearcher searcher = new DefaultSearcher(new DummyGraph(List.of(
+            new SimpleNode("c", 2),
+            new SimpleNode("ca", 0),
+            new SimpleNode("ca", 0),
+            new SimpleNode(null, 1)
+        )));
+        DefaultSearcher empty = new DefaultSearcher(new DummyGraph(List.of()));
+
+        assertThat(searcher.numNames()).isEqualTo(2);
+        assertThat(empty.numNames()).isZero();
+        assertThat(searcher.indexSizeBytes()).isGreaterThan(empty.indexSizeBytes());
+        assertThat(searcher.toString()).contains("names=2", "indexedNodes=3");
+    }
+
+    @Test
+    void indexSizeBytes_doesNotGrowWithOtherNamesInTheDictionary() {
+        List<Node> nodes = List.of(new SimpleNode("c", 2), new SimpleNode("ca", 0));
+        long before = new DefaultSearcher(new DummyGraph(nodes)).indexSizeBytes();
+        for (int i = 0; i < 1000; i += 1) {
+            NameDictionary.global().intern("Some other graph's street " + i);
+        }
+        DefaultSearcher searcher = new DefaultSearcher(new DummyGraph(nodes));
+        assertThat(searcher.indexSizeBytes()).isEqualTo(before);
+        assertThat(searcher.getLocations("ca")).containsExactly(new SimpleNode("ca", 0));
+        assertThat(searcher.getLocations("Some other graph's street 0")).isEmpty();
+    }
+
     @Test
     void getLocationsByPrefix_withMultipleDuplicateMatches_returnMatchesInOrder() {
         List<Node> nodes = List.of(
@@ -81,6 +126,42 @@ public class SearcherTests extends BaseTest {
         assertThat(matches).containsExactly("c", "cat", "ca");
     }
 
+    @Test
+    void getLocationsByPrefix_withLimit_returnsMostImportantFirst() {
+        List<Node> nodes = List.of(
+            new SimpleNode("c", 2),
+            new SimpleNode("ca", 0),
+            new SimpleNode("ca", 4),
+            new SimpleNode("cat", 1),
+            new SimpleNode("cab", 3),
+            new SimpleNode("dog", 9)
+        );
+
+        Searcher searcher = createSearcher(nodes);
+        assertThat(searcher.getLocationsByPrefix("c", 2)).containsExactly("ca", "cab");
+        assertThat(searcher.getLocationsByPrefix("ca", 10)).containsExactly("ca", "cab", "cat");
+        assertThat(searcher.getLocationsByPrefix("ca", 0)).isEmpty();
+    }
+
+    @Test
+    void getLocationsByFuzzyPrefix_toleratesTyposInLongerPrefixes() {
+        List<Node> nodes = List.of(
+            new SimpleNode("Pike Place Market", 5),
+            new SimpleNode("Pine Street", 3),
+            new SimpleNode("Seattle Center", 8),
+            new SimpleNode("University Village", 2)
+        );
+
+        Searcher searcher = createSearcher(nodes);
+        assertThat(searcher.getLocationsByFuzzyPrefix("Pikes Plase", 10)).containsExactly("Pike Place Market");
+        assertThat(searcher.getLocationsByFuzzyPrefix("Seatle", 10)).containsExactly("Seattle Center");
+        assertThat(searcher.getLocationsByFuzzyPrefix("Pne", 10)).containsExactly("Pine Street");
+        // Short prefixes must match exactly.
+        assertThat(searcher.getLocationsByFuzzyPrefix("Pi", 10)).containsExactly("Pike Place Market", "Pine Street");
+        assertThat(searcher.getLocationsByFuzzyPrefix("Pi", 1)).containsExactly("Pike Place Market");
+        assertThat(searcher.getLocationsByFuzzyPrefix("Xi", 10)).isEmpty();
+    }
+
     protected static class DummyGraph extends StreetMapGraph {
         public DummyGraph(List<Node> nodes) {
             this.nodes = nodes;
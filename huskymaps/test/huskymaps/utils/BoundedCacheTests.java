@@ -0,0 +1,89 @@
+package huskymaps.utils;
+
+import edu.washington.cse373.BaseTest;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+public class BoundedCacheTests extends BaseTest {
+    private static BoundedCache<String, String> createCache(long capacity) {
+        return new BoundedCache<>(capacity, String::length);
+    }
+
+    @Test
+    void get_countsHitsAndMisses() {
+        BoundedCache<String, String> cache = createCache(100);
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.get("a", k -> k + "!")).isEqualTo("a!");
+        assertThat(cache.get("a", k -> "not loaded")).isEqualTo("a!");
+        assertThat(cache.hits()).isEqualTo(1);
+        assertThat(cache.misses()).isEqualTo(2);
+        assertThat(cache.weight()).isEqualTo(2);
+    }
+
+    @Test
+    void put_evictsLeastRecentlyUsedFirst() {
+        BoundedCache<String, String> cache = createCache(9);
+        cache.put("a", "aaa");
+        cache.put("b", "bbb");
+        cache.put("c", "ccc");
+        cache.get("a");
+        cache.put("d", "ddd");
+
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("a")).isEqualTo("aaa");
+        assertThat(cache.get("c")).isEqualTo("ccc");
+        assertThat(cache.get("d")).isEqualTo("ddd");
+        assertThat(cache.evictions()).isEqualTo(1);
+        assertThat(cache.weight()).isEqualTo(9);
+    }
+
+    @Test
+    void put_evictsAsManyAsNeededForHeavyValue() {
+        BoundedCache<String, String> cache = createCache(10);
+        cache.put("a", "aaa");
+        cache.put("b", "bbb");
+        cache.put("c", "ccc");
+        cache.put("d", "dddddddd");
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.evictions()).isEqualTo(3);
+        assertThat(cache.weight()).isEqualTo(8);
+    }
+
+    @Test
+    void put_withValueHeavierThanCapacity_doesNotCacheIt() {
+        BoundedCache<String, String> cache = createCache(4);
+        cache.put("a", "aaa");
+        cache.put("b", "bbbbb");
+
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("a")).isEqualTo("aaa");
+        assertThat(cache.evictions()).isEqualTo(0);
+    }
+
+    @Test
+    void put_replacingKey_updatesWeight() {
+        BoundedCache<String, String> cache = createCache(10);
+        cache.put("a", "aaa");
+        cache.put("a", "aaaaa");
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.weight()).isEqualTo(5);
+    }
+
+    @Test
+    void get_afterTimeToLive_expiresEntry() {
+        long[] now = {0};
+        BoundedCache<String, String> cache =
+            new BoundedCache<>(10, String::length, Duration.ofNanos(100), () -> now[0]);
+        cache.put("a", "aaa");
+        now[0] = 99;
+        assertThat(cache.get("a")).isEqualTo("aaa");
+        now[0] = 100;
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.expirations()).isEqualTo(1);
+        assertThat(cache.size()).isEqualTo(0);
+        assertThat(cache.weight()).isEqualTo(0);
+        assertThat(cache.hitRate()).isEqualTo(0.5);
+    }
+}
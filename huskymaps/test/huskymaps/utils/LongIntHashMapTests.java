@@ -0,0 +1,50 @@
+package huskymaps.utils;
+
+import edu.washington.cse373.BaseTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class LongIntHashMapTests extends BaseTest {
+    @Test
+    void get_withMissingKey_returnsMissingValue() {
+        LongIntHashMap map = new LongIntHashMap();
+        assertThat(map.get(42, -1)).isEqualTo(-1);
+        assertThat(map.get(0, -7)).isEqualTo(-7);
+        assertThat(map.containsKey(0)).isFalse();
+        assertThat(map.size()).isEqualTo(0);
+    }
+
+    @Test
+    void put_withZeroAndNegativeKeys_keepsThemApart() {
+        LongIntHashMap map = new LongIntHashMap();
+        map.put(0, 1);
+        map.put(-1, 2);
+        map.put(Long.MIN_VALUE, 3);
+        map.put(0, 4);
+        assertThat(map.get(0, -1)).isEqualTo(4);
+        assertThat(map.get(-1, -1)).isEqualTo(2);
+        assertThat(map.get(Long.MIN_VALUE, -1)).isEqualTo(3);
+        assertThat(map.size()).isEqualTo(3);
+    }
+
+    @Test
+    void put_manyKeys_matchesHashMap() {
+        Random random = new Random(373);
+        LongIntHashMap map = new LongIntHashMap(4);
+        Map<Long, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 100000; i += 1) {
+            // Packed pairs of small ints, like the edge index uses, plus some arbitrary ids.
+            long key = i % 2 == 0 ? ((long) random.nextInt(1000) << 32) | random.nextInt(1000) : random.nextLong();
+            map.put(key, i);
+            expected.put(key, i);
+        }
+        assertThat(map.size()).isEqualTo(expected.size());
+        for (Map.Entry<Long, Integer> entry : expected.entrySet()) {
+            assertThat(map.get(entry.getKey(), -1)).isEqualTo(entry.getValue());
+        }
+        assertThat(map.containsKey(1L << 40)).isFalse();
+    }
+}
@@ -0,0 +1,85 @@
+package huskymaps.utils;
+
+import edu.washington.cse373.BaseTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class NameDictionaryTests extends BaseTest {
+    @Test
+    void intern_withSameName_returnsSameId() {
+        NameDictionary dictionary = new NameDictionary();
+        int a = dictionary.intern("Pike Place Market");
+        int b = dictionary.intern("Pine Street");
+        assertThat(dictionary.intern(new String("Pike Place Market"))).isEqualTo(a);
+        assertThat(a).isNotEqualTo(b);
+        assertThat(dictionary.size()).isEqualTo(2);
+        assertThat(dictionary.name(a)).isEqualTo("Pike Place Market");
+        assertThat(dictionary.name(b)).isEqualTo("Pine Street");
+    }
+
+    @Test
+    void intern_withNullAndEmptyNames_keepsThemApart() {
+        NameDictionary dictionary = new NameDictionary();
+        assertThat(dictionary.intern(null)).isEqualTo(NameDictionary.NO_NAME);
+        assertThat(dictionary.name(NameDictionary.NO_NAME)).isNull();
+        int empty = dictionary.intern("");
+        assertThat(empty).isNotEqualTo(NameDictionary.NO_NAME);
+        assertThat(dictionary.name(empty)).isEmpty();
+        assertThat(dictionary.size()).isEqualTo(1);
+    }
+
+    @Test
+    void idOf_withMissingName_returnsNoName() {
+        NameDictionary dictionary = new NameDictionary();
+        dictionary.intern("Fremont");
+        assertThat(dictionary.idOf("Fremont")).isEqualTo(0);
+        assertThat(dictionary.idOf("Ballard")).isEqualTo(NameDictionary.NO_NAME);
+        assertThat(dictionary.idOf(null)).isEqualTo(NameDictionary.NO_NAME);
+        assertThat(dictionary.size()).isEqualTo(1);
+        assertThatThrownBy(() -> dictionary.name(1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void intern_withManyNames_roundTripsAfterGrowing() {
+        NameDictionary dictionary = new NameDictionary();
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 5000; i += 1) {
+            // Includes characters outside Latin-1, which take several bytes in UTF-8.
+            names.add("Street " + i + (i % 3 == 0 ? " Straße" : "") + (i % 7 == 0 ? " 街" : ""));
+        }
+        for (int i = 0; i < names.size(); i += 1) {
+            assertThat(dictionary.intern(names.get(i))).isEqualTo(i);
+        }
+        for (int i = 0; i < names.size(); i += 1) {
+            assertThat(dictionary.idOf(names.get(i))).isEqualTo(i);
+            assertThat(dictionary.name(i)).isEqualTo(names.get(i));
+        }
+        assertThat(dictionary.size()).isEqualTo(names.size());
+        assertThat(dictionary.sizeBytes()).isGreaterThan(0);
+    }
+
+    @Test
+    void name_whileAnotherThreadInterns_seesEveryPublishedName() throws InterruptedException {
+        NameDictionary dictionary = new NameDictionary();
+        int count = 20000;
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < count; i += 1) {
+                dictionary.intern("Avenue " + i);
+            }
+        });
+        writer.start();
+        int seen = 0;
+        while (seen < count) {
+            int size = dictionary.size();
+            for (int id = seen; id < size; id += 1) {
+                assertThat(dictionary.name(id)).isEqualTo("Avenue " + id);
+                assertThat(dictionary.idOf("Avenue " + id)).isEqualTo(id);
+            }
+            seen = size;
+        }
+        writer.join();
+        assertThat(dictionary.idOf("Avenue " + count)).isEqualTo(NameDictionary.NO_NAME);
+    }
+}
@@ -0,0 +1,80 @@
+package huskymaps.utils;
+
+import edu.washington.cse373.BaseTest;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+public class ProtobufReaderTests extends BaseTest {
+    private static byte[] bytes(int... values) {
+        byte[] result = new byte[values.length];
+        for (int i = 0; i < values.length; i += 1) {
+            result[i] = (byte) values[i];
+        }
+        return result;
+    }
+
+    @Test
+    void readVarint_withMultibyteValues_decodesThem() throws IOException {
+        ProtobufReader reader = new ProtobufReader(bytes(
+            0x00,
+            0x96, 0x01,
+            0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0x01));
+        assertThat(reader.readVarint()).isEqualTo(0);
+        assertThat(reader.readVarint()).isEqualTo(150);
+        assertThat(reader.readVarint()).isEqualTo(-1);
+        assertThat(reader.hasNext()).isFalse();
+    }
+
+    @Test
+    void readSignedVarint_withZigzagValues_decodesThem() throws IOException {
+        ProtobufReader reader = new ProtobufReader(bytes(0x00, 0x01, 0x02, 0x03, 0xfe, 0x01));
+        assertThat(reader.readSignedVarint()).isEqualTo(0);
+        assertThat(reader.readSignedVarint()).isEqualTo(-1);
+        assertThat(reader.readSignedVarint()).isEqualTo(1);
+        assertThat(reader.readSignedVarint()).isEqualTo(-2);
+        assertThat(reader.readSignedVarint()).isEqualTo(127);
+    }
+
+    @Test
+    void nextField_withMessage_readsAndSkipsFields() throws IOException {
+        // 1: varint 150, 2: "testing", 3: fixed64, 4: fixed32, 5: nested message {1: 7}
+        ProtobufReader reader = new ProtobufReader(bytes(
+            0x08, 0x96, 0x01,
+            0x12, 0x07, 't', 'e', 's', 't', 'i', 'n', 'g',
+            0x19, 1, 2, 3, 4, 5, 6, 7, 8,
+            0x25, 1, 2, 3, 4,
+            0x2a, 0x02, 0x08, 0x07));
+        assertThat(reader.nextField()).isEqualTo(1);
+        assertThat(reader.wireType()).isEqualTo(ProtobufReader.VARINT);
+        assertThat(reader.readVarint()).isEqualTo(150);
+        assertThat(reader.nextField()).isEqualTo(2);
+        assertThat(reader.wireType()).isEqualTo(ProtobufReader.LENGTH_DELIMITED);
+        assertThat(reader.readString()).isEqualTo("testing");
+        assertThat(reader.nextField()).isEqualTo(3);
+        reader.skipField();
+        assertThat(reader.nextField()).isEqualTo(4);
+        reader.skipField();
+        assertThat(reader.nextField()).isEqualTo(5);
+        ProtobufReader nested = reader.readMessage();
+        assertThat(reader.hasNext()).isFalse();
+        assertThat(nested.nextField()).isEqualTo(1);
+        assertThat(nested.readVarint()).isEqualTo(7);
+        assertThat(nested.hasNext()).isFalse();
+    }
+
+    @Test
+    void read_withTruncatedInput_throwsIOException() {
+        assertThatThrownBy(() -> new ProtobufReader(bytes(0x96)).readVarint()).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> new ProtobufReader(bytes(0x05, 'a', 'b')).readString())
+            .isInstanceOf(IOException.class);
+        ProtobufReader reader = new ProtobufReader(bytes(0x0b));
+        assertThatThrownBy(() -> {
+            reader.nextField();
+            reader.skipField();
+        }).isInstanceOf(IOException.class);
+        // A nested message can't read past its own end, even if its parent has more bytes.
+        ProtobufReader parent = new ProtobufReader(bytes(0x01, 0x96, 0x01));
+        assertThatThrownBy(() -> parent.readMessage().readVarint()).isInstanceOf(IOException.class);
+    }
+}
@@ -1,33 +1,38 @@
 package pointsets;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Fast nearest-neighbor implementation using a k-d tree.
+ *
+ * The tree is bulk-built and perfectly balanced: the root is the median of all points by x, its
+ * children are the medians of each half by y, and so on. Rather than linking together a node
+ * object per point, the tree is stored implicitly in flat arrays. The subtree over positions
+ * [lo, hi) has its root at mid = (lo + hi) / 2, its less subtree over [lo, mid), and its more
+ * subtree over [mid + 1, hi), so the tree's depth is always about log2(N) and each subtree is a
+ * contiguous block of memory.
  */
 public class KDTreePointSet<T extends Point> implements PointSet<T> {
+    /** Subtrees with at least this many points are partitioned in parallel. */
+    private static final int PARALLEL_THRESHOLD = 1 << 13;
+    /** Batches of at least this many queries are split across the fork/join pool. */
+    private static final int PARALLEL_QUERY_THRESHOLD = 1 << 10;
 
-    private class KDNode {
-        KDNode less;
-        KDNode more;
-        T data;
-
-        public KDNode(T data) {
-            this.less = null;
-            this.more = null;
-            this.data = data;
-        }
-    }
-
-    private KDNode root;
-    private List<T> points;
+    private final double[] xs;
+    private final double[] ys;
+    private final Object[] items;
+    /** The index in points of the item at each position. */
+    private final int[] indices;
+    private final List<T> points;
 
     /**
      * Instantiates a new KDTreePointSet with a shuffled version of the given points.
      *
-     * Randomizing the point order decreases likeliness of ending up with a spindly tree if the
-     * points are sorted somehow.
+     * Since the tree is always balanced, shuffling is no longer needed; prefer {@link #create(List)}.
      *
      * @param points a non-null, non-empty list of points to include.
      *               Assumes that the list will not be used externally afterwards (and thus may
@@ -42,54 +47,130 @@ public class KDTreePointSet<T extends Point> implements PointSet<T> {
      * Instantiates a new KDTreePointSet with the given points.
      *
      * @param points a non-null, non-empty list of points to include.
-     *               Assumes that the list will not be used externally afterwards (and thus may
-     *               directly store and mutate the array).
+     *               Assumes that the list will not be used externally afterwards.
+     */
+    public static <T extends Point> KDTreePointSet<T> create(List<T> points) {
+        return new KDTreePointSet<T>(points);
+    }
+
+    /**
+     * Instantiates a new KDTreePointSet with the given points, building the tree in O(N log N)
+     * time by partitioning around medians. Large inputs are partitioned with fork/join.
      *
-     * Learned about handling up/down vs left/right insertions from:
-     * https://github.com/mgruben/Kd-Trees/blob/master/KdTree.java
+     * @param points a non-null, non-empty list of points to include.
+     *               Assumes that the list will not be used externally afterwards.
      */
     KDTreePointSet(List<T> points) {
-        for (T point : points) {
-            this.root = buildTree(this.root, point, true);
+        int n = points.size();
+        this.xs = new double[n];
+        this.ys = new double[n];
+        this.items = new Object[n];
+        this.indices = new int[n];
+        for (int i = 0; i < n; i += 1) {
+            T point = points.get(i);
+            xs[i] = point.x();
+            ys[i] = point.y();
+            items[i] = point;
+            indices[i] = i;
+        }
+        if (n >= PARALLEL_THRESHOLD) {
+            ForkJoinPool.commonPool().invoke(new BuildTask(0, n, true));
+        } else {
+            build(0, n, true);
         }
         this.points = points;
     }
 
-    private KDNode buildTree(KDNode node, T point, boolean leftRight) {
-        // When you reach the end of the tree
-        if (node == null) {
-            return new KDNode(point);
+    /** Arranges positions [lo, hi) into a subtree, splitting on x if leftRight and y otherwise. */
+    private void build(int lo, int hi, boolean leftRight) {
+        while (hi - lo > 1) {
+            int mid = (lo + hi) >>> 1;
+            select(lo, hi, mid, leftRight ? xs : ys);
+            build(lo, mid, !leftRight);
+            lo = mid + 1;
+            leftRight = !leftRight;
         }
-        double compare = compareLocation(node, point, leftRight);
+    }
 
-        // Whichever value is lesser is put on the lesser side
-        // Compare determines whether to compare at x or y
-        if (compare < 0) {
-            node.less = buildTree(node.less, point, !leftRight);
+    private class BuildTask extends RecursiveAction {
+        private final int lo;
+        private final int hi;
+        private final boolean leftRight;
 
-            // Whichever value is greater is put on the greater side
-            // Compare determines whether to compare at x or y
-        } else if (compare > 0) {
-            node.more = buildTree(node.more, point, !leftRight);
+        BuildTask(int lo, int hi, boolean leftRight) {
+            this.lo = lo;
+            this.hi = hi;
+            this.leftRight = leftRight;
+        }
 
-            // Nodes on same dividing line that are not the same
-            // are automatically put left
-        } else if (!node.data.equals(point)) {
-            node.less = buildTree(node.less, point, !leftRight);
+        @Override
+        protected void compute() {
+            if (hi - lo < PARALLEL_THRESHOLD) {
+                build(lo, hi, leftRight);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            select(lo, hi, mid, leftRight ? xs : ys);
+            invokeAll(new BuildTask(lo, mid, !leftRight), new BuildTask(mid + 1, hi, !leftRight));
         }
-        return node;
     }
 
-    // if comparing left and right compare x
-    // if comparing up and down compare y
-    private double compareLocation(KDNode node, T point, boolean leftRight) {
-        if (leftRight) {
-            return point.x() - node.data.x();
-        } else {
-            return point.y() - node.data.y();
+    /**
+     * Rearranges positions [lo, hi) so that position k holds the point that would be there if they
+     * were sorted by keys, with no greater keys before it and no lesser keys after it.
+     *
+     * This is quickselect with median-of-three pivots and three-way partitioning, so that runs of
+     * equal coordinates (common in grid-like data) don't make it quadratic.
+     */
+    private void select(int lo, int hi, int k, double[] keys) {
+        hi -= 1;
+        while (lo < hi) {
+            double pivot = medianOfThree(keys[lo], keys[(lo + hi) >>> 1], keys[hi]);
+            // Invariant: [lo, lt) < pivot, [lt, i) == pivot, (gt, hi] > pivot
+            int lt = lo;
+            int gt = hi;
+            int i = lo;
+            while (i <= gt) {
+                if (keys[i] < pivot) {
+                    swap(lt, i);
+                    lt += 1;
+                    i += 1;
+                } else if (keys[i] > pivot) {
+                    swap(i, gt);
+                    gt -= 1;
+                } else {
+                    i += 1;
+                }
+            }
+            if (k < lt) {
+                hi = lt - 1;
+            } else if (k > gt) {
+                lo = gt + 1;
+            } else {
+                return;
+            }
         }
     }
 
+    private static double medianOfThree(double a, double b, double c) {
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+
+    private void swap(int i, int j) {
+        double x = xs[i];
+        xs[i] = xs[j];
+        xs[j] = x;
+        double y = ys[i];
+        ys[i] = ys[j];
+        ys[j] = y;
+        Object item = items[i];
+        items[i] = items[j];
+        items[j] = item;
+        int index = indices[i];
+        indices[i] = indices[j];
+        indices[j] = index;
+    }
+
     /**
      * Returns the point in this set closest to the given point in (usually) O(log N) time, where
      * N is the number of points in this set.
@@ -97,57 +178,276 @@ public class KDTreePointSet<T extends Point> implements PointSet<T> {
      * Pruning conditions inspired by https://github.com/mgruben/Kd-Trees/blob/master/KdTree.java
      */
     @Override
+    @SuppressWarnings("unchecked")
     public T nearest(Point target) {
-        return nearest(root, target, root.data, true);
+        if (items.length == 0) {
+            return null;
+        }
+        return (T) items[nearest(0, items.length, true, target.x(), target.y(), 0)];
     }
 
-    private T nearest(KDNode current, Point target, T closest, boolean leftRight) {
+    /**
+     * Finds the point closest to each (xs[i], ys[i]) without allocating anything per query, and
+     * stores its index in allPoints() in out[i]. Large batches are split across the common
+     * fork/join pool.
+     */
+    @Override
+    public void nearest(double[] xs, double[] ys, int[] out) {
+        if (xs.length != ys.length || xs.length != out.length) {
+            throw new IllegalArgumentException("Batch arrays must have the same length, but were "
+                + xs.length + ", " + ys.length + ", and " + out.length);
+        }
+        if (items.length == 0) {
+            throw new IllegalStateException("Point set is empty");
+        }
+        if (out.length >= 2 * PARALLEL_QUERY_THRESHOLD) {
+            ForkJoinPool.commonPool().invoke(new QueryTask(xs, ys, out, 0, out.length));
+        } else {
+            nearest(xs, ys, out, 0, out.length);
+        }
+    }
 
-        // return last point in tree
-        if (current == null) {
-            return closest;
+    private void nearest(double[] xs, double[] ys, int[] out, int from, int to) {
+        for (int i = from; i < to; i += 1) {
+            out[i] = indices[nearest(0, items.length, true, xs[i], ys[i], 0)];
         }
+    }
 
-        // return a direct click on point
-        if (current.data.equals(target)) {
-            return (T) target;
+    private class QueryTask extends RecursiveAction {
+        private final double[] xs;
+        private final double[] ys;
+        private final int[] out;
+        private final int from;
+        private final int to;
+
+        QueryTask(double[] xs, double[] ys, int[] out, int from, int to) {
+            this.xs = xs;
+            this.ys = ys;
+            this.out = out;
+            this.from = from;
+            this.to = to;
         }
 
-        // if the current point is closer to the target than the closest pt from before,
-        // current pt is now closest pt
-        if (current.data.distanceSquaredTo(target) <
-            closest.distanceSquaredTo(target)) {
-            closest = current.data;
+        @Override
+        protected void compute() {
+            if (to - from < 2 * PARALLEL_QUERY_THRESHOLD) {
+                nearest(xs, ys, out, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new QueryTask(xs, ys, out, from, mid), new QueryTask(xs, ys, out, mid, to));
         }
+    }
 
-        // Determines which side to most likely look at
-        double section = compareLocation(current, (T) target, leftRight);
+    /**
+     * Returns the position of the point closest to (x, y) among the subtree over [lo, hi) and
+     * the best position found so far.
+     */
+    private int nearest(int lo, int hi, boolean leftRight, double x, double y, int best) {
+        if (lo >= hi) {
+            return best;
+        }
+        int mid = (lo + hi) >>> 1;
+        double dx = xs[mid] - x;
+        double dy = ys[mid] - y;
+        if (dx * dx + dy * dy < distanceSquared(best, x, y)) {
+            best = mid;
+        }
 
-        // If pt is expected to be on the left/bottom side
+        // The signed distance from the target to this node's splitting line
+        double section = leftRight ? -dx : -dy;
+        // Look at the side the target is on first, then the other side only if it could
+        // still hold something closer
         if (section <= 0) {
-            closest = nearest(current.less, target, closest, !leftRight);
+            best = nearest(lo, mid, !leftRight, x, y, best);
+            if (section * section < distanceSquared(best, x, y)) {
+                best = nearest(mid + 1, hi, !leftRight, x, y, best);
+            }
+        } else {
+            best = nearest(mid + 1, hi, !leftRight, x, y, best);
+            if (section * section < distanceSquared(best, x, y)) {
+                best = nearest(lo, mid, !leftRight, x, y, best);
+            }
+        }
+        return best;
+    }
+
+    private double distanceSquared(int position, double x, double y) {
+        double dx = xs[position] - x;
+        double dy = ys[position] - y;
+        return dx * dx + dy * dy;
+    }
 
-            // if the distance from the current point is less than the distance from the closest point,
-            // we explore the other side
-            if (Math.pow(section, 2) < closest.distanceSquaredTo(target)) {
-                closest = nearest(current.more, target, closest, !leftRight);
+    /**
+     * Returns the k points in this set closest to the given point in (usually) O(k log N) time.
+     *
+     * The search keeps the k closest points found so far in a max-heap, and skips any subtree on
+     * the far side of a splitting line that is farther away than the k-th closest point.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<T> kNearest(Point target, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k cannot be negative, but was " + k);
+        }
+        Neighbors neighbors = new Neighbors(target.x(), target.y(), Math.min(k, items.length));
+        if (neighbors.capacity > 0) {
+            neighbors.search(0, items.length, true);
+        }
+        List<T> result = new ArrayList<>(neighbors.size);
+        for (int i : neighbors.sortedIndices()) {
+            result.add((T) items[i]);
+        }
+        return result;
+    }
+
+    /** The state of a single k-nearest-neighbors search: a bounded max-heap of positions. */
+    private class Neighbors {
+        final double x;
+        final double y;
+        final int capacity;
+        final int[] heap;
+        final double[] distances;
+        int size = 0;
+
+        Neighbors(double x, double y, int capacity) {
+            this.x = x;
+            this.y = y;
+            this.capacity = capacity;
+            this.heap = new int[capacity];
+            this.distances = new double[capacity];
+        }
+
+        /** The squared distance within which a point must be to be one of the k closest. */
+        double bound() {
+            return size < capacity ? Double.POSITIVE_INFINITY : distances[0];
+        }
+
+        void search(int lo, int hi, boolean leftRight) {
+            if (lo >= hi) {
+                return;
             }
+            int mid = (lo + hi) >>> 1;
+            double dx = xs[mid] - x;
+            double dy = ys[mid] - y;
+            offer(mid, dx * dx + dy * dy);
 
-            // pt expected to be on right/top side
-        } else {
-            closest = nearest(current.more, target, closest, !leftRight);
+            double section = leftRight ? -dx : -dy;
+            if (section <= 0) {
+                search(lo, mid, !leftRight);
+                if (section * section < bound()) {
+                    search(mid + 1, hi, !leftRight);
+                }
+            } else {
+                search(mid + 1, hi, !leftRight);
+                if (section * section < bound()) {
+                    search(lo, mid, !leftRight);
+                }
+            }
+        }
 
-            // if the distance from the current point is less than the distance from the closest point,
-            // we explore the other side
-            if (Math.pow(section, 2) < closest.distanceSquaredTo(target)) {
-                closest = nearest(current.less, target, closest, !leftRight);
+        private void offer(int position, double distance) {
+            if (size < capacity) {
+                heap[size] = position;
+                distances[size] = distance;
+                size += 1;
+                percolateUp(size - 1);
+            } else if (distance < distances[0]) {
+                heap[0] = position;
+                distances[0] = distance;
+                percolateDown(0);
+            }
+        }
+
+        private void percolateUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) / 2;
+                if (distances[parent] >= distances[index]) {
+                    break;
+                }
+                swapEntries(parent, index);
+                index = parent;
+            }
+        }
+
+        private void percolateDown(int index) {
+            while (2 * index + 1 < size) {
+                int child = 2 * index + 1;
+                if (child + 1 < size && distances[child + 1] > distances[child]) {
+                    child += 1;
+                }
+                if (distances[index] >= distances[child]) {
+                    break;
+                }
+                swapEntries(index, child);
+                index = child;
+            }
+        }
+
+        private void swapEntries(int i, int j) {
+            int position = heap[i];
+            heap[i] = heap[j];
+            heap[j] = position;
+            double distance = distances[i];
+            distances[i] = distances[j];
+            distances[j] = distance;
+        }
+
+        /** Empties the heap, returning its positions from closest to farthest. */
+        int[] sortedIndices() {
+            int[] result = new int[size];
+            while (size > 0) {
+                result[size - 1] = heap[0];
+                size -= 1;
+                swapEntries(0, size);
+                percolateDown(0);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Returns the points within the given distance of the given point, visiting only the subtrees
+     * whose splitting lines are within that distance.
+     */
+    @Override
+    public List<T> withinRadius(Point target, double radius) {
+        List<T> result = new ArrayList<>();
+        if (radius >= 0) {
+            withinRadius(0, items.length, true, target.x(), target.y(), radius, result);
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void withinRadius(int lo, int hi, boolean leftRight, double x, double y, double radius,
+                              List<T> result) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            double dx = xs[mid] - x;
+            double dy = ys[mid] - y;
+            if (dx * dx + dy * dy <= radius * radius) {
+                result.add((T) items[mid]);
+            }
+            double section = leftRight ? -dx : -dy;
+            // Points in the less subtree are no greater than this one along the splitting axis,
+            // and points in the more subtree are no less
+            boolean searchLess = section <= radius;
+            boolean searchMore = section >= -radius;
+            if (searchLess && searchMore) {
+                withinRadius(mid + 1, hi, !leftRight, x, y, radius, result);
+                hi = mid;
+            } else if (searchLess) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
             }
+            leftRight = !leftRight;
         }
-        return closest;
     }
 
     @Override
     public List<T> allPoints() {
-        return this.points;
+        return Collections.unmodifiableList(this.points);
     }
 }
@@ -1,5 +1,8 @@
 package pointsets;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -27,7 +30,7 @@ public class NaivePointSet<T extends Point> implements PointSet<T> {
     @Override
     public T nearest(Point target) {
         double initial = pointList.get(0).distanceSquaredTo(target);
-        T nearest = pointList.remove(0);
+        T nearest = pointList.get(0);
         for (T point : this.pointList) {
             double compare = point.distanceSquaredTo(target);
             if (compare < initial) {
@@ -38,8 +41,56 @@ public class NaivePointSet<T extends Point> implements PointSet<T> {
         return nearest;
     }
 
+    /** Finds the closest point to each of the given ones in O(N) time each. */
+    @Override
+    public void nearest(double[] xs, double[] ys, int[] out) {
+        if (xs.length != ys.length || xs.length != out.length) {
+            throw new IllegalArgumentException("Batch arrays must have the same length, but were "
+                + xs.length + ", " + ys.length + ", and " + out.length);
+        }
+        if (pointList.isEmpty()) {
+            throw new IllegalStateException("Point set is empty");
+        }
+        for (int i = 0; i < out.length; i += 1) {
+            double initial = Double.POSITIVE_INFINITY;
+            for (int j = 0; j < pointList.size(); j += 1) {
+                double compare = pointList.get(j).distanceSquaredTo(xs[i], ys[i]);
+                if (compare < initial) {
+                    out[i] = j;
+                    initial = compare;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the k points in this set closest to the given point in O(N log N) time, by sorting
+     * all of them.
+     */
+    @Override
+    public List<T> kNearest(Point target, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k cannot be negative, but was " + k);
+        }
+        List<T> sorted = new ArrayList<>(pointList);
+        sorted.sort(Comparator.comparingDouble(point -> point.distanceSquaredTo(target)));
+        return new ArrayList<>(sorted.subList(0, Math.min(k, sorted.size())));
+    }
+
+    /** Returns the points within the given distance of the given point in O(N) time. */
+    @Override
+    public List<T> withinRadius(Point target, double radius) {
+        List<T> result = new ArrayList<>();
+        for (T point : pointList) {
+            if (point.distanceSquaredTo(target) <= radius * radius) {
+                result.add(point);
+            }
+        }
+        return result;
+    }
+
     @Override
     public List<T> allPoints() {
-        return pointList;
+        return Collections.unmodifiableList(pointList);
     }
 }
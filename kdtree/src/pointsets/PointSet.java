@@ -11,6 +11,31 @@ public interface PointSet<T extends Point> {
     /** Returns the point in this set closest to the given point. */
     T nearest(Point target);
 
-    /** Returns a list of all points in this set, not necessarily in any particular order. */
+    /**
+     * For each i, stores in out[i] the index in {@link #allPoints()} of the point closest to
+     * (xs[i], ys[i]).
+     * @throws IllegalArgumentException if the arrays don't all have the same length
+     * @throws IllegalStateException if this set is empty
+     */
+    void nearest(double[] xs, double[] ys, int[] out);
+
+    /**
+     * Returns the k points in this set closest to the given point, from closest to farthest.
+     * Returns all points if there are fewer than k.
+     * @throws IllegalArgumentException if k is negative
+     */
+    List<T> kNearest(Point target, int k);
+
+    /**
+     * Returns all points in this set at most the given distance from the given point, in no
+     * particular order.
+     */
+    List<T> withinRadius(Point target, double radius);
+
+    /**
+     * Returns an unmodifiable list of all points in this set. Its order is fixed for the life of
+     * the set, and it's the order that the indices stored by the batch
+     * {@link #nearest(double[], double[], int[])} refer to.
+     */
     List<T> allPoints();
 }
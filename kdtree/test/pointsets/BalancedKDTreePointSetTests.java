@@ -0,0 +1,95 @@
+package pointsets;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class BalancedKDTreePointSetTests extends KDTreePointSetTests {
+    @Override
+    protected PointSet<Point> createPointSet(List<Point> points) {
+        return KDTreePointSet.create(points);
+    }
+
+    @Test
+    void nearest_onLargeRandomSet_matchesNaive() {
+        // Large enough to be built in parallel
+        Random random = new Random(373);
+        List<Point> points = new ArrayList<>();
+        for (int i = 0; i < 50000; i += 1) {
+            points.add(new Point(random.nextDouble(), random.nextDouble()));
+        }
+        PointSet<Point> naive = new NaivePointSet<>(new ArrayList<>(points));
+        PointSet<Point> kdtree = createPointSet(new ArrayList<>(points));
+
+        for (int i = 0; i < 1000; i += 1) {
+            Point target = new Point(random.nextDouble() * 1.2 - 0.1, random.nextDouble() * 1.2 - 0.1);
+            assertThat(kdtree.nearest(target).distanceSquaredTo(target))
+                .isEqualTo(naive.nearest(target).distanceSquaredTo(target));
+        }
+    }
+
+    @Test
+    void nearest_onGridWithRepeatedCoordinates_matchesNaive() {
+        List<Point> points = new ArrayList<>();
+        for (int x = 0; x < 100; x += 1) {
+            for (int y = 0; y < 100; y += 1) {
+                points.add(new Point(x % 7, y));
+            }
+        }
+        PointSet<Point> naive = new NaivePointSet<>(new ArrayList<>(points));
+        PointSet<Point> kdtree = createPointSet(new ArrayList<>(points));
+
+        Random random = new Random(373);
+        for (int i = 0; i < 1000; i += 1) {
+            Point target = new Point(random.nextDouble() * 10 - 1, random.nextDouble() * 110 - 5);
+            assertThat(kdtree.nearest(target).distanceSquaredTo(target))
+                .isEqualTo(naive.nearest(target).distanceSquaredTo(target));
+        }
+    }
+
+    @Test
+    void kNearestAndWithinRadius_onRandomSet_matchNaive() {
+        Random random = new Random(373);
+        List<Point> points = new ArrayList<>();
+        for (int i = 0; i < 20000; i += 1) {
+            points.add(new Point(random.nextDouble(), random.nextDouble()));
+        }
+        PointSet<Point> naive = new NaivePointSet<>(new ArrayList<>(points));
+        PointSet<Point> kdtree = createPointSet(new ArrayList<>(points));
+
+        for (int i = 0; i < 200; i += 1) {
+            Point target = new Point(random.nextDouble() * 1.2 - 0.1, random.nextDouble() * 1.2 - 0.1);
+            int k = random.nextInt(50);
+            assertThat(kdtree.kNearest(target, k)).isEqualTo(naive.kNearest(target, k));
+            double radius = random.nextDouble() * 0.05;
+            assertThat(kdtree.withinRadius(target, radius))
+                .containsExactlyInAnyOrderElementsOf(naive.withinRadius(target, radius));
+        }
+    }
+
+    @Test
+    void nearest_forLargeBatch_matchesSingleQueries() {
+        // Large enough to be split across the fork/join pool
+        Random random = new Random(373);
+        List<Point> points = new ArrayList<>();
+        for (int i = 0; i < 20000; i += 1) {
+            points.add(new Point(random.nextDouble(), random.nextDouble()));
+        }
+        PointSet<Point> kdtree = createPointSet(points);
+
+        int n = 10000;
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int i = 0; i < n; i += 1) {
+            xs[i] = random.nextDouble();
+            ys[i] = random.nextDouble();
+        }
+        int[] out = new int[n];
+        kdtree.nearest(xs, ys, out);
+        for (int i = 0; i < n; i += 1) {
+            assertThat(kdtree.allPoints().get(out[i])).isEqualTo(kdtree.nearest(xs[i], ys[i]));
+        }
+    }
+}
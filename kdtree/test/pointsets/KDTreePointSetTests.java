@@ -5,6 +5,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class KDTreePointSetTests extends BaseTest {
@@ -96,4 +97,72 @@ public class KDTreePointSetTests extends BaseTest {
         Point actual = set.nearest(.4, -.3);
         assertThat(actual).isEqualTo(new Point(.4, .001));
     }
+
+    @Test
+    void kNearest_returnsClosestPointsInOrder() {
+        PointSet<Point> set = createInterestingSet();
+        List<Point> actual = set.kNearest(new Point(6, 6), 3);
+        assertThat(actual).containsExactly(new Point(7, 5), new Point(6, 8), new Point(2, 7));
+    }
+
+    @Test
+    void kNearest_withKLargerThanSize_returnsAllPoints() {
+        PointSet<Point> set = createInterestingSet();
+        assertThat(set.kNearest(new Point(0, 0), 100)).hasSize(7).startsWith(new Point(1, 1));
+        assertThat(set.kNearest(new Point(0, 0), 0)).isEmpty();
+    }
+
+    @Test
+    void kNearest_withNegativeK_throwsIllegalArgumentException() {
+        PointSet<Point> set = createInterestingSet();
+        assertThatThrownBy(() -> set.kNearest(new Point(0, 0), -1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void withinRadius_returnsPointsWithinDistanceInclusive() {
+        PointSet<Point> set = createInterestingSet();
+        List<Point> actual = set.withinRadius(new Point(4, 4), 2);
+        assertThat(actual).containsExactlyInAnyOrder(new Point(3, 3), new Point(4, 2));
+        assertThat(set.withinRadius(new Point(5, 5), 0.5)).isEmpty();
+    }
+
+    @Test
+    void nearest_forBatch_storesIndicesOfNearestPoints() {
+        PointSet<Point> set = createInterestingSet();
+        double[] xs = {2.9, 7, 8, 3.5, 4};
+        double[] ys = {1.4, 2.9, 8, 8.5, 6};
+        int[] out = new int[5];
+        set.nearest(xs, ys, out);
+        assertThat(Arrays.stream(out).mapToObj(i -> set.allPoints().get(i))).containsExactly(
+            new Point(4, 2), new Point(7, 5), new Point(6, 8), new Point(2, 7), new Point(2, 7));
+    }
+
+    @Test
+    void allPoints_keepsItsOrderAndCannotBeModified() {
+        List<Point> points = List.of(new Point(2, 3), new Point(4, 2), new Point(1, 5), new Point(4, 5));
+        PointSet<Point> set = createPointSet(new ArrayList<>(points));
+        List<Point> first = List.copyOf(set.allPoints());
+        assertThat(first).containsExactlyInAnyOrderElementsOf(points);
+        set.nearest(3, 3);
+        set.nearest(new double[] {0, 5}, new double[] {0, 5}, new int[2]);
+        assertThat(set.allPoints()).containsExactlyElementsOf(first);
+        assertThatThrownBy(() -> set.allPoints().remove(0)).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void nearest_forBatchWithMismatchedArrays_throwsIllegalArgumentException() {
+        PointSet<Point> set = createInterestingSet();
+        assertThatThrownBy(() -> set.nearest(new double[2], new double[2], new int[1]))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void nearest_forBatchOnEmptySet_throwsIllegalStateException() {
+        PointSet<Point> set = createPointSet(new ArrayList<>());
+        assertThatThrownBy(() -> set.nearest(new double[] {1}, new double[] {1}, new int[1]))
+            .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> set.nearest(new double[0], new double[0], new int[0]))
+            .isInstanceOf(IllegalStateException.class);
+    }
 }
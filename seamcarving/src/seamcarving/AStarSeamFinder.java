@@ -2,6 +2,8 @@ package seamcarving;
 
 import graphpathfinding.AStarGraph;
 import graphpathfinding.AStarPathFinder;
+import graphpathfinding.IndexedAStarGraph;
+import graphpathfinding.IndexedAStarPathFinder;
 import graphpathfinding.ShortestPathFinder;
 import graphpathfinding.ShortestPathResult;
 import graphpathfinding.WeightedEdge;
@@ -19,6 +21,9 @@ public class AStarSeamFinder extends SeamFinder {
     */
     @Override
     protected <VERTEX> ShortestPathFinder<VERTEX> createPathFinder(AStarGraph<VERTEX> graph) {
+        if (graph instanceof IndexedAStarGraph) {
+            return new IndexedAStarPathFinder<>((IndexedAStarGraph<VERTEX>) graph);
+        }
         return new AStarPathFinder<>(graph);
     }
 
@@ -56,16 +61,108 @@ public class AStarSeamFinder extends SeamFinder {
         }
     }
 
-    public class PictureGraph implements AStarGraph<Pixel> {
+    /**
+     * The graph of pixels in an image, plus a source vertex before the first row (or column) and
+     * a sink vertex after the last one.
+     *
+     * Vertices are also numbered densely so that the graph can be searched without allocating a
+     * Pixel or WeightedEdge per relaxed edge: pixel (x, y) has index x * (height + 1) + y, and the
+     * source and sink come after all of the pixels.
+     */
+    public class PictureGraph implements IndexedAStarGraph<Pixel> {
 
         int height;
         int width;
         double[][] energies;
+        boolean isFindVert;
+        int source;
+        int sink;
 
-        public PictureGraph(double[][] energies) {
+        public PictureGraph(double[][] energies, boolean isFindVert) {
             this.height = energies[0].length - 1;
             this.width = energies.length - 1;
             this.energies = energies;
+            this.isFindVert = isFindVert;
+            this.source = (width + 1) * (height + 1);
+            this.sink = source + 1;
+        }
+
+        @Override
+        public int numVertices() {
+            return sink + 1;
+        }
+
+        @Override
+        public int indexOf(Pixel pixel) {
+            if (pixel.isFindVert != isFindVert) {
+                return -1;
+            }
+            int along = isFindVert ? pixel.y : pixel.x;
+            int last = isFindVert ? height : width;
+            if (along == -1) {
+                return source;
+            } else if (along == last + 1) {
+                return sink;
+            } else if (pixel.x < 0 || pixel.x > width || pixel.y < 0 || pixel.y > height) {
+                return -1;
+            }
+            return pixel.x * (height + 1) + pixel.y;
+        }
+
+        @Override
+        public Pixel vertexAt(int index) {
+            if (index == source) {
+                return isFindVert ? new Pixel(0, -1, 0.0, true) : new Pixel(-1, 0, 0.0, false);
+            } else if (index == sink) {
+                return isFindVert
+                    ? new Pixel(0, height + 1, 0.0, true)
+                    : new Pixel(width + 1, 0, 0.0, false);
+            }
+            int x = index / (height + 1);
+            int y = index % (height + 1);
+            return new Pixel(x, y, energies[x][y], isFindVert);
+        }
+
+        @Override
+        public int outDegree(int v) {
+            if (v == source) {
+                return isFindVert ? width + 1 : height + 1;
+            } else if (v == sink) {
+                return 0;
+            }
+            int x = v / (height + 1);
+            int y = v % (height + 1);
+            if (isFindVert) {
+                return y == height ? 1 : Math.min(x + 1, width) - Math.max(x - 1, 0) + 1;
+            }
+            return x == width ? 1 : Math.min(y + 1, height) - Math.max(y - 1, 0) + 1;
+        }
+
+        @Override
+        public int neighbor(int v, int i) {
+            if (v == source) {
+                return isFindVert ? i * (height + 1) : i;
+            }
+            int x = v / (height + 1);
+            int y = v % (height + 1);
+            if (isFindVert) {
+                return y == height ? sink : (Math.max(x - 1, 0) + i) * (height + 1) + y + 1;
+            }
+            return x == width ? sink : (x + 1) * (height + 1) + Math.max(y - 1, 0) + i;
+        }
+
+        @Override
+        public double neighborWeight(int v, int i) {
+            int w = neighbor(v, i);
+            if (w == sink) {
+                return 0.0;
+            }
+            return energies[w / (height + 1)][w % (height + 1)];
+        }
+
+        @Override
+        public double estimatedDistanceToGoal(int v, int goal) {
+            return 0.0;
         }
 
         @Override
@@ -219,7 +316,7 @@ public class AStarSeamFinder extends SeamFinder {
         List<Integer> seam = new ArrayList<>();
         Pixel start = new Pixel(-1, 0, 0.0, false);
         Pixel end = new Pixel(energies.length, 0, 0.0, false);
-        PictureGraph picture = new PictureGraph(energies);
+        PictureGraph picture = new PictureGraph(energies, false);
         ShortestPathFinder<Pixel> finder = createPathFinder(picture);
         ShortestPathResult<Pixel> result = finder.findShortestPath(
             start,
@@ -246,7 +343,7 @@ public class AStarSeamFinder extends SeamFinder {
         List<Integer> seam = new ArrayList<>();
         Pixel start = new Pixel(0, -1, 0.0, true);
         Pixel end = new Pixel(0, energies[0].length, 0.0, true);
-        PictureGraph picture = new PictureGraph(energies);
+        PictureGraph picture = new PictureGraph(energies, true);
         ShortestPathFinder<Pixel> finder = createPathFinder(picture);
         ShortestPathResult<Pixel> result = finder.findShortestPath(
             start,